@@ -194,6 +194,15 @@ public class EnvTestData {
         return sProject.getLocation() + File.separator + "TestData";
     }
 
+    /**
+     * writes the buffered execution changes of all the environments
+     */
+    public void flushChanges() {
+        for (TestData testData : getAllEnvironments()) {
+            testData.flushChanges();
+        }
+    }
+
     public void save() {
         if (!new File(getLocation()).exists()) {
             new File(getLocation()).mkdirs();
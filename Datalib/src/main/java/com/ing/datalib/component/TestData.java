@@ -38,6 +38,18 @@ public abstract class TestData {
         clearView();
     }
 
+    /**
+     * writes the buffered execution changes of all the sheets
+     */
+    public void flushChanges() {
+        if (globalData != null) {
+            globalData.flushChanges();
+        }
+        for (TestDataModel tData : testDataList) {
+            tData.flushChanges();
+        }
+    }
+
     public void clearView() {
         globalData.view().clear();
         for (TestDataModel tData : testDataList) {
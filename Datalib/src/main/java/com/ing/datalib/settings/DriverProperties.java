@@ -471,6 +471,34 @@ public class DriverProperties extends LinkedProperties {
         return apiConfigFilePropMap.get(currLoadedAPIConfig).getProperty("keyStorePassword", "");
     }
 
+    /**
+     * @return HTTP version of the API client, HTTP_1_1 or HTTP_2
+     */
+    public String getHttpVersion() {
+        return apiConfigFilePropMap.get(currLoadedAPIConfig).getProperty("httpVersion", "HTTP_1_1");
+    }
+
+    /**
+     * @return redirect policy of the API client, ALWAYS, NORMAL or NEVER
+     */
+    public String getFollowRedirects() {
+        return apiConfigFilePropMap.get(currLoadedAPIConfig).getProperty("followRedirects", "ALWAYS");
+    }
+
+    /**
+     * @return connect timeout of the API client in ms, empty for no timeout
+     */
+    public String getConnectTimeout() {
+        return apiConfigFilePropMap.get(currLoadedAPIConfig).getProperty("connectTimeout", "");
+    }
+
+    /**
+     * @return timeout of each API request in ms, empty for no timeout
+     */
+    public String getRequestTimeout() {
+        return apiConfigFilePropMap.get(currLoadedAPIConfig).getProperty("requestTimeout", "");
+    }
+
       //Setters for some specific properties.
       //Commented out as these are not set programmatically but are extracted from
       //configurations files.
@@ -55,6 +55,38 @@ public class RunSettings extends AbstractPropSettings {
         return Integer.valueOf(getProperty("ThreadCount", "1"));
     }
 
+    public void setBrowserMode(String value) {
+        setProperty("BrowserMode", value);
+    }
+
+    /**
+     * Isolated - a new browser process per iteration
+     * <br>
+     * Pooled - browser processes are kept per worker thread and each
+     * iteration gets a fresh browser context
+     *
+     * @return the browser mode
+     */
+    public String getBrowserMode() {
+        return getProperty("BrowserMode", "Isolated");
+    }
+
+    public Boolean isBrowserPooled() {
+        return getBrowserMode().equalsIgnoreCase("pooled");
+    }
+
+    public void setBrowserRecycleAfter(String value) {
+        setProperty("BrowserRecycleAfter", value);
+    }
+
+    /**
+     * @return number of contexts a pooled browser serves before it is
+     * relaunched
+     */
+    public Integer getBrowserRecycleAfter() {
+        return Integer.valueOf(getProperty("BrowserRecycleAfter", "25"));
+    }
+
     public void setTakeFullPageScreenShot(Boolean value) {
         setProperty("TakeFullPageScreenShot", String.valueOf(value));
     }
@@ -63,6 +95,29 @@ public class RunSettings extends AbstractPropSettings {
         return Boolean.valueOf(getProperty("TakeFullPageScreenShot", "true"));
     }
 
+    public void setScreenShotScale(String value) {
+        setProperty("ScreenShotScale", value);
+    }
+
+    /**
+     * @return scale factor applied to the screenshots before they are written,
+     * 1.0 keeps the captured size
+     */
+    public Double getScreenShotScale() {
+        return Double.valueOf(getProperty("ScreenShotScale", "1.0"));
+    }
+
+    public void setScreenShotQuality(String value) {
+        setProperty("ScreenShotQuality", value);
+    }
+
+    /**
+     * @return JPEG quality (1-100) of the screenshots, 0 keeps them as PNG
+     */
+    public Integer getScreenShotQuality() {
+        return Integer.valueOf(getProperty("ScreenShotQuality", "0"));
+    }
+
     public void setReportPerformanceLog(Boolean value) {
         setProperty("reportPerformanceLog", String.valueOf(value));
     }
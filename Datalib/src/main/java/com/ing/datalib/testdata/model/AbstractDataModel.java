@@ -31,7 +31,7 @@ public abstract class AbstractDataModel<T extends List<String>> extends UndoRedo
 
     private String location;
 
-    private TestDataView v;
+    private volatile TestDataView v;
 
     private Boolean saved = true;
 
@@ -47,8 +47,12 @@ public abstract class AbstractDataModel<T extends List<String>> extends UndoRedo
 
     public TestDataView view() {
         if (v == null) {
-            this.loadTableModel();
-            v = new ModelView(this);
+            synchronized (this) {
+                if (v == null) {
+                    this.loadTableModel();
+                    v = new ModelView(this);
+                }
+            }
         }
         return v;
     }
@@ -283,6 +287,9 @@ public abstract class AbstractDataModel<T extends List<String>> extends UndoRedo
 
     public void clearSteps() {
         records.clear();
+        if (v != null) {
+            v.clear();
+        }
     }
 
     @Override
@@ -316,6 +323,9 @@ public abstract class AbstractDataModel<T extends List<String>> extends UndoRedo
         if (records.isEmpty()) {
             loadMRecords();
             setSaved(true);
+            if (v != null) {
+                v.reindex();
+            }
         }
     }
 
@@ -325,6 +335,7 @@ public abstract class AbstractDataModel<T extends List<String>> extends UndoRedo
         fireTableStructureChanged();
         setSaved(true);
         super.clearUndoRedo();
+        view().reindex();
     }
 
     private void loadMRecords() {
@@ -396,6 +407,22 @@ public abstract class AbstractDataModel<T extends List<String>> extends UndoRedo
 
     public abstract void saveChanges();
 
+    /**
+     * saves the changes made during execution. Providers may buffer the write
+     * and flush it later, by default it is written immediately
+     *
+     * @see #flushChanges()
+     */
+    public void saveChangesDeferred() {
+        saveChanges();
+    }
+
+    /**
+     * writes the changes buffered by {@link #saveChangesDeferred()}, if any
+     */
+    public void flushChanges() {
+    }
+
     public abstract String getName();
 
     public String getLocation() {
@@ -0,0 +1,118 @@
+package com.ing.datalib.testdata.view;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ *
+ * Multi-level index over the records of a data model.,
+ * <br><br>
+ * scenario -&gt; testcase -&gt; iteration -&gt; sub iteration -&gt; rows
+ * <br><br>
+ * Exact keys are resolved with hash lookups, the regex match is only used for
+ * the levels given as a pattern (other than {@link TestDataView#ALL}) and only
+ * on the rows below the last exact level.
+ * <br>
+ * The index is not thread safe on its own, the owning view reads it under its
+ * read lock and updates it under its write lock.
+ *
+ */
+class RecordIndex {
+
+    private static final int LEVELS = 4;
+
+    private static final Pattern REGEX_META = Pattern.compile("[\\\\.\\[\\]{}()*+?^$|]");
+
+    private final Node root = new Node();
+
+    static RecordIndex of(List<? extends List<String>> records) {
+        RecordIndex index = new RecordIndex();
+        for (List<String> record : records) {
+            index.add(record);
+        }
+        return index;
+    }
+
+    void add(List<String> record) {
+        Node node = root;
+        node.rows.add(record);
+        for (int level = 0; level < LEVELS && level < record.size(); level++) {
+            node = node.children.computeIfAbsent(String.valueOf(record.get(level)), k -> new Node());
+            node.rows.add(record);
+        }
+    }
+
+    /**
+     * finds the rows matching the given keys, one key per level starting from
+     * the scenario. Missing trailing keys match everything.
+     *
+     * @param keys scenario, testcase, iteration, sub iteration
+     * @return the matching rows in model order
+     */
+    List<List<String>> find(String... keys) {
+        Node node = root;
+        int level = 0;
+        for (; level < keys.length; level++) {
+            if (!isLiteral(keys[level])) {
+                break;
+            }
+            node = node.children.get(keys[level]);
+            if (node == null) {
+                return new ArrayList<>();
+            }
+        }
+        if (matchesAll(keys, level)) {
+            return new ArrayList<>(node.rows);
+        }
+        return filter(node.rows, keys, level);
+    }
+
+    private static boolean matchesAll(String[] keys, int from) {
+        for (int level = from; level < keys.length; level++) {
+            if (!TestDataView.ALL.equals(keys[level])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<List<String>> filter(List<List<String>> rows, String[] keys, int from) {
+        Pattern[] patterns = new Pattern[keys.length];
+        for (int level = from; level < keys.length; level++) {
+            patterns[level] = Pattern.compile(keys[level]);
+        }
+        List<List<String>> view = new ArrayList<>();
+        for (List<String> row : rows) {
+            if (matches(row, patterns, from)) {
+                view.add(row);
+            }
+        }
+        return view;
+    }
+
+    private static boolean matches(List<String> row, Pattern[] patterns, int from) {
+        try {
+            for (int level = from; level < patterns.length; level++) {
+                if (!patterns[level].matcher(row.get(level)).matches()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    private static boolean isLiteral(String key) {
+        return key != null && !REGEX_META.matcher(key).find();
+    }
+
+    private static class Node {
+
+        private final List<List<String>> rows = new ArrayList<>();
+        private final Map<String, Node> children = new HashMap<>();
+    }
+}
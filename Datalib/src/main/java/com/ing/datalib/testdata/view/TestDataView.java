@@ -3,11 +3,14 @@ package com.ing.datalib.testdata.view;
 
 import com.ing.datalib.testdata.model.Record;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  *
@@ -20,13 +23,26 @@ import java.util.Set;
  * <br> find - value for the given field
  * <br> update - the new value/s for the field (single or group of records)
  *
- *
+ * <br><br>
+ * <b>threading : </b>
+ * <br>
+ * <br> lookups go through a multi-level record index (scenario, testcase,
+ * iteration, sub iteration) so exact keys are hash lookups, regex matching is
+ * only used for wildcard keys
+ * <br> indexed views are kept in a concurrent map so parallel test cases can
+ * read the same sheet without a global lock
+ * <br> the record index is read under the read lock, appends of new records
+ * run under the write lock of the owning view
  *
  */
 public abstract class TestDataView {
 
     public final static String ALL = ".*";
-    public final Map<String, List<List<String>>> VIEWS = new HashMap<>();
+    public final Map<String, List<List<String>>> VIEWS = new ConcurrentHashMap<>();
+
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile RecordIndex recordIndex;
 
     abstract public List columns();
 
@@ -40,6 +56,21 @@ public abstract class TestDataView {
 
     public void clear() {
         VIEWS.clear();
+        recordIndex = null;
+    }
+
+    /**
+     * drops the indexed views and rebuilds the record index from the current
+     * records, call it after the backing records are (re)loaded
+     */
+    public void reindex() {
+        lock.writeLock().lock();
+        try {
+            VIEWS.clear();
+            recordIndex = RecordIndex.of(records());
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public void put(String key, List records) {
@@ -47,10 +78,7 @@ public abstract class TestDataView {
     }
 
     public void add(String key, List<String> records) {
-        if (!VIEWS.containsKey(key)) {
-            VIEWS.put(key, new ArrayList());
-        }
-        VIEWS.get(key).add(records);
+        VIEWS.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(records);
     }
 
     /**
@@ -279,7 +307,7 @@ public abstract class TestDataView {
             return index(key, scn, tc, iter);
         } else {
             if (addIfNotPresent && get(key).isEmpty()) {
-                add(key, addRecord(scn, tc, iter, "1"));
+                addIfEmpty(key, scn, tc, iter, "1");
             }
             return toView(get(key));
         }
@@ -306,20 +334,32 @@ public abstract class TestDataView {
     public TestDataView withSubIter(String scn, String tc, String iter, String subIter, Boolean addIfNotPresent) {
         String key = scn + "#" + tc + "#" + iter + "#" + subIter;
         if (!VIEWS.containsKey(key)) {
-            return index(key, scn, tc, iter, subIter);
-        } else {
-            if (addIfNotPresent && get(key).isEmpty()) {
-                add(key, addRecord(scn, tc, iter, subIter));
+            index(key, scn, tc, iter, subIter);
+        }
+        if (addIfNotPresent && get(key).isEmpty()) {
+            addIfEmpty(key, scn, tc, iter, subIter);
+        }
+        return toView(get(key));
+    }
+
+    /**
+     * adds a new record for the key unless another thread already did it
+     */
+    private void addIfEmpty(String key, String scn, String tc, String iter, String subIter) {
+        lock.writeLock().lock();
+        try {
+            if (get(key).isEmpty()) {
+                add(key, appendRecord(scn, tc, iter, subIter));
             }
-            return toView(get(key));
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
     //<editor-fold defaultstate="collapsed" desc="index keys">
     private TestDataView index(String key, String scnOrgid) {
-        TestDataView v = getView(scnOrgid);
-        VIEWS.put(key, v.records());
-        return v;
+        VIEWS.putIfAbsent(key, getView(scnOrgid).records());
+        return toView(get(key));
     }
 
     private TestDataView index(String key, String scn, String tc) {
@@ -331,48 +371,69 @@ public abstract class TestDataView {
     }
 
     private TestDataView index(String key, String scn, String tc, String iter, String subIter) {
-        TestDataView v = getView(scn, tc, iter, subIter);
-        VIEWS.put(key, v.records());
-        return v;
+        VIEWS.putIfAbsent(key, getView(scn, tc, iter, subIter).records());
+        return toView(get(key));
     }
 //</editor-fold>
 
     private TestDataView getView(String scnOrgid) {
-        return toView(getRecords(records(), scnOrgid));
+        return toView(getRecords(scnOrgid));
     }
 
     private TestDataView getView(String scn, String tc, String iter, String subIter) {
-        return toView(getRecords(records(), scn, tc, iter, subIter));
+        return toView(getRecords(scn, tc, iter, subIter));
     }
 
-    private List getRecords(List records, String scnOrgid) {
-        List<Object> view = new ArrayList();
-        for (Object r : records) {
-            try {
-                if (((List) r).get(0).toString().matches(scnOrgid)) {
-                    view.add(r);
-                }
-            } catch (Exception ex) {
+    private List getRecords(String scnOrgid) {
+        RecordIndex index = recordIndex();
+        lock.readLock().lock();
+        try {
+            return new CopyOnWriteArrayList<>(index.find(scnOrgid));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
-            }
+    private List getRecords(String scn, String tc, String iter, String subIter) {
+        RecordIndex index = recordIndex();
+        lock.readLock().lock();
+        try {
+            return new CopyOnWriteArrayList<>(index.find(scn, tc, iter, subIter));
+        } finally {
+            lock.readLock().unlock();
         }
-        return view;
     }
 
-    private List getRecords(List records, String scn, String tc, String iter, String subIter) {
-        List<Record> view = new ArrayList();
-        for (Object rObj : records) {
-            Record r = (Record) rObj;
+    private RecordIndex recordIndex() {
+        RecordIndex index = recordIndex;
+        if (index == null) {
+            lock.writeLock().lock();
             try {
-                if (r.getScenario().matches(scn) && r.getTestcase().matches(tc)
-                        && r.getIteration().matches(iter) && r.getSubIteration().matches(subIter)) {
-                    view.add(r);
+                if (recordIndex == null) {
+                    recordIndex = RecordIndex.of(records());
                 }
-            } catch (Exception ex) {
+                index = recordIndex;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return index;
+    }
 
+    /**
+     * adds a new record to the backing model and to the record index
+     */
+    private List<String> appendRecord(String scenario, String testcase, String iteration, String subIteration) {
+        lock.writeLock().lock();
+        try {
+            List<String> record = addRecord(scenario, testcase, iteration, subIteration);
+            if (recordIndex != null) {
+                recordIndex.add(record);
             }
+            return record;
+        } finally {
+            lock.writeLock().unlock();
         }
-        return view;
     }
 
     private TestDataView toView(final List l) {
@@ -400,7 +461,7 @@ public abstract class TestDataView {
 
             @Override
             public List<String> addRecord(String scenario, String testcase, String iteration, String subIteration) {
-                return parent.addRecord(scenario, testcase, iteration, subIteration);
+                return parent.appendRecord(scenario, testcase, iteration, subIteration);
             }
 
         };
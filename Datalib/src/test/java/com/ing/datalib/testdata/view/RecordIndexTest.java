@@ -0,0 +1,61 @@
+package com.ing.datalib.testdata.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class RecordIndexTest {
+
+    private List<List<String>> records;
+    private RecordIndex index;
+
+    @BeforeMethod
+    public void setUp() {
+        records = new ArrayList<>();
+        records.add(Arrays.asList("Login", "TC1", "1", "1", "a"));
+        records.add(Arrays.asList("Login", "TC1", "1", "2", "b"));
+        records.add(Arrays.asList("Login", "TC1", "2", "1", "c"));
+        records.add(Arrays.asList("Login", "TC2", "1", "1", "d"));
+        records.add(Arrays.asList("Order", "TC1", "1", "1", "e"));
+        index = RecordIndex.of(records);
+    }
+
+    /**
+     * Test of find method with exact keys, of class RecordIndex.
+     */
+    @Test
+    public void testFindExact() {
+        assertEquals(index.find("Login", "TC1", "1", "2"), Arrays.asList(records.get(1)));
+        assertEquals(index.find("Login", "TC1", TestDataView.ALL, TestDataView.ALL),
+                records.subList(0, 3));
+        assertEquals(index.find("Login"), records.subList(0, 4));
+        assertTrue(index.find("Login", "TC3", "1", "1").isEmpty());
+    }
+
+    /**
+     * Test of find method with patterns, of class RecordIndex.
+     */
+    @Test
+    public void testFindPattern() {
+        assertEquals(index.find("Login", "TC.*", "1", "1"),
+                Arrays.asList(records.get(0), records.get(3)));
+        assertEquals(index.find(TestDataView.ALL, "TC1", "1", "1"),
+                Arrays.asList(records.get(0), records.get(4)));
+    }
+
+    /**
+     * Test of add method, of class RecordIndex.
+     */
+    @Test
+    public void testAdd() {
+        List<String> record = Arrays.asList("Login", "TC1", "3", "1", "f");
+        index.add(record);
+        assertEquals(index.find("Login", "TC1", "3", "1"), Arrays.asList(record));
+        assertEquals(index.find("Login", "TC1", TestDataView.ALL, TestDataView.ALL).size(), 4);
+    }
+
+}
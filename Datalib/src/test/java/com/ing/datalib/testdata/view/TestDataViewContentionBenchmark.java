@@ -0,0 +1,26 @@
+package com.ing.datalib.testdata.view;
+
+import com.ing.datalib.testdata.model.TestDataModel;
+
+/**
+ * Prints the lookup throughput of {@link TestDataView} for an increasing
+ * number of threads reading one shared sheet, run the main method from the
+ * test classpath.
+ *
+ */
+public class TestDataViewContentionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        TestDataModel model = new TestDataViewContentionTest.InMemoryModel();
+        model.loadTableModel();
+        System.out.println("resolve contention benchmark");
+        TestDataViewContentionTest.run(model, 1);
+        for (int threads : new int[]{1, 2, 4, 8, 16}) {
+            long start = System.nanoTime();
+            TestDataViewContentionTest.run(model, threads);
+            long nanos = System.nanoTime() - start;
+            double opsPerSec = (double) threads * TestDataViewContentionTest.LOOKUPS / nanos * 1_000_000_000L;
+            System.out.println(String.format("%2d threads : %,12.0f lookups/s", threads, opsPerSec));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.ing.datalib.testdata.view;
+
+import com.ing.datalib.testdata.model.AbstractDataModel;
+import com.ing.datalib.testdata.model.Record;
+import com.ing.datalib.testdata.model.TestDataModel;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Data resolution under contention, every worker reads its own test case
+ * from one shared sheet the way parallel test cases do.
+ * <br>
+ * The throughput is measured by {@link TestDataViewContentionBenchmark}.
+ */
+public class TestDataViewContentionTest {
+
+    private static final int TESTCASES = 16;
+    private static final int ITERATIONS = 10;
+    static final int LOOKUPS = 20_000;
+
+    private TestDataModel model;
+
+    @BeforeMethod
+    public void setUp() {
+        model = new InMemoryModel();
+        model.loadTableModel();
+    }
+
+    /**
+     * Test of withSubIter method under parallel readers, of class TestDataView.
+     */
+    @Test
+    public void testParallelLookupsReturnOwnData() throws Exception {
+        List<Long> results = run(model, 8);
+        assertEquals(results.size(), 8);
+    }
+
+    static List<Long> run(TestDataModel model, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Long>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final String tc = "TC" + (t % TESTCASES);
+                workers.add(() -> {
+                    long found = 0;
+                    for (int i = 0; i < LOOKUPS; i++) {
+                        String iter = String.valueOf(i % ITERATIONS + 1);
+                        String value = model.view().withSubIter("Scn", tc, iter, "1").getField("Value");
+                        assertEquals(value, tc + "-" + iter);
+                        found++;
+                    }
+                    return found;
+                });
+            }
+            List<Long> results = new ArrayList<>();
+            for (Future<Long> f : pool.invokeAll(workers)) {
+                results.add(f.get());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Test of withSubIter method adding a missing record, of class
+     * TestDataView.
+     */
+    @Test
+    public void testWithSubIterAddsRecord() {
+        TestDataView view = model.view().withSubIter("Scn", "TC0", "1", "2", true);
+        assertEquals(view.records().size(), 1);
+        assertTrue(view.update("Value", "added"));
+        assertEquals(model.view().withSubIter("Scn", "TC0", "1", "2").getField("Value"), "added");
+        assertEquals(model.view().withSubIter("Scn", "TC0", "1", "2", true).records().size(), 1);
+    }
+
+    static class InMemoryModel extends TestDataModel {
+
+        InMemoryModel() {
+            super("mem", false);
+        }
+
+        @Override
+        public Set<String> loadColumns(File location) {
+            return loadColumns();
+        }
+
+        @Override
+        public AbstractDataModel loadRecords(File location) {
+            return loadRecords();
+        }
+
+        @Override
+        public Set<String> loadColumns() {
+            Set<String> cols = new LinkedHashSet<>(Arrays.asList(Record.HEADERS));
+            cols.add("Value");
+            return cols;
+        }
+
+        @Override
+        public AbstractDataModel loadRecords() {
+            for (int tc = 0; tc < TESTCASES; tc++) {
+                for (int iter = 1; iter <= ITERATIONS; iter++) {
+                    Record r = new Record();
+                    r.addAll(Arrays.asList("Scn", "TC" + tc, String.valueOf(iter), "1", "TC" + tc + "-" + iter));
+                    getRecords().add(r);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public Boolean rename(String newName) {
+            return true;
+        }
+
+        @Override
+        public Boolean delete() {
+            return true;
+        }
+
+        @Override
+        public void saveChanges() {
+        }
+
+        @Override
+        public String getName() {
+            return "mem";
+        }
+    }
+}
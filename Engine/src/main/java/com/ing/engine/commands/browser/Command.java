@@ -5,6 +5,7 @@ import com.ibm.msg.client.jms.JmsConnectionFactory;
 import com.ibm.msg.client.jms.JmsFactoryFactory;
 import com.ing.datalib.or.common.ObjectGroup;
 import com.ing.datalib.or.image.ImageORObject;
+import com.ing.engine.commands.webservice.ResponseBody;
 import com.ing.engine.core.CommandControl;
 import com.ing.engine.drivers.AutomationObject;
 import com.ing.engine.drivers.PlaywrightDriverCreation;
@@ -25,8 +26,11 @@ import java.util.Stack;
 import com.ing.engine.drivers.WebDriverCreation;
 import com.ing.engine.drivers.MobileObject;
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.jms.Destination;
 import javax.jms.JMSConsumer;
 import javax.jms.JMSContext;
@@ -76,6 +80,7 @@ public class Command {
     static public Map<String, ArrayList<String>> headers = new HashMap<>();
     static public Map<String, ArrayList<String>> urlParams = new HashMap<>();
     static public Map<String, String> responsebodies = new HashMap<>();
+    static public Map<String, ResponseBody> responsepayloads = new HashMap<>();
     static public Map<String, String> responsecodes = new HashMap<>();
     static public Map<String, String> responsemessages = new HashMap<>();
     static public Map<String, APIRequestContext> requests = new HashMap<>();
@@ -89,6 +94,7 @@ public class Command {
     static public Map<String, Instant> before = new HashMap<>();
     static public Map<String, Instant> after = new HashMap<>();
     static public Map<String, Long> duration = new HashMap<>();
+    static public Map<String, Long> timeToFirstByte = new HashMap<>();
     public String key;
     static public String basicAuthorization;
     /**
@@ -350,6 +356,14 @@ public class Command {
     }
 
     public String ResponseBody() {
+        ResponseBody body = responsepayloads.get(key);
+        if (body != null && body.isStreamed()) {
+            try {
+                return body.text();
+            } catch (IOException ex) {
+                Logger.getLogger(Command.class.getName()).log(Level.SEVERE, null, ex);
+            }
+        }
         return responsebodies.get(key);
     }
 
@@ -0,0 +1,152 @@
+package com.ing.engine.commands.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Connections of the Database commands, one pool per DB alias and connection
+ * configuration (connection string, user).
+ * <br>
+ * A test case borrows a connection in <code>initDBConnection</code> and gives
+ * it back in <code>closeDBConnection</code>, instead of opening and closing a
+ * new one. Idle connections are validated before they are handed out again.
+ * At most <code>pool.maxSize</code> connections are open per alias, callers
+ * wait up to the DB timeout for a free one.
+ *
+ */
+public final class ConnectionPool {
+
+    private static final Logger LOG = Logger.getLogger(ConnectionPool.class.getName());
+
+    private static final int VALIDATION_TIMEOUT = 2;
+
+    private static final Map<String, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    interface ConnectionFactory {
+
+        Connection open() throws SQLException;
+    }
+
+    private final String alias;
+    private final ConnectionFactory factory;
+    private final int statementCacheSize;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> open = ConcurrentHashMap.newKeySet();
+
+    private ConnectionPool(String alias, ConnectionFactory factory, int maxSize, int statementCacheSize) {
+        this.alias = alias;
+        this.factory = factory;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(Math.max(1, maxSize), true);
+    }
+
+    /**
+     * returns the pool of the configuration, creating it on first use
+     *
+     * @param alias the DB alias
+     * @param config the connection configuration key
+     * @param factory opens new physical connections
+     * @param maxSize the maximum number of open connections
+     * @param statementCacheSize the number of prepared statements kept per
+     * connection
+     * @return the pool
+     */
+    static ConnectionPool get(String alias, String config, ConnectionFactory factory, int maxSize,
+            int statementCacheSize) {
+        return POOLS.computeIfAbsent(alias + config,
+                k -> new ConnectionPool(alias, factory, maxSize, statementCacheSize));
+    }
+
+    /**
+     * closes all the connections, called at the end of the run
+     */
+    public static void closeAll() {
+        POOLS.values().forEach(ConnectionPool::close);
+        POOLS.clear();
+    }
+
+    /**
+     * @param timeout seconds to wait for a free connection
+     * @return an idle connection of the pool or a new one
+     * @throws SQLException if no connection is free in time or a new one
+     * cannot be opened
+     */
+    PooledConnection borrow(int timeout) throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.SECONDS)) {
+                throw new SQLException("No free connection for [" + alias + "] after " + timeout + "s");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection for [" + alias + "]", ex);
+        }
+        try {
+            PooledConnection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                if (connection.isValid(VALIDATION_TIMEOUT)) {
+                    return connection;
+                }
+                close(connection);
+            }
+            connection = new PooledConnection(factory.open(), statementCacheSize);
+            open.add(connection);
+            return connection;
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * gives the connection back, the uncommitted changes of a connection
+     * without auto commit (<code>commit=false</code>) are rolled back
+     *
+     * @param connection the borrowed connection
+     */
+    void release(PooledConnection connection) {
+        try {
+            Connection con = connection.getConnection();
+            if (!con.isClosed() && !con.getAutoCommit()) {
+                con.rollback();
+            }
+            idle.offerFirst(connection);
+        } catch (SQLException ex) {
+            LOG.log(Level.WARNING, "Dropping DB connection of [" + alias + "]", ex);
+            close(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * closes the connection instead of giving it back, e.g. after a
+     * connection error
+     *
+     * @param connection the borrowed connection
+     */
+    void discard(PooledConnection connection) {
+        close(connection);
+        permits.release();
+    }
+
+    private void close(PooledConnection connection) {
+        open.remove(connection);
+        connection.close();
+    }
+
+    private void close() {
+        idle.clear();
+        open.forEach(PooledConnection::close);
+        open.clear();
+    }
+}
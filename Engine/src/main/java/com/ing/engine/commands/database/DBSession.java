@@ -0,0 +1,117 @@
+package com.ing.engine.commands.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DB connection of the test case running on the current thread, with its
+ * statement and last query result.
+ *
+ */
+final class DBSession {
+
+    private final ConnectionPool pool;
+    private final PooledConnection connection;
+    private final int resultSetType;
+    private final int fetchSize;
+    private final int timeout;
+    private Statement statement;
+
+    ResultSet result;
+    ResultSetMetaData resultData;
+    final List<String> colNames = new ArrayList<>();
+
+    /**
+     * @param pool the pool of the connection
+     * @param connection the borrowed connection
+     * @param forwardOnly true for forward only cursors, false for scrollable
+     * ones
+     * @param fetchSize rows fetched per round trip, 0 for the driver default
+     * @param timeout the query timeout in seconds
+     */
+    DBSession(ConnectionPool pool, PooledConnection connection, boolean forwardOnly, int fetchSize, int timeout) {
+        this.pool = pool;
+        this.connection = connection;
+        this.resultSetType = forwardOnly ? ResultSet.TYPE_FORWARD_ONLY : ResultSet.TYPE_SCROLL_INSENSITIVE;
+        this.fetchSize = fetchSize;
+        this.timeout = timeout;
+    }
+
+    PooledConnection getConnection() {
+        return connection;
+    }
+
+    boolean isForwardOnly() {
+        return resultSetType == ResultSet.TYPE_FORWARD_ONLY;
+    }
+
+    /**
+     * @return the number of rows handled per chunk when a result is streamed,
+     * the fetch size or 1000 if none is set
+     */
+    int getChunkSize() {
+        return fetchSize > 0 ? fetchSize : 1000;
+    }
+
+    Statement statement() throws SQLException {
+        if (statement == null) {
+            statement = connection.getConnection().createStatement(resultSetType, ResultSet.CONCUR_UPDATABLE);
+            configure(statement);
+        }
+        return statement;
+    }
+
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement prepared = connection.prepare(sql, resultSetType);
+        configure(prepared);
+        return prepared;
+    }
+
+    private void configure(Statement stmt) throws SQLException {
+        stmt.setQueryTimeout(timeout);
+        if (fetchSize > 0) {
+            stmt.setFetchSize(fetchSize);
+        }
+    }
+
+    /**
+     * closes the result of the previous query, before running the next one
+     */
+    void closeResult() throws SQLException {
+        if (result != null) {
+            result.close();
+            result = null;
+            resultData = null;
+        }
+        colNames.clear();
+    }
+
+    /**
+     * closes the statement and gives the connection back to the pool, the
+     * prepared statements stay cached with the connection
+     * <br>
+     * A connection without auto commit (<code>commit=false</code>) is rolled
+     * back, the changes not committed by the test case are lost.
+     */
+    void release() throws SQLException {
+        try {
+            closeResult();
+            if (statement != null) {
+                statement.close();
+            }
+            pool.release(connection);
+        } catch (SQLException ex) {
+            pool.discard(connection);
+            throw ex;
+        }
+    }
+
+    void discard() {
+        pool.discard(connection);
+    }
+}
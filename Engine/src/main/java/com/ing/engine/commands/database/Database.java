@@ -1,15 +1,30 @@
 package com.ing.engine.commands.database;
 
 import com.ing.datalib.testdata.view.TestDataView;
+import com.ing.engine.constants.FilePath;
 import com.ing.engine.core.CommandControl;
 import com.ing.engine.support.Status;
 import com.ing.engine.support.methodInf.Action;
 import com.ing.engine.support.methodInf.InputType;
 import com.ing.engine.support.methodInf.ObjectType;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
 
 /**
  *
@@ -29,7 +44,7 @@ public class Database extends General {
             {
                 dbName = dbName.replace("#","");
                 if (verifyDbConnection(dbName)) {
-                    DatabaseMetaData metaData = dbconnection.getMetaData();
+                    DatabaseMetaData metaData = getDBConnection().getMetaData();
                     Report.updateTestLog(Action, " Connected with " + metaData.getDriverName() + "\n"
                                     + "Driver version " + metaData.getDriverVersion() + " \n"
                                     + "Database product name " + metaData.getDatabaseProductName() + "\n"
@@ -45,10 +60,10 @@ public class Database extends General {
         }
     }
 
-    @Action(object = ObjectType.DATABASE, desc = "Execute the Query in [<Input>]", input = InputType.YES)
+    @Action(object = ObjectType.DATABASE, desc = "Execute the Query in [<Input>] with the parameters [<Condition>]", input = InputType.YES, condition = InputType.OPTIONAL)
     public void executeSelectQuery() {
         try {
-            executeSelect();
+            executeSelect(getQueryParameters());
             Report.updateTestLog(Action, "Executed Select Query", Status.DONE);
         } catch (SQLException ex) {
             Report.updateTestLog(Action, "Error executing the SQL Query: " + ex.getMessage(),
@@ -56,10 +71,10 @@ public class Database extends General {
         }
     }
 
-    @Action(object = ObjectType.DATABASE, desc = "Execute the Query in [<Input>]", input = InputType.YES)
+    @Action(object = ObjectType.DATABASE, desc = "Execute the Query in [<Input>] with the parameters [<Condition>]", input = InputType.YES, condition = InputType.OPTIONAL)
     public void executeDMLQuery() {
         try {
-            if (executeDML()) {
+            if (executeDML(getQueryParameters())) {
                 Report.updateTestLog(Action, " Table updated by using " + Data, Status.PASSNS);
             } else {
                 Report.updateTestLog(Action, " Table not updated by using " + Data, Status.FAILNS);
@@ -104,6 +119,7 @@ public class Database extends General {
         try {
             if (Condition != null && Input != null) {
                 int rowIndex = 1;
+                ResultSet result = getResult();
                 result.first();
                 String[] sheetDetail = Input.split(":");
                 String sheetName = sheetDetail[0];
@@ -156,8 +172,15 @@ public class Database extends General {
             List<String> columns = dataView.columns();
             boolean isFailed = false;
             StringBuilder desc = new StringBuilder();
+            Set<String> found;
+            try {
+                found = isStreaming() ? findStreamed(dataView, columns.subList(4, columns.size())) : null;
+            } catch (SQLException | IOException ex) {
+                Report.updateTestLog(Action, "Error asserting the value in DB " + ex.getMessage(), Status.FAILNS);
+                return;
+            }
             for (String column : columns.subList(4, columns.size())) {
-                if (assertDB(column, dataView.getField(column))) {
+                if (found != null ? found.contains(column) : assertDB(column, dataView.getField(column))) {
                     desc.append("Value ").append(userData.getData(sheetName, column)).append(" exist in the Database").append("\n");
                 } else {
                     isFailed = true;
@@ -170,6 +193,116 @@ public class Database extends General {
         }
     }
 
+    /**
+     * single pass over a forward only result, stops as soon as every expected
+     * value was seen
+     *
+     * @return the columns whose expected value exists in the result
+     */
+    private Set<String> findStreamed(TestDataView dataView, List<String> columns) throws SQLException, IOException {
+        Map<Integer, String> expected = new HashMap<>();
+        for (String column : columns) {
+            int index = getColumnIndex(column);
+            if (index != -1) {
+                expected.put(index, column);
+            } else {
+                Report.updateTestLog(Action, "Column " + column + " doesn't exist", Status.FAIL);
+            }
+        }
+        Set<String> found = new HashSet<>();
+        streamResult((rows, firstRow) -> {
+            for (String[] row : rows) {
+                expected.entrySet().removeIf(column -> {
+                    if (Objects.equals(row[column.getKey()], dataView.getField(column.getValue()))) {
+                        found.add(column.getValue());
+                        return true;
+                    }
+                    return false;
+                });
+            }
+            return !expected.isEmpty();
+        });
+        return found;
+    }
+
+    /**
+     * Compares the result of the last select row by row with the sub
+     * iterations of the current iteration in the sheet (row 1 with sub
+     * iteration 1 ...), on the result columns the sheet has.
+     * <br>
+     * The result is read in chunks so large results are compared without
+     * holding them in memory, the comparison stops after <code>Condition</code>
+     * mismatches (default 10, 1 to stop at the first one).
+     */
+    @Action(object = ObjectType.DATABASE, desc = "Compare the Query result row by row with the Test Data sheet [<Input>]", input = InputType.YES, condition = InputType.OPTIONAL)
+    public void compareResultWithDataSheet() {
+        String sheetName = Data;
+        TestDataView dataView;
+        if (sheetName.isEmpty() || (dataView = userData.getTestData(sheetName)) == null) {
+            Report.updateTestLog(Action, "Incorrect Sheet Name", Status.FAILNS);
+            return;
+        }
+        int maxMismatches;
+        try {
+            maxMismatches = Condition == null || Condition.trim().isEmpty() ? 10 : Integer.parseInt(Condition.trim());
+        } catch (NumberFormatException ex) {
+            maxMismatches = 0;
+        }
+        if (maxMismatches < 1) {
+            Report.updateTestLog(Action, "Incorrect Condition [" + Condition
+                    + "], give the number of mismatches to stop after (1 or more)", Status.FAILNS);
+            return;
+        }
+        List<String> sheetColumns = dataView.columns();
+        List<Integer> indexes = new ArrayList<>();
+        List<String> columns = new ArrayList<>();
+        for (String column : getColumnNames()) {
+            if (sheetColumns.indexOf(column) > 3) {
+                indexes.add(getColumnIndex(column));
+                columns.add(column);
+            }
+        }
+        Set<String> subIterations = userData.getSubIterations(sheetName);
+        String iteration = userData.getIteration();
+        List<String> mismatches = new ArrayList<>();
+        try {
+            if (!isStreaming()) {
+                getResult().beforeFirst();
+            }
+            int rows = streamResult((chunk, firstRow) -> {
+                for (int row = 0; row < chunk.size() && mismatches.size() < maxMismatches; row++) {
+                    String subIteration = String.valueOf(firstRow + row);
+                    if (subIterations == null || !subIterations.contains(subIteration)) {
+                        mismatches.add("Row " + subIteration + " doesn't exist in the data sheet");
+                        continue;
+                    }
+                    for (int col = 0; col < columns.size() && mismatches.size() < maxMismatches; col++) {
+                        String expected = userData.getData(sheetName, columns.get(col), iteration, subIteration);
+                        String actual = chunk.get(row)[indexes.get(col)];
+                        if (!Objects.equals(Objects.toString(actual, ""), Objects.toString(expected, ""))) {
+                            mismatches.add("Row " + subIteration + ", column " + columns.get(col) + " : expected ["
+                                    + expected + "] but found [" + actual + "]");
+                        }
+                    }
+                }
+                return mismatches.size() < maxMismatches;
+            });
+            if (mismatches.size() < maxMismatches && subIterations != null && subIterations.size() > rows) {
+                mismatches.add((subIterations.size() - rows) + " data sheet row(s) don't exist in the Database");
+            }
+            if (mismatches.isEmpty()) {
+                Report.updateTestLog(Action, rows + " row(s) of the Database match the data sheet " + sheetName,
+                        Status.PASSNS);
+            } else {
+                Report.updateTestLog(Action, String.join("\n", mismatches)
+                        + (mismatches.size() >= maxMismatches ? "\nStopped after " + maxMismatches + " mismatch(es)" : ""),
+                        Status.FAILNS);
+            }
+        } catch (SQLException | IOException ex) {
+            Report.updateTestLog(Action, "Error comparing the Query result: " + ex.getMessage(), Status.FAILNS);
+        }
+    }
+
     /**
      * Under the assumption that 1. User executed only SELECT Query 2. Returns a
      * column with one or more rows
@@ -179,6 +312,7 @@ public class Database extends General {
         String variableName = Condition;
         try {
             executeSelect();
+            ResultSet result = getResult();
             result.last();
             int totalRows = result.getRow();
             result.beforeFirst();
@@ -206,20 +340,35 @@ public class Database extends General {
 
     /**
      * Under the assumption that 1. User executed only SELECT Query
+     * <br>
+     * With forward only cursors (<code>forwardOnly=true</code>) the result is
+     * streamed into the sheet in chunks, one batch write per chunk.
      */
     @Action(object = ObjectType.DATABASE, desc = "Query and save the result in Datasheet ", input = InputType.YES, condition = InputType.YES)
     public void storeResultInDataSheet() {
         try {
             executeSelect();
+            if (isStreaming()) {
+                List<String> columns = new ArrayList<>(getColumnNames());
+                String iteration = userData.getIteration();
+                int rows = streamResult((chunk, firstRow) -> {
+                    userData.putRows(Condition, columns, chunk, iteration, firstRow);
+                    return true;
+                });
+                Report.updateTestLog(Action, " SQL Query Result (" + rows + " rows) has been saved in DataSheet: ",
+                        Status.PASSNS);
+                return;
+            }
+            ResultSet result = getResult();
             result.last();
             int totalRows = result.getRow();
             result.beforeFirst();
-            int totalCols = resultData.getColumnCount();
+            int totalCols = getResultData().getColumnCount();
             for (int colIndex = 0; colIndex < totalCols; colIndex++) {
                 result.beforeFirst();
                 for (int rowIndex = 1; rowIndex <= totalRows; rowIndex++) {
                     if (result.absolute(rowIndex)) {
-                        userData.putData(Condition, colNames.get(colIndex), result.getString(colIndex + 1), userData.getIteration(), Integer.toString(rowIndex));
+                        userData.putData(Condition, getColumnNames().get(colIndex), result.getString(colIndex + 1), userData.getIteration(), Integer.toString(rowIndex));
                     } else {
                         Report.updateTestLog(Action, "Row " + rowIndex + " doesn't exist",
                                 Status.FAILNS);
@@ -229,9 +378,52 @@ public class Database extends General {
             }
             Report.updateTestLog(Action, " SQL Query Result has been saved in DataSheet: ",
                     Status.PASSNS);
-        } catch (SQLException ex) {
+        } catch (SQLException | IOException ex) {
+            Report.updateTestLog(Action, "Error executing the SQL Query: " + ex.getMessage(),
+                    Status.FAILNS);
+        }
+    }
+
+    /**
+     * Under the assumption that 1. User executed only SELECT Query
+     * <br>
+     * The result is streamed in chunks to the CSV file in
+     * <code>Condition</code>, relative to the results folder unless absolute.
+     */
+    @Action(object = ObjectType.DATABASE, desc = "Query and save the result in the CSV file [<Condition>]", input = InputType.YES, condition = InputType.YES)
+    public void storeResultInCSVFile() {
+        if (Condition == null || Condition.trim().isEmpty()) {
+            Report.updateTestLog(Action, "Give the CSV file in the Condition", Status.FAILNS);
+            return;
+        }
+        try {
+            executeSelect();
+            File file = new File(Condition).isAbsolute() ? new File(Condition)
+                    : new File(FilePath.getCurrentResultsPath(), Condition);
+            int rows = exportResult(file);
+            Report.updateTestLog(Action, " SQL Query Result (" + rows + " rows) has been saved in: " + file,
+                    Status.PASSNS);
+        } catch (SQLException | IOException ex) {
             Report.updateTestLog(Action, "Error executing the SQL Query: " + ex.getMessage(),
                     Status.FAILNS);
         }
     }
+
+    /**
+     * streams the result of the last select to a CSV file, header first
+     */
+    private int exportResult(File file) throws SQLException, IOException {
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+                CSVPrinter printer = new CSVPrinter(out, CSVFormat.EXCEL)) {
+            printer.printRecord(getColumnNames());
+            return streamResult((chunk, firstRow) -> {
+                for (String[] row : chunk) {
+                    printer.printRecord((Object[]) row);
+                }
+                printer.flush();
+                return true;
+            });
+        }
+    }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import com.ing.engine.core.CommandControl;
 import com.ing.engine.support.Status;
 import com.ing.util.encryption.Encryption;
 import com.ing.engine.core.Control;
+import java.io.IOException;
 import java.util.Collection;
 import java.sql.*;
 import java.util.ArrayList;
@@ -24,10 +25,16 @@ import java.util.regex.Pattern;
  */
 public class General extends Command {
 
-    public static Connection dbconnection;
-    static Statement statement;
-    static ResultSet result;
-    static ResultSetMetaData resultData;
+    private static final ThreadLocal<DBSession> SESSION = new ThreadLocal<>();
+
+    /**
+     * the connection last initiated in the run
+     *
+     * @deprecated the connections are pooled and owned by the test case that
+     * initiated them, use {@link #getDBConnection()} from a DB command
+     */
+    @Deprecated
+    public static volatile Connection dbconnection;
 
     static final String DB_NAME = "db.alias";
     static final String DB_USER = "user";
@@ -36,8 +43,11 @@ public class General extends Command {
     static final String DB_CONN_STR = "connectionString";
     static final String DB_TIME_OUT = "timeout";
     static final String DB_COMMIT = "commit";
+    static final String DB_POOL_SIZE = "pool.maxSize";
+    static final String DB_STATEMENT_CACHE = "statementCacheSize";
+    static final String DB_FETCH_SIZE = "fetchSize";
+    static final String DB_FORWARD_ONLY = "forwardOnly";
     static final Pattern INPUTS = Pattern.compile("([^{]+?)(?=\\})");
-    static List<String> colNames = new ArrayList<>();
 
     public General(CommandControl cc) {
         super(cc);
@@ -63,16 +73,22 @@ public class General extends Command {
             Boolean dbCommit = Boolean.valueOf(dbCommitStr);
             int dbTimeout = Integer.parseInt(dbTimeoutStr);
 
-            if (dbDriver != null) {
+            if (dbDriver != null && dbConnectionString != null) {
                 Class.forName(dbDriver);
-                if (dbConnectionString != null && dbUser != null && dbPass != null) {
-                    dbconnection = DriverManager.getConnection(dbConnectionString, dbUser,dbPass);
-                } else if (dbConnectionString != null) {
-                    dbconnection = DriverManager.getConnection(dbConnectionString);
-                }
-                initialize(dbCommit,dbTimeout);
+                String password = dbPass;
+                ConnectionPool pool = ConnectionPool.get(dbName, dbConnectionString + "|" + dbUser, () -> {
+                    if (dbUser != null && password != null) {
+                        return DriverManager.getConnection(dbConnectionString, dbUser, password);
+                    }
+                    return DriverManager.getConnection(dbConnectionString);
+                }, intProperty(dbDetails, DB_POOL_SIZE, 10), intProperty(dbDetails, DB_STATEMENT_CACHE, 20));
+                releaseSession();
+                PooledConnection connection = pool.borrow(dbTimeout);
+                initialize(new DBSession(pool, connection,
+                        Boolean.parseBoolean(dbDetails.getProperty(DB_FORWARD_ONLY, "false")),
+                        intProperty(dbDetails, DB_FETCH_SIZE, 0), dbTimeout), dbCommit);
 
-                return (dbconnection != null);
+                return true;
             }
             return false;
         }
@@ -95,45 +111,150 @@ public class General extends Command {
         return str;
     }
 
-    public void executeSelect() throws SQLException {
+    private static int intProperty(Properties dbDetails, String name, int defaultValue) {
+        String value = dbDetails.getProperty(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Runs the select query in <code>Data</code>.
+     * <br>
+     * With parameters the query is run as a prepared statement, its
+     * <code>?</code> placeholders bound to the parameters, and the statement is
+     * cached with the connection for the next runs of the same query.
+     *
+     * @param parameters the values of the <code>?</code> placeholders
+     * @throws SQLException if the query fails
+     */
+    public void executeSelect(String... parameters) throws SQLException {
         String query = Data;
     	query = handleDataSheetVariables(query);
     	query = handleuserDefinedVariables(query);
         System.out.println("Query :" + query);
-        result = statement.executeQuery(query);
-        resultData = result.getMetaData();
+        DBSession session = session();
+        session.closeResult();
+        if (parameters.length > 0) {
+            session.result = bind(session.prepare(query), parameters).executeQuery();
+        } else {
+            session.result = session.statement().executeQuery(query);
+        }
+        session.resultData = session.result.getMetaData();
         populateColumnNames();
     }
 
-    public boolean executeDML() throws SQLException {
+    /**
+     * Runs the DML query in <code>Data</code>, as a cached prepared statement
+     * when parameters are given.
+     *
+     * @param parameters the values of the <code>?</code> placeholders
+     * @return true if the query ran
+     * @throws SQLException if the query fails
+     */
+    public boolean executeDML(String... parameters) throws SQLException {
         String query = Data;
     	query = handleDataSheetVariables(query);
     	query = handleuserDefinedVariables(query);
         System.out.println("Query :" + query);
-        return (statement.executeUpdate(query) >= 0);
+        if (parameters.length > 0) {
+            return (bind(session().prepare(query), parameters).executeUpdate() >= 0);
+        }
+        return (session().statement().executeUpdate(query) >= 0);
     }
 
-    private void initialize(Boolean commit,int timeout) throws SQLException {
-        colNames.clear();
-        dbconnection.setAutoCommit(commit);
-        statement = dbconnection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE,ResultSet.CONCUR_UPDATABLE);
-        statement.setQueryTimeout(timeout);
+    /**
+     * @return the comma separated values of <code>Condition</code>, with their
+     * variables resolved, or no values if the condition is empty
+     */
+    String[] getQueryParameters() {
+        if (Condition == null || Condition.trim().isEmpty()) {
+            return new String[0];
+        }
+        String[] parameters = Condition.split(",");
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = resolveAllVariables(parameters[i].trim());
+        }
+        return parameters;
+    }
+
+    private static PreparedStatement bind(PreparedStatement statement, String[] parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setString(i + 1, parameters[i]);
+        }
+        return statement;
+    }
+
+    private void initialize(DBSession session, Boolean commit) throws SQLException {
+        try {
+            session.getConnection().getConnection().setAutoCommit(commit);
+        } catch (SQLException ex) {
+            session.discard();
+            throw ex;
+        }
+        SESSION.set(session);
+        dbconnection = session.getConnection().getConnection();
         resolveVars();
     }
 
-    public boolean closeConnection() throws SQLException {
-        if (dbconnection != null && statement != null && result != null) {
-            dbconnection.close();
-            statement.close();
-            result.close();
-            return dbconnection.isClosed() && statement.isClosed() && result.isClosed();
+    /**
+     * @return the DB session of the current thread
+     * @throws SQLException if no connection was initiated
+     */
+    DBSession session() throws SQLException {
+        DBSession session = SESSION.get();
+        if (session == null) {
+            throw new SQLException("No DB connection, initiate the DB transaction first");
         }
+        return session;
+    }
+
+    Connection getDBConnection() throws SQLException {
+        return session().getConnection().getConnection();
+    }
+
+    ResultSet getResult() throws SQLException {
+        ResultSet result = session().result;
+        if (result == null) {
+            throw new SQLException("No query result, execute a select query first");
+        }
+        return result;
+    }
+
+    ResultSetMetaData getResultData() throws SQLException {
+        getResult();
+        return session().resultData;
+    }
+
+    /**
+     * gives the DB connection of the current thread back to its pool, called
+     * when the DB connection is closed and at the end of each test case
+     * iteration
+     * <br>
+     * The changes of a connection initiated with <code>commit=false</code>
+     * that were not committed are rolled back.
+     *
+     * @throws SQLException if the connection cannot be reset, it is then
+     * dropped from the pool
+     */
+    public static void releaseSession() throws SQLException {
+        DBSession session = SESSION.get();
+        if (session != null) {
+            SESSION.remove();
+            if (dbconnection == session.getConnection().getConnection()) {
+                dbconnection = null;
+            }
+            session.release();
+        }
+    }
+
+    public boolean closeConnection() throws SQLException {
+        releaseSession();
         return true;
     }
 
     public boolean assertDB(String columnName, String condition) {
         boolean isExist = false;
         try {
+            ResultSet result = getResult();
             result.beforeFirst();
             if (getColumnIndex(columnName) != -1) {
                 while (result.next()) {
@@ -161,6 +282,7 @@ public class General extends Command {
         }
         try {
             if (getColumnIndex(split[0]) != -1) {
+                ResultSet result = getResult();
                 result.first();
                 if (result.absolute(rowIndex)) {
                     value = result.getString(split[0]);
@@ -207,15 +329,72 @@ public class General extends Command {
         return getDataBaseData(dbName);
     }
 
+    @FunctionalInterface
+    interface RowChunkHandler {
+
+        /**
+         * @param rows the values of the chunk rows, in the column order
+         * @param firstRow the number of the first row of the chunk, from 1
+         * @return false to stop reading the result
+         */
+        boolean handle(List<String[]> rows, int firstRow) throws SQLException, IOException;
+    }
+
+    /**
+     * Reads the result of the last select from its current position to the end
+     * (or until the handler stops) and hands the rows over in chunks, only one
+     * chunk is held in memory.
+     *
+     * @param handler handles each chunk
+     * @return the number of rows read
+     * @throws SQLException if the result cannot be read
+     * @throws IOException if the handler fails
+     */
+    int streamResult(RowChunkHandler handler) throws SQLException, IOException {
+        ResultSet result = getResult();
+        int chunkSize = session().getChunkSize();
+        int columns = getResultData().getColumnCount();
+        List<String[]> chunk = new ArrayList<>(chunkSize);
+        int rows = 0;
+        while (result.next()) {
+            String[] row = new String[columns];
+            for (int col = 0; col < columns; col++) {
+                row[col] = result.getString(col + 1);
+            }
+            chunk.add(row);
+            rows++;
+            if (chunk.size() == chunkSize) {
+                if (!handler.handle(chunk, rows - chunk.size() + 1)) {
+                    return rows;
+                }
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            handler.handle(chunk, rows - chunk.size() + 1);
+        }
+        return rows;
+    }
+
+    boolean isStreaming() throws SQLException {
+        return session().isForwardOnly();
+    }
+
     private void populateColumnNames() throws SQLException {
-        int count = resultData.getColumnCount();
+        DBSession session = session();
+        int count = session.resultData.getColumnCount();
         for (int index = 1; index <= count; index++) {
-            colNames.add(resultData.getColumnName(index));
+            session.colNames.add(session.resultData.getColumnName(index));
         }
     }
 
+    List<String> getColumnNames() {
+        DBSession session = SESSION.get();
+        return session == null ? new ArrayList<>() : session.colNames;
+    }
+
     public int getColumnIndex(String columnName) {
-        return colNames.indexOf(columnName);
+        return getColumnNames().indexOf(columnName);
     }
 
     private String handleDataSheetVariables(String query) {
@@ -0,0 +1,91 @@
+package com.ing.engine.commands.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A physical connection of a {@link ConnectionPool} with its prepared
+ * statements.
+ * <br>
+ * Prepared statements are cached per SQL text (least recently used first
+ * out), they stay open while the connection is idle in the pool so the next
+ * test case running the same parameterized query skips the parse.
+ *
+ */
+final class PooledConnection {
+
+    private static final Logger LOG = Logger.getLogger(PooledConnection.class.getName());
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements;
+
+    PooledConnection(Connection connection, int statementCacheSize) {
+        this.connection = connection;
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > statementCacheSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * returns the cached statement of the query, preparing it on first use
+     *
+     * @param sql the query with <code>?</code> parameters
+     * @param resultSetType the cursor type of the statement
+     * @return the prepared statement
+     * @throws SQLException if the statement cannot be prepared
+     */
+    PreparedStatement prepare(String sql, int resultSetType) throws SQLException {
+        String cacheKey = resultSetType + ":" + sql;
+        PreparedStatement statement = statements.get(cacheKey);
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql, resultSetType, ResultSet.CONCUR_UPDATABLE);
+            statements.put(cacheKey, statement);
+        } else {
+            statement.clearParameters();
+        }
+        return statement;
+    }
+
+    boolean isValid(int timeout) {
+        try {
+            return !connection.isClosed() && connection.isValid(timeout);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    void close() {
+        statements.values().forEach(PooledConnection::closeQuietly);
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            LOG.log(Level.WARNING, "Couldn't close the DB connection", ex);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ex) {
+            LOG.log(Level.FINE, null, ex);
+        }
+    }
+}
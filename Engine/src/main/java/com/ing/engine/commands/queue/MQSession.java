@@ -0,0 +1,133 @@
+package com.ing.engine.commands.queue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Queue;
+
+/**
+ * JMS session borrowed by one test case from the {@link MQSessionPool}, with
+ * its producer, queues and consumers.
+ * <br>
+ * A {@link JMSContext} must only be used by one thread at a time, the session
+ * is owned by the test case between <code>setText</code> and
+ * <code>closeContext</code> and goes back to the pool afterwards. Consumers
+ * are cached per queue and selector, the least recently used one is closed
+ * when more than <code>jms.consumerCacheSize</code> are open.
+ *
+ */
+final class MQSession {
+
+    private static final Logger LOG = Logger.getLogger(MQSession.class.getName());
+
+    private final MQSessionPool pool;
+    private final JMSContext context;
+    private final Map<String, Queue> queues = new HashMap<>();
+    private final Map<String, JMSConsumer> consumers;
+    private JMSProducer producer;
+
+    /**
+     * @param pool the pool of the session
+     * @param context the session context, created from the shared connection
+     * @param consumerCacheSize the number of consumers kept open
+     */
+    MQSession(MQSessionPool pool, JMSContext context, int consumerCacheSize) {
+        this.pool = pool;
+        this.context = context;
+        this.consumers = new LinkedHashMap<String, JMSConsumer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JMSConsumer> eldest) {
+                if (size() > consumerCacheSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    JMSContext getContext() {
+        return context;
+    }
+
+    /**
+     * @return the producer of the session, created on first use
+     */
+    JMSProducer producer() {
+        if (producer == null) {
+            producer = context.createProducer();
+        }
+        return producer;
+    }
+
+    /**
+     * @param name the queue name or uri
+     * @return the queue, created once per session
+     */
+    Queue queue(String name) {
+        return queues.computeIfAbsent(name, context::createQueue);
+    }
+
+    /**
+     * @param queueName the queue name or uri
+     * @param selector the message selector, null or empty for none
+     * @return the open consumer of the queue and selector
+     */
+    JMSConsumer consumer(String queueName, String selector) {
+        String consumerKey = queueName + "|" + (selector == null ? "" : selector);
+        JMSConsumer consumer = consumers.get(consumerKey);
+        if (consumer == null) {
+            consumer = selector == null || selector.isEmpty()
+                    ? context.createConsumer(queue(queueName))
+                    : context.createConsumer(queue(queueName), selector);
+            consumers.put(consumerKey, consumer);
+        }
+        return consumer;
+    }
+
+    /**
+     * gives the session back to the pool, producer and consumers stay open
+     */
+    void release() {
+        pool.release(this);
+    }
+
+    /**
+     * closes the session instead of giving it back, e.g. after a connection
+     * error
+     */
+    void discard() {
+        pool.discard(this);
+    }
+
+    int consumerCount() {
+        return consumers.size();
+    }
+
+    void close() {
+        for (Iterator<JMSConsumer> it = consumers.values().iterator(); it.hasNext();) {
+            closeQuietly(it.next());
+            it.remove();
+        }
+        try {
+            context.close();
+        } catch (JMSRuntimeException ex) {
+            LOG.log(Level.WARNING, "Error while closing JMS session", ex);
+        }
+    }
+
+    private static void closeQuietly(JMSConsumer consumer) {
+        try {
+            consumer.close();
+        } catch (JMSRuntimeException ex) {
+            LOG.log(Level.WARNING, "Error while closing JMS consumer", ex);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.ing.engine.commands.queue;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSRuntimeException;
+
+/**
+ * MQ sessions of the Queue commands, one pool per queue manager connection
+ * (host, port, channel, queue manager, cipher suite, user).
+ * <br>
+ * The connection to the queue manager is opened once and shared, every test
+ * case borrows its own session created from it in <code>setText</code> and
+ * gives it back in <code>closeContext</code>, so the channel handshake is only
+ * done once per run. When the queue manager reports a connection error the
+ * pool is dropped and the next test case connects again.
+ *
+ */
+public final class MQSessionPool {
+
+    private static final Logger LOG = Logger.getLogger(MQSessionPool.class.getName());
+
+    private static final Map<String, MQSessionPool> POOLS = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    interface ContextFactory {
+
+        JMSContext connect() throws JMSException;
+    }
+
+    private final String config;
+    private final JMSContext connection;
+    private final int consumerCacheSize;
+    private final LinkedBlockingDeque<MQSession> idle = new LinkedBlockingDeque<>();
+    private final Set<MQSession> open = ConcurrentHashMap.newKeySet();
+    private volatile boolean broken;
+
+    private MQSessionPool(String config, JMSContext connection, int consumerCacheSize) {
+        this.config = config;
+        this.connection = connection;
+        this.consumerCacheSize = consumerCacheSize;
+    }
+
+    /**
+     * @param host the queue manager host
+     * @param port the listener port
+     * @param channel the server connection channel
+     * @param qmgr the queue manager
+     * @param cipherSuite the SSL cipher suite, null for none
+     * @param user the user, null for none
+     * @return the key of the connection configuration
+     */
+    static String configKey(String host, Integer port, String channel, String qmgr, String cipherSuite, String user) {
+        return String.join("|", host, String.valueOf(port), channel, qmgr, String.valueOf(cipherSuite),
+                String.valueOf(user));
+    }
+
+    /**
+     * borrows a session of the configuration, connecting to the queue manager
+     * on first use
+     *
+     * @param config the connection configuration key
+     * @param factory opens the shared connection
+     * @param consumerCacheSize the number of consumers kept open per session
+     * @return an idle session of the pool or a new one
+     * @throws JMSException if the connection cannot be opened
+     */
+    static MQSession borrow(String config, ContextFactory factory, int consumerCacheSize) throws JMSException {
+        MQSessionPool pool = POOLS.get(config);
+        if (pool == null) {
+            synchronized (POOLS) {
+                pool = POOLS.get(config);
+                if (pool == null) {
+                    pool = new MQSessionPool(config, factory.connect(), consumerCacheSize);
+                    pool.listen();
+                    POOLS.put(config, pool);
+                }
+            }
+        }
+        return pool.borrow();
+    }
+
+    /**
+     * closes all the sessions and connections, called at the end of the run
+     */
+    public static void closeAll() {
+        POOLS.values().forEach(MQSessionPool::close);
+        POOLS.clear();
+    }
+
+    private void listen() {
+        try {
+            connection.setExceptionListener(ex -> {
+                LOG.log(Level.WARNING, "Connection to [" + config + "] lost", ex);
+                broken = true;
+                POOLS.remove(config, this);
+                close();
+            });
+        } catch (JMSRuntimeException ex) {
+            LOG.log(Level.FINE, "Exception listener not supported", ex);
+        }
+    }
+
+    private MQSession borrow() {
+        MQSession session = idle.pollFirst();
+        if (session == null) {
+            session = new MQSession(this, connection.createContext(JMSContext.AUTO_ACKNOWLEDGE), consumerCacheSize);
+            open.add(session);
+        }
+        return session;
+    }
+
+    void release(MQSession session) {
+        if (broken) {
+            discard(session);
+        } else {
+            idle.offerFirst(session);
+        }
+    }
+
+    void discard(MQSession session) {
+        open.remove(session);
+        session.close();
+    }
+
+    private void close() {
+        idle.clear();
+        open.forEach(MQSession::close);
+        open.clear();
+        try {
+            connection.close();
+        } catch (JMSRuntimeException ex) {
+            LOG.log(Level.WARNING, "Error while closing connection to [" + config + "]", ex);
+        }
+    }
+}
@@ -19,8 +19,15 @@ import java.io.StringReader;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Queue;
+import javax.jms.TextMessage;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -147,30 +154,55 @@ public class QueueOperations extends Command {
         }
     }
 
+    private static final int CONSUMER_CACHE_SIZE = Integer.getInteger("jms.consumerCacheSize", 16);
+
+    // session borrowed by the test case, until closeContext
+    private static final Map<String, MQSession> SESSIONS = new ConcurrentHashMap<>();
+
     private void createConnectionFactory() {
         try {
-            jmsFactoryFactory.put(key, JmsFactoryFactory.getInstance(WMQConstants.WMQ_PROVIDER));
-            jmsConnectionFactory.put(key, jmsFactoryFactory.get(key).createConnectionFactory());
-            jmsConnectionFactory.get(key).setStringProperty(WMQConstants.WMQ_HOST_NAME, jmsHost.get(key));
-            jmsConnectionFactory.get(key).setIntProperty(WMQConstants.WMQ_PORT, jmsPort.get(key));
-            jmsConnectionFactory.get(key).setStringProperty(WMQConstants.WMQ_CHANNEL, jmsChannel.get(key));
-            jmsConnectionFactory.get(key).setStringProperty(WMQConstants.WMQ_QUEUE_MANAGER, jmsQmgr.get(key));
-            jmsConnectionFactory.get(key).setIntProperty(WMQConstants.WMQ_CONNECTION_MODE, WMQConstants.WMQ_CM_CLIENT);
-            if (WMQ_SSL_CIPHER_SUITE.get(key) != null) {
-                jmsConnectionFactory.get(key).setStringProperty(WMQConstants.WMQ_SSL_CIPHER_SUITE, WMQ_SSL_CIPHER_SUITE.get(key));
-            }
-            if (jmsUsername.get(key) == null) {
-                jmsConnectionFactory.get(key).setBooleanProperty(WMQConstants.USER_AUTHENTICATION_MQCSP, false);
-                jmsContext.put(key, jmsConnectionFactory.get(key).createContext());
-            } else {
-                jmsContext.put(key, jmsConnectionFactory.get(key).createContext(jmsUsername.get(key), jmsPassword.get(key)));
+            MQSession session = SESSIONS.get(key);
+            if (session == null) {
+                session = MQSessionPool.borrow(MQSessionPool.configKey(jmsHost.get(key), jmsPort.get(key),
+                        jmsChannel.get(key), jmsQmgr.get(key), WMQ_SSL_CIPHER_SUITE.get(key), jmsUsername.get(key)),
+                        this::connect, CONSUMER_CACHE_SIZE);
+                SESSIONS.put(key, session);
             }
+            jmsContext.put(key, session.getContext());
             jmsMessage.put(key, jmsContext.get(key).createTextMessage(""));
         } catch (Exception ex) {
             Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, "Exception during JMS properties setup", ex);
         }
     }
 
+    // opens the connection shared by the sessions of the pool
+    private JMSContext connect() throws JMSException {
+        jmsFactoryFactory.put(key, JmsFactoryFactory.getInstance(WMQConstants.WMQ_PROVIDER));
+        jmsConnectionFactory.put(key, jmsFactoryFactory.get(key).createConnectionFactory());
+        jmsConnectionFactory.get(key).setStringProperty(WMQConstants.WMQ_HOST_NAME, jmsHost.get(key));
+        jmsConnectionFactory.get(key).setIntProperty(WMQConstants.WMQ_PORT, jmsPort.get(key));
+        jmsConnectionFactory.get(key).setStringProperty(WMQConstants.WMQ_CHANNEL, jmsChannel.get(key));
+        jmsConnectionFactory.get(key).setStringProperty(WMQConstants.WMQ_QUEUE_MANAGER, jmsQmgr.get(key));
+        jmsConnectionFactory.get(key).setIntProperty(WMQConstants.WMQ_CONNECTION_MODE, WMQConstants.WMQ_CM_CLIENT);
+        if (WMQ_SSL_CIPHER_SUITE.get(key) != null) {
+            jmsConnectionFactory.get(key).setStringProperty(WMQConstants.WMQ_SSL_CIPHER_SUITE, WMQ_SSL_CIPHER_SUITE.get(key));
+        }
+        if (jmsUsername.get(key) == null) {
+            jmsConnectionFactory.get(key).setBooleanProperty(WMQConstants.USER_AUTHENTICATION_MQCSP, false);
+            return jmsConnectionFactory.get(key).createContext();
+        }
+        return jmsConnectionFactory.get(key).createContext(jmsUsername.get(key), jmsPassword.get(key));
+    }
+
+    // drops the session of the test case after a JMS error, the next step borrows a new one
+    private void discardSession() {
+        MQSession session = SESSIONS.remove(key);
+        if (session != null) {
+            session.discard();
+        }
+        jmsContext.remove(key);
+    }
+
     @Action(object = ObjectType.QUEUE, desc = "Set Correlation ID", input = InputType.YES, condition = InputType.NO)
     public void setCorrelationID() {
         try {
@@ -197,7 +229,7 @@ public class QueueOperations extends Command {
     public void setText() {
         try {
             createConnectionFactory();
-            jmsDestination.put(key, jmsContext.get(key).createQueue(jmsReqQueueName.get(key)));
+            jmsDestination.put(key, SESSIONS.get(key).queue(jmsReqQueueName.get(key)));
             jmsMessage.get(key).setText(handlePayloadorEndpoint(Data));
             Report.updateTestLog(Action, "Text set", Status.DONE);
         } catch (Exception ex) {
@@ -209,22 +241,89 @@ public class QueueOperations extends Command {
     @Action(object = ObjectType.QUEUE, desc = "Send Message", input = InputType.NO, condition = InputType.NO)
     public void sendMessage() {
         try {
-            jmsProducer.put(key, jmsContext.get(key).createProducer());
+            jmsProducer.put(key, SESSIONS.get(key).producer());
             before.put(key, Instant.now());
             jmsProducer.get(key).send(jmsDestination.get(key), jmsMessage.get(key));
             Report.updateTestLog(Action, "Message sent", Status.DONE);
         } catch (Exception ex) {
             Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, "Exception while sending message", ex);
             Report.updateTestLog(Action, "Error in sending message: " + "\n" + ex.getMessage(), Status.DEBUG);
+            if (ex instanceof JMSRuntimeException) {
+                discardSession();
+            }
+        }
+    }
+
+    @Action(object = ObjectType.QUEUE, desc = "Send Messages from a datasheet column [<Data>] of the current test case to the request queue, [<Condition>] optional row range (e.g. 1-500)",
+            input = InputType.YES, condition = InputType.OPTIONAL)
+    public void sendMessages() {
+        try {
+            String sheetName = Data.split(":", 2)[0];
+            String columnName = Data.split(":", 2)[1];
+            List<String> values = getDataSheetRange(sheetName, columnName, Condition);
+            if (values.isEmpty()) {
+                Report.updateTestLog(Action, "No rows of the current test case in [" + Data + "]"
+                        + (Condition == null || Condition.isEmpty() ? "" : " for the range [" + Condition + "]"),
+                        Status.FAILNS);
+                return;
+            }
+            createConnectionFactory();
+            MQSession session = SESSIONS.get(key);
+            Queue queue = session.queue(jmsReqQueueName.get(key));
+            JMSProducer producer = session.producer();
+            String correlationID = jmsMessage.get(key).getJMSCorrelationID();
+            before.put(key, Instant.now());
+            for (String value : values) {
+                TextMessage message = session.getContext().createTextMessage(handleuserDefinedVariables(value));
+                if (correlationID != null) {
+                    message.setJMSCorrelationID(correlationID);
+                }
+                producer.send(queue, message);
+            }
+            Report.updateTestLog(Action, values.size() + " messages sent to [" + jmsReqQueueName.get(key) + "] in : ["
+                    + Duration.between(before.get(key), Instant.now()).toMillis() + "ms]", Status.DONE);
+        } catch (Exception ex) {
+            Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, "Exception while sending messages", ex);
+            Report.updateTestLog(Action, "Error in sending messages: " + "\n" + ex.getMessage(), Status.DEBUG);
+            if (ex instanceof JMSRuntimeException) {
+                discardSession();
+            }
+        }
+    }
+
+    // values of the column for the rows of the current test case, range is 1 based and inclusive
+    private List<String> getDataSheetRange(String sheetName, String columnName, String range) {
+        com.ing.datalib.testdata.model.TestDataModel tdModel = Control.getCurrentProject().getTestData()
+                .getTestDataFor(Control.exe.runEnv()).getByName(sheetName);
+        if (tdModel == null) {
+            throw new IllegalArgumentException("Sheet [" + sheetName + "] not found");
         }
+        tdModel.loadTableModel();
+        int column = tdModel.getColumns().indexOf(columnName);
+        if (column < 0) {
+            throw new IllegalArgumentException("Column [" + columnName + "] not found in [" + sheetName + "]");
+        }
+        List<String> values = new ArrayList<>();
+        for (com.ing.datalib.testdata.model.Record record : tdModel.getRecords()) {
+            if (record.getScenario().equals(userData.getScenario())
+                    && record.getTestcase().equals(userData.getTestCase())) {
+                values.add(record.get(column));
+            }
+        }
+        if (range != null && range.matches("\\d+-\\d+")) {
+            int from = Math.max(1, Integer.parseInt(range.split("-")[0]));
+            int to = Math.min(values.size(), Integer.parseInt(range.split("-")[1]));
+            return from > to ? new ArrayList<>() : values.subList(from - 1, to);
+        }
+        return values;
     }
 
     @Action(object = ObjectType.QUEUE, desc = "Receive Message based on Filter", input = InputType.YES, condition = InputType.YES)
     public void receiveMessageWithFilter() {
         try {
             long timeout = Long.parseLong(Condition);
-            jmsDestination.put(key, jmsContext.get(key).createQueue(jmsRespQueueName.get(key)));
-            jmsConsumer.put(key, jmsContext.get(key).createConsumer(jmsDestination.get(key), Data));
+            jmsDestination.put(key, SESSIONS.get(key).queue(jmsRespQueueName.get(key)));
+            jmsConsumer.put(key, SESSIONS.get(key).consumer(jmsRespQueueName.get(key), Data));
             receivedMessage.put(key, jmsConsumer.get(key).receiveBody(String.class, timeout));
             after.put(key, Instant.now());
             duration.put(key, Duration.between(before.get(key), after.get(key)).toMillis());
@@ -236,13 +335,40 @@ public class QueueOperations extends Command {
         } catch (Exception ex) {
             Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, "Exception during receiving message", ex);
             Report.updateTestLog(Action, "Error in receiving message: " + "\n" + ex.getMessage(), Status.DEBUG);
+            if (ex instanceof JMSRuntimeException) {
+                discardSession();
+            }
         }
     }
 
+    /**
+     * gives the session of the test case back to the pool, called when the
+     * test case ends without closing its context
+     *
+     * @param scenario the scenario of the test case
+     * @param testCase the test case
+     */
+    public static void releaseSession(String scenario, String testCase) {
+        String key = scenario + testCase;
+        MQSession session = SESSIONS.remove(key);
+        if (session != null) {
+            session.release();
+        }
+        jmsContext.remove(key);
+        jmsProducer.remove(key);
+        jmsConsumer.remove(key);
+    }
+
     @Action(object = ObjectType.QUEUE, desc = "Close the connection", input = InputType.NO, condition = InputType.NO)
     public void closeContext() {
         try {
-            jmsContext.get(key).close();
+            MQSession session = SESSIONS.remove(key);
+            if (session != null) {
+                session.release();
+            }
+            jmsContext.remove(key);
+            jmsProducer.remove(key);
+            jmsConsumer.remove(key);
             Report.updateTestLog(Action, "Context closed", Status.DONE);
         } catch (Exception ex) {
             Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, "Exception during context closure", ex);
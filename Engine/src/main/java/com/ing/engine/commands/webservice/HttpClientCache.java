@@ -0,0 +1,62 @@
+package com.ing.engine.commands.webservice;
+
+import java.net.http.HttpClient;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shared {@link HttpClient}s of the webservice commands, one per effective
+ * client configuration (proxy, SSL verification, key store, redirect policy,
+ * HTTP version, connect timeout).
+ * <br>
+ * A client keeps its connection pool (and HTTP/2 streams) open, so reusing it
+ * across steps, test cases and threads saves the connect and TLS handshake of
+ * every request. {@link HttpClient} is thread safe.
+ *
+ */
+public final class HttpClientCache {
+
+    private static final Map<String, HttpClient> CLIENTS = new ConcurrentHashMap<>();
+
+    private HttpClientCache() {
+    }
+
+    /**
+     * returns the client for the configuration, building it on first use
+     *
+     * @param config the client configuration key
+     * @param builder builds the client for the configuration
+     * @return the shared client
+     */
+    public static HttpClient get(String config, Supplier<HttpClient> builder) {
+        HttpClient client = CLIENTS.get(config);
+        if (client == null) {
+            client = CLIENTS.computeIfAbsent(config, k -> builder.get());
+        }
+        return client;
+    }
+
+    /**
+     * drops all the clients, the next requests build new ones, called at the
+     * end of the run
+     * <br>
+     * The clients are closed on runtimes where {@link HttpClient} is
+     * closeable (Java 21+), before that their threads end once the clients
+     * are no longer referenced.
+     */
+    public static void clear() {
+        for (HttpClient client : CLIENTS.values()) {
+            if (client instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) client).close();
+                } catch (Exception ex) {
+                    Logger.getLogger(HttpClientCache.class.getName()).log(Level.WARNING, null, ex);
+                }
+            }
+        }
+        CLIENTS.clear();
+    }
+}
@@ -0,0 +1,334 @@
+package com.ing.engine.commands.webservice;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Supplier;
+
+/**
+ * Body of a webservice response.
+ * <br>
+ * Bodies up to the memory limit are kept in memory. Larger bodies are
+ * streamed to the payload file in the results folder while they are
+ * received, only the first bytes stay in memory ({@link #getPrefix()}), and
+ * they are read back through a memory mapped view when an action needs them.
+ * <br>
+ * A body is written to a temporary file next to the payload file and moved
+ * over it once complete, so a view still mapped on the payload of an earlier
+ * run of the step is never truncated. If the payload file cannot be replaced
+ * (e.g. it is still mapped on Windows) the body stays in the temporary file.
+ *
+ */
+public final class ResponseBody {
+
+    /**
+     * number of bytes kept in memory for the bodies written to a file
+     */
+    private static final int PREFIX_SIZE = 8 * 1024;
+
+    private final byte[] bytes;
+    private final Path file;
+    private final long size;
+    private final Charset charset;
+
+    private ResponseBody(byte[] bytes, Path file, long size, Charset charset) {
+        this.bytes = bytes;
+        this.file = file;
+        this.size = size;
+        this.charset = charset;
+    }
+
+    /**
+     * @return true if the body was written to {@link #getFile()} instead of
+     * kept in memory
+     */
+    public boolean isStreamed() {
+        return file != null;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * @return the first bytes of the body as text
+     */
+    public String getPrefix() {
+        return new String(bytes, 0, (int) Math.min(bytes.length, PREFIX_SIZE), charset);
+    }
+
+    /**
+     * @return the whole body as text, read from the file for streamed bodies
+     * @throws IOException if the file cannot be read
+     */
+    public String text() throws IOException {
+        if (!isStreamed()) {
+            return new String(bytes, charset);
+        }
+        if (size > Integer.MAX_VALUE) {
+            StringBuilder text = new StringBuilder();
+            try (Reader reader = openReader()) {
+                char[] chunk = new char[8192];
+                for (int read; (read = reader.read(chunk)) >= 0;) {
+                    text.append(chunk, 0, read);
+                }
+            }
+            return text.toString();
+        }
+        return charset.decode(map()).toString();
+    }
+
+    /**
+     * @return a stream over the body, a memory mapped view for streamed bodies
+     * @throws IOException if the file cannot be read
+     */
+    public InputStream openStream() throws IOException {
+        if (!isStreamed()) {
+            return new ByteArrayInputStream(bytes);
+        }
+        if (size > Integer.MAX_VALUE) {
+            return Files.newInputStream(file);
+        }
+        return new MappedInputStream(map());
+    }
+
+    public Reader openReader() throws IOException {
+        return new InputStreamReader(openStream(), charset);
+    }
+
+    private MappedByteBuffer map() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * handler keeping bodies up to <code>memoryLimit</code> bytes in memory and
+     * streaming the larger ones to the file
+     *
+     * @param file the file for large bodies
+     * @param memoryLimit the largest body kept in memory
+     * @return the body handler
+     */
+    public static BodyHandler<ResponseBody> handler(Supplier<Path> file, int memoryLimit) {
+        return info -> new Subscriber(file, memoryLimit, charsetOf(info));
+    }
+
+    static Charset charsetOf(HttpResponse.ResponseInfo info) {
+        return info.headers().firstValue("Content-Type")
+                .map(ResponseBody::charsetOf)
+                .orElse(StandardCharsets.UTF_8);
+    }
+
+    static Charset charsetOf(String contentType) {
+        for (String param : contentType.split(";")) {
+            String[] kv = param.trim().split("=", 2);
+            if (kv.length == 2 && kv[0].trim().equalsIgnoreCase("charset")) {
+                try {
+                    return Charset.forName(kv[1].trim().replace("\"", ""));
+                } catch (Exception ex) {
+                    return StandardCharsets.UTF_8;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    static ResponseBody of(byte[] bytes, Charset charset) {
+        return new ResponseBody(bytes, null, bytes.length, charset);
+    }
+
+    private static class Subscriber implements BodySubscriber<ResponseBody> {
+
+        private final CompletableFuture<ResponseBody> result = new CompletableFuture<>();
+        private final Supplier<Path> target;
+        private final int memoryLimit;
+        private final Charset charset;
+        private final ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        private byte[] prefix;
+        private Path file;
+        private Path part;
+        private FileChannel channel;
+        private long size;
+        private Flow.Subscription subscription;
+
+        Subscriber(Supplier<Path> target, int memoryLimit, Charset charset) {
+            this.target = target;
+            this.memoryLimit = memoryLimit;
+            this.charset = charset;
+        }
+
+        @Override
+        public CompletionStage<ResponseBody> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    size += buffer.remaining();
+                    if (channel == null && memory.size() + buffer.remaining() > memoryLimit) {
+                        spill();
+                    }
+                    if (channel != null) {
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    } else {
+                        byte[] chunk = new byte[buffer.remaining()];
+                        buffer.get(chunk);
+                        memory.write(chunk, 0, chunk.length);
+                    }
+                }
+            } catch (IOException ex) {
+                subscription.cancel();
+                onError(ex);
+            }
+        }
+
+        private void spill() throws IOException {
+            byte[] received = memory.toByteArray();
+            prefix = received.length > PREFIX_SIZE ? Arrays.copyOf(received, PREFIX_SIZE) : received;
+            file = target.get();
+            Files.createDirectories(file.getParent());
+            part = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".part");
+            channel = FileChannel.open(part, StandardOpenOption.WRITE);
+            ByteBuffer buffer = ByteBuffer.wrap(received);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            memory.reset();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            close();
+            if (part != null) {
+                try {
+                    Files.deleteIfExists(part);
+                } catch (IOException ex) {
+                    throwable.addSuppressed(ex);
+                }
+            }
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (channel == null) {
+                result.complete(ResponseBody.of(memory.toByteArray(), charset));
+                return;
+            }
+            if (close()) {
+                file = moveIntoPlace();
+                if (prefix.length < PREFIX_SIZE) {
+                    prefix = readPrefix();
+                }
+                result.complete(new ResponseBody(prefix, file, size, charset));
+            }
+        }
+
+        /**
+         * @return the payload file, or the temporary file if the payload file
+         * cannot be replaced
+         */
+        private Path moveIntoPlace() {
+            try {
+                return Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                try {
+                    return Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException notReplaced) {
+                    return part;
+                }
+            }
+        }
+
+        private byte[] readPrefix() {
+            try (InputStream in = Files.newInputStream(file)) {
+                return in.readNBytes(PREFIX_SIZE);
+            } catch (IOException ex) {
+                return prefix;
+            }
+        }
+
+        private boolean close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    result.completeExceptionally(ex);
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class MappedInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        MappedInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.ing.engine.commands.browser.General;
 import com.ing.engine.constants.FilePath;
 import com.ing.engine.core.CommandControl;
 import com.ing.engine.core.Control;
+import com.ing.engine.reporting.util.PayloadWriter;
 import com.ing.engine.support.Status;
 import com.ing.engine.support.methodInf.Action;
 import com.ing.engine.support.methodInf.InputType;
@@ -20,12 +21,12 @@ import java.io.IOException;
 import java.util.Collection;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathFactory;
 import com.jayway.jsonpath.*;
 import java.io.FileInputStream;
-import java.io.FileWriter;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import org.w3c.dom.Document;
@@ -47,6 +48,8 @@ import java.security.cert.X509Certificate;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -59,14 +62,55 @@ import javax.net.ssl.TrustManagerFactory;
 import javax.net.ssl.X509TrustManager;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPathExpressionException;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.w3c.dom.DOMException;
 import org.xml.sax.SAXException;
 
 public class Webservice extends General {
 
+    /**
+     * largest response body kept in memory, larger bodies are streamed to the
+     * payload file
+     */
+    private static final int RESPONSE_MEMORY_LIMIT = Integer.getInteger("webservice.response.memoryLimit", 1024 * 1024);
+
+    /**
+     * parsed responses per key, dropped when the next response is received
+     * and when the test case ends
+     */
+    private static final Map<String, DocumentContext> JSON_DOCUMENTS = new ConcurrentHashMap<>();
+    private static final Map<String, Document> XML_DOCUMENTS = new ConcurrentHashMap<>();
+
+    private static final int PATH_CACHE_SIZE = Integer.getInteger("webservice.pathCacheSize", 1024);
+
+    /**
+     * compiled JSONPaths, least recently used dropped first
+     */
+    private static final Map<String, JsonPath> JSON_PATHS = new LinkedHashMap<String, JsonPath>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+            return size() > PATH_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * XPath expressions and document builders are not thread safe, the
+     * compiled XPaths of each thread are dropped least recently used first
+     */
+    private static final ThreadLocal<Map<String, XPathExpression>> XPATHS = ThreadLocal.withInitial(
+            () -> new LinkedHashMap<String, XPathExpression>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+            return size() > PATH_CACHE_SIZE;
+        }
+    });
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER = ThreadLocal.withInitial(() -> {
+        try {
+            return DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        } catch (ParserConfigurationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    });
+
     public Webservice(CommandControl cc) {
         super(cc);
     }
@@ -167,7 +211,7 @@ public class Webservice extends General {
     @Action(object = ObjectType.WEBSERVICE, desc = "Assert Response Body contains ", input = InputType.YES)
     public void assertResponsebodycontains() {
         try {
-            if (responsebodies.get(key).contains(Data)) {
+            if (getResponseText().contains(Data)) {
                 Report.updateTestLog(Action, "Response body contains : " + Data, Status.PASSNS);
             } else {
                 Report.updateTestLog(Action, "Response body does not contain : " + Data, Status.FAILNS);
@@ -181,9 +225,8 @@ public class Webservice extends General {
     @Action(object = ObjectType.WEBSERVICE, desc = "Assert JSON Element Equals ", input = InputType.YES, condition = InputType.YES)
     public void assertJSONelementEquals() {
         try {
-            String response = responsebodies.get(key);
             String jsonpath = Condition;
-            String value = JsonPath.read(response, jsonpath).toString();
+            String value = readJson(jsonpath).toString();
             if (value.equals(Data)) {
                 Report.updateTestLog(Action, "Element text [" + value + "] is as expected", Status.PASSNS);
             } else {
@@ -199,9 +242,8 @@ public class Webservice extends General {
     @Action(object = ObjectType.WEBSERVICE, desc = "Assert JSON Element Contains ", input = InputType.YES, condition = InputType.YES)
     public void assertJSONelementContains() {
         try {
-            String response = responsebodies.get(key);
             String jsonpath = Condition;
-            String value = JsonPath.read(response, jsonpath).toString();
+            String value = readJson(jsonpath).toString();
             if (value.contains(Data)) {
                 Report.updateTestLog(Action, "Element text contains [" + Data + "] is as expected", Status.PASSNS);
             } else {
@@ -224,9 +266,8 @@ public class Webservice extends General {
                     System.out.println("Updating value in SubIteration " + userData.getSubIteration());
                     String sheetName = strObj.split(":", 2)[0];
                     String columnName = strObj.split(":", 2)[1];
-                    String response = responsebodies.get(key);
                     String jsonpath = Condition;
-                    String value = JsonPath.read(response, jsonpath).toString();
+                    String value = readJson(jsonpath).toString();
                     userData.putData(sheetName, columnName, value);
                     Report.updateTestLog(Action, "Element text [" + value + "] is stored in " + strObj, Status.DONE);
                 } catch (Exception ex) {
@@ -256,22 +297,13 @@ public class Webservice extends General {
                     System.out.println("Updating value in SubIteration " + userData.getSubIteration());
                     String sheetName = strObj.split(":", 2)[0];
                     String columnName = strObj.split(":", 2)[1];
-                    String xmlText = responsebodies.get(key);
-                    DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-                    DocumentBuilder dBuilder;
-                    InputSource inputSource = new InputSource();
-                    inputSource.setCharacterStream(new StringReader(xmlText));
-                    dBuilder = dbFactory.newDocumentBuilder();
-                    Document doc = dBuilder.parse(inputSource);
-                    doc.getDocumentElement().normalize();
-                    XPath xPath = XPathFactory.newInstance().newXPath();
                     String expression = Condition;
-                    NodeList nodeList = (NodeList) xPath.compile(expression).evaluate(doc, XPathConstants.NODESET);
+                    NodeList nodeList = evaluateXPath(expression);
                     Node nNode = nodeList.item(0);
                     String value = nNode.getNodeValue();
                     userData.putData(sheetName, columnName, value);
                     Report.updateTestLog(Action, "Element text [" + value + "] is stored in " + strObj, Status.DONE);
-                } catch (IOException | ParserConfigurationException | XPathExpressionException | DOMException
+                } catch (IOException | XPathExpressionException | DOMException
                         | SAXException ex) {
                     Logger.getLogger(this.getClass().getName()).log(Level.OFF, ex.getMessage(), ex);
                     Report.updateTestLog(Action, "Error Storing XML element in datasheet :" + "\n" + ex.getMessage(),
@@ -295,7 +327,7 @@ public class Webservice extends General {
             String variableName = Condition;
             String jsonpath = Data;
             if (variableName.matches("%.*%")) {
-                addVar(variableName, JsonPath.read(responsebodies.get(key), jsonpath).toString());
+                addVar(variableName, readJson(jsonpath).toString());
                 Report.updateTestLog(Action, "JSON element value stored", Status.DONE);
             } else {
                 Report.updateTestLog(Action, "Variable format is not correct", Status.DEBUG);
@@ -312,15 +344,7 @@ public class Webservice extends General {
             String variableName = Condition;
             String expression = Data;
             if (variableName.matches("%.*%")) {
-                DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-                DocumentBuilder dBuilder;
-                InputSource inputSource = new InputSource();
-                inputSource.setCharacterStream(new StringReader(responsebodies.get(key)));
-                dBuilder = dbFactory.newDocumentBuilder();
-                Document doc = dBuilder.parse(inputSource);
-                doc.getDocumentElement().normalize();
-                XPath xPath = XPathFactory.newInstance().newXPath();
-                NodeList nodeList = (NodeList) xPath.compile(expression).evaluate(doc, XPathConstants.NODESET);
+                NodeList nodeList = evaluateXPath(expression);
                 Node nNode = nodeList.item(0);
                 String value = nNode.getNodeValue();
                 addVar(variableName, value);
@@ -328,7 +352,7 @@ public class Webservice extends General {
             } else {
                 Report.updateTestLog(Action, "Variable format is not correct", Status.DEBUG);
             }
-        } catch (IOException | ParserConfigurationException | XPathExpressionException | DOMException
+        } catch (IOException | XPathExpressionException | DOMException
                 | SAXException ex) {
             Logger.getLogger(this.getClass().getName()).log(Level.OFF, null, ex);
             Report.updateTestLog(Action, "Error Storing XML element :" + "\n" + ex.getMessage(), Status.DEBUG);
@@ -344,7 +368,7 @@ public class Webservice extends General {
                     System.out.println("Updating value in SubIteration " + userData.getSubIteration());
                     String sheetName = strObj.split(":", 2)[0];
                     String columnName = strObj.split(":", 2)[1];
-                    userData.putData(sheetName, columnName, responsebodies.get(key));
+                    userData.putData(sheetName, columnName, getResponseText());
                     Report.updateTestLog(Action, "Response body is stored in " + strObj, Status.DONE);
                 } catch (Exception ex) {
                     Logger.getLogger(this.getClass().getName()).log(Level.OFF, ex.getMessage(), ex);
@@ -366,16 +390,8 @@ public class Webservice extends General {
     public void assertXMLelementEquals() {
 
         try {
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder dBuilder;
-            InputSource inputSource = new InputSource();
-            inputSource.setCharacterStream(new StringReader(responsebodies.get(key)));
-            dBuilder = dbFactory.newDocumentBuilder();
-            Document doc = dBuilder.parse(inputSource);
-            doc.getDocumentElement().normalize();
-            XPath xPath = XPathFactory.newInstance().newXPath();
             String expression = Condition;
-            NodeList nodeList = (NodeList) xPath.compile(expression).evaluate(doc, XPathConstants.NODESET);
+            NodeList nodeList = evaluateXPath(expression);
             Node nNode = nodeList.item(0);
             String value = nNode.getNodeValue();
             if (value.equals(Data)) {
@@ -383,7 +399,7 @@ public class Webservice extends General {
             } else {
                 Report.updateTestLog(Action, "Element text [" + value + "] is not as expected", Status.FAILNS);
             }
-        } catch (IOException | ParserConfigurationException | XPathExpressionException | DOMException
+        } catch (IOException | XPathExpressionException | DOMException
                 | SAXException ex) {
             Logger.getLogger(this.getClass().getName()).log(Level.OFF, null, ex);
             Report.updateTestLog(Action, "Error validating XML element :" + "\n" + ex.getMessage(), Status.DEBUG);
@@ -394,16 +410,8 @@ public class Webservice extends General {
     public void assertXMLelementContains() {
 
         try {
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder dBuilder;
-            InputSource inputSource = new InputSource();
-            inputSource.setCharacterStream(new StringReader(responsebodies.get(key)));
-            dBuilder = dbFactory.newDocumentBuilder();
-            Document doc = dBuilder.parse(inputSource);
-            doc.getDocumentElement().normalize();
-            XPath xPath = XPathFactory.newInstance().newXPath();
             String expression = Condition;
-            NodeList nodeList = (NodeList) xPath.compile(expression).evaluate(doc, XPathConstants.NODESET);
+            NodeList nodeList = evaluateXPath(expression);
             Node nNode = nodeList.item(0);
             String value = nNode.getNodeValue();
             if (value.contains(Data)) {
@@ -412,7 +420,7 @@ public class Webservice extends General {
                 Report.updateTestLog(Action, "Element text [" + value + "] does not contain [" + Data + "]",
                         Status.FAILNS);
             }
-        } catch (IOException | ParserConfigurationException | XPathExpressionException | DOMException
+        } catch (IOException | XPathExpressionException | DOMException
                 | SAXException ex) {
             Logger.getLogger(this.getClass().getName()).log(Level.OFF, null, ex);
             Report.updateTestLog(Action, "Error validating XML element :" + "\n" + ex.getMessage(), Status.DEBUG);
@@ -446,21 +454,37 @@ public class Webservice extends General {
 
     private void returnResponseDetails() throws IOException, InterruptedException {
 
-        initiateClientBuilder();
-        sslCertificateVerification();
-        handleProxy();
-
-        /**
-         * *** need to add timeout,version******
-         */
-        httpClient.put(key, httpClientBuilder.get(key).followRedirects(HttpClient.Redirect.ALWAYS).build());
+        httpClient.put(key, HttpClientCache.get(getClientConfig(), this::buildClient));
+        setRequestTimeout();
         httpRequest.put(key, httpRequestBuilder.get(key).build());
-        response.put(key, httpClient.get(key).send(httpRequest.get(key), HttpResponse.BodyHandlers.ofString()));
-
-        responsebodies.put(key, (String) response.get(key).body());
+        Instant[] firstByte = new Instant[1];
+        Path responseFile = Path.of(FilePath.getCurrentResultsPath() + Report.getWebserviceResponseFileName());
+        response.put(key, httpClient.get(key).send(httpRequest.get(key), responseInfo -> {
+            firstByte[0] = Instant.now();
+            return ResponseBody.handler(() -> {
+                PayloadWriter.await(responseFile.toString());
+                return responseFile;
+            }, RESPONSE_MEMORY_LIMIT).apply(responseInfo);
+        }));
+
+        ResponseBody body = (ResponseBody) response.get(key).body();
+        clearParsedResponse();
+        responsepayloads.put(key, body);
+        if (body.isStreamed()) {
+            responsebodies.remove(key);
+        } else {
+            responsebodies.put(key, body.text());
+        }
 
         after.put(key, Instant.now());
-        savePayload("response", (String) response.get(key).body());
+        timeToFirstByte.put(key, firstByte[0] != null
+                ? Duration.between(before.get(key), firstByte[0]).toMillis() : -1L);
+        if (body.isStreamed()) {
+            System.out.println("Response of " + body.size() + " bytes streamed to " + body.getFile()
+                    + "\n" + body.getPrefix() + "...");
+        } else {
+            savePayload("response", responsebodies.get(key));
+        }
 
         responsecodes.put(key, Integer.toString(response.get(key).statusCode()));
 
@@ -470,27 +494,7 @@ public class Webservice extends General {
     public void assertJSONelementCount() {
 
         try {
-            String response = responsebodies.get(key);
-            int actualObjectCount = 0;
-            JSONParser parser = new JSONParser();
-            JSONObject json = (JSONObject) parser.parse(response);
-            try {
-                Map<String, String> objectMap = JsonPath.read(json, Condition);
-                actualObjectCount = objectMap.keySet().size();
-            } catch (Exception ex) {
-                try {
-                    JSONArray objectMap = JsonPath.read(json, Condition);
-                    actualObjectCount = objectMap.size();
-                } catch (Exception ex1) {
-                    try {
-                        net.minidev.json.JSONArray objectMap = JsonPath.read(json, Condition);
-                        actualObjectCount = objectMap.size();
-                    } catch (Exception ex2) {
-                        String objectMap = JsonPath.read(json, Condition);
-                        actualObjectCount = 1;
-                    }
-                }
-            }
+            int actualObjectCount = getJsonElementCount();
 
             int expectedObjectCount = Integer.parseInt(Data);
             if (actualObjectCount == expectedObjectCount) {
@@ -538,32 +542,14 @@ public class Webservice extends General {
 
     }
 
-    public int getJsonElementCount() throws org.json.simple.parser.ParseException {
-
-        int actualObjectCount = 0;
-
-        JSONParser parser = new JSONParser();
-
-        JSONObject json = (JSONObject) parser.parse(responsebodies.get(key));
-
-        try {
-            Map<String, String> objectMap = JsonPath.read(json, Condition);
-            actualObjectCount = objectMap.keySet().size();
-        } catch (Exception ex) {
-            try {
-                JSONArray objectMap = JsonPath.read(json, Condition);
-                actualObjectCount = objectMap.size();
-            } catch (Exception ex1) {
-                try {
-                    net.minidev.json.JSONArray objectMap = JsonPath.read(json, Condition);
-                    actualObjectCount = objectMap.size();
-                } catch (Exception ex2) {
-                    String objectMap = JsonPath.read(json, Condition);
-                    actualObjectCount = 1;
-                }
-            }
+    public int getJsonElementCount() throws IOException {
+        Object result = readJson(Condition);
+        if (result instanceof Map) {
+            return ((Map<?, ?>) result).size();
+        } else if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
         }
-        return actualObjectCount;
+        return 1;
     }
 
     @Action(object = ObjectType.WEBSERVICE, desc = "Store JSON Element count in Datasheet ", input = InputType.YES, condition = InputType.YES)
@@ -711,6 +697,8 @@ public class Webservice extends General {
             // httpConnections.get(key).disconnect();
             headers.remove(key);
             responsebodies.remove(key);
+            responsepayloads.remove(key);
+            clearParsedResponse();
             basicAuthorization = "";
             responsecodes.remove(key);
             responsemessages.remove(key);
@@ -925,7 +913,8 @@ public class Webservice extends General {
 
             returnResponseDetails();
             duration.put(key, Duration.between(before.get(key), after.get(key)).toMillis());
-            Report.updateTestLog(Action, "Response received in : [" + duration.get(key) + "ms] with Status code  : " + responsecodes.get(key), Status.COMPLETE);
+            Report.updateTestLog(Action, "Response received in : [" + duration.get(key) + "ms] (first byte after : ["
+                    + timeToFirstByte.get(key) + "ms]) with Status code  : " + responsecodes.get(key), Status.COMPLETE);
 
             if (headers.containsKey(key)) {
                 if (!headers.get(key).isEmpty()) {
@@ -983,18 +972,126 @@ public class Webservice extends General {
                 File file = new File(path);
                 file.mkdirs();
                 //FileManager.mkdir(path);
-                File location = new File(FilePath.getCurrentResultsPath() + payloadFileName);
-                if (location.createNewFile()) {
-                    FileWriter writer = new FileWriter(location);
-                    writer.write(data);
-                    writer.close();
-                }
+                // the latest payload of the step wins, as for streamed responses
+                PayloadWriter.write(data, new File(FilePath.getCurrentResultsPath() + payloadFileName));
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * @return the whole response body, read back from the payload file when
+     * it was streamed
+     */
+    private String getResponseText() throws IOException {
+        ResponseBody body = responsepayloads.get(key);
+        if (body != null && body.isStreamed()) {
+            return body.text();
+        }
+        return responsebodies.get(key);
+    }
+
+    private InputSource getResponseSource() throws IOException {
+        ResponseBody body = responsepayloads.get(key);
+        if (body != null && body.isStreamed()) {
+            return new InputSource(body.openStream());
+        }
+        return new InputSource(new StringReader(responsebodies.get(key)));
+    }
+
+    private Object readJson(String jsonpath) throws IOException {
+        return getJsonDocument().read(compileJsonPath(jsonpath));
+    }
+
+    /**
+     * @return the response parsed as JSON, parsed once per response
+     */
+    private DocumentContext getJsonDocument() throws IOException {
+        DocumentContext document = JSON_DOCUMENTS.get(key);
+        if (document == null) {
+            ResponseBody body = responsepayloads.get(key);
+            if (body != null && body.isStreamed()) {
+                try (InputStream in = body.openStream()) {
+                    document = JsonPath.parse(in);
+                }
+            } else {
+                document = JsonPath.parse(responsebodies.get(key));
+            }
+            JSON_DOCUMENTS.put(key, document);
+        }
+        return document;
+    }
+
+    private static JsonPath compileJsonPath(String jsonpath) {
+        synchronized (JSON_PATHS) {
+            JsonPath cached = JSON_PATHS.get(jsonpath);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        JsonPath compiled = JsonPath.compile(jsonpath);
+        synchronized (JSON_PATHS) {
+            JsonPath cached = JSON_PATHS.putIfAbsent(jsonpath, compiled);
+            return cached != null ? cached : compiled;
+        }
+    }
+
+    /**
+     * @return the response parsed as XML, parsed once per response
+     */
+    private Document getXmlDocument() throws IOException, SAXException {
+        Document document = XML_DOCUMENTS.get(key);
+        if (document == null) {
+            document = DOCUMENT_BUILDER.get().parse(getResponseSource());
+            document.getDocumentElement().normalize();
+            XML_DOCUMENTS.put(key, document);
+        }
+        return document;
+    }
+
+    private NodeList evaluateXPath(String expression) throws IOException, SAXException, XPathExpressionException {
+        XPathExpression xPath = XPATHS.get().get(expression);
+        if (xPath == null) {
+            xPath = XPathFactory.newInstance().newXPath().compile(expression);
+            XPATHS.get().put(expression, xPath);
+        }
+        return (NodeList) xPath.evaluate(getXmlDocument(), XPathConstants.NODESET);
+    }
+
+    /**
+     * drops the parsed documents of the previous response
+     */
+    private void clearParsedResponse() {
+        JSON_DOCUMENTS.remove(key);
+        XML_DOCUMENTS.remove(key);
+    }
+
+    /**
+     * drops the parsed responses of the test case and the XPaths compiled on
+     * its thread, called when the test case ends
+     *
+     * @param scenario the scenario of the test case
+     * @param testCase the test case
+     */
+    public static void releaseParsedResponses(String scenario, String testCase) {
+        JSON_DOCUMENTS.remove(scenario + testCase);
+        XML_DOCUMENTS.remove(scenario + testCase);
+        XPATHS.remove();
+    }
+
+    /**
+     * drops the parsed responses and compiled JSONPaths of the run, called at
+     * the end of the run
+     */
+    public static void clearParsedResponses() {
+        JSON_DOCUMENTS.clear();
+        XML_DOCUMENTS.clear();
+        synchronized (JSON_PATHS) {
+            JSON_PATHS.clear();
+        }
+    }
+
     private void handleProxy() {
         try {
             if (getProxyDetails() != null) {
@@ -1006,9 +1103,77 @@ public class Webservice extends General {
         }
     }
 
+    /**
+     * builds a new client for the current API configuration, the clients are
+     * shared through {@link HttpClientCache}
+     */
+    private HttpClient buildClient() {
+        initiateClientBuilder();
+        sslCertificateVerification();
+        handleProxy();
+        setConnectTimeout();
+        return httpClientBuilder.get(key).followRedirects(getRedirectPolicy()).build();
+    }
+
+    /**
+     * @return the settings of the current API configuration the client
+     * depends on
+     */
+    private String getClientConfig() {
+        DriverProperties settings = Control.getCurrentProject().getProjectSettings().getDriverSettings();
+        return String.join("|",
+                settings.useProxy() ? settings.getProxyHost() + ":" + settings.getProxyPort() : "",
+                String.valueOf(isSSLCertificateVerification()),
+                String.valueOf(isSelfSigned()),
+                String.valueOf(settings.getProperty("keyStorePath")),
+                settings.getHttpVersion(),
+                settings.getFollowRedirects(),
+                settings.getConnectTimeout());
+    }
+
     private void initiateClientBuilder() {
         try {
-            httpClientBuilder.put(key, HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1));
+            httpClientBuilder.put(key, HttpClient.newBuilder().version(getHttpVersion()));
+        } catch (Exception ex) {
+            Logger.getLogger(this.getClass().getName()).log(Level.OFF, ex.getMessage(), ex);
+        }
+    }
+
+    private HttpClient.Version getHttpVersion() {
+        try {
+            return HttpClient.Version.valueOf(Control.getCurrentProject().getProjectSettings().getDriverSettings()
+                    .getHttpVersion().trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+
+    private HttpClient.Redirect getRedirectPolicy() {
+        try {
+            return HttpClient.Redirect.valueOf(Control.getCurrentProject().getProjectSettings().getDriverSettings()
+                    .getFollowRedirects().trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return HttpClient.Redirect.ALWAYS;
+        }
+    }
+
+    private void setConnectTimeout() {
+        try {
+            String timeout = Control.getCurrentProject().getProjectSettings().getDriverSettings().getConnectTimeout();
+            if (!timeout.isBlank()) {
+                httpClientBuilder.put(key, httpClientBuilder.get(key).connectTimeout(Duration.ofMillis(Long.parseLong(timeout.trim()))));
+            }
+        } catch (Exception ex) {
+            Logger.getLogger(this.getClass().getName()).log(Level.OFF, ex.getMessage(), ex);
+        }
+    }
+
+    private void setRequestTimeout() {
+        try {
+            String timeout = Control.getCurrentProject().getProjectSettings().getDriverSettings().getRequestTimeout();
+            if (!timeout.isBlank()) {
+                httpRequestBuilder.put(key, httpRequestBuilder.get(key).timeout(Duration.ofMillis(Long.parseLong(timeout.trim()))));
+            }
         } catch (Exception ex) {
             Logger.getLogger(this.getClass().getName()).log(Level.OFF, ex.getMessage(), ex);
         }
@@ -33,6 +33,7 @@ public class AppResourcePath {
     private final static String REPORT_HISTORY_HTML = "ReportHistory.html";
     private final static String VIDEO_HTML = "videoReport.html";
     private final static String REPORT_DATA = "data.js";
+    private final static String REPORT_LOG = "executions.jsonl";
     private final static String REPORT_HISTORY_DATA = "reportHistory.js";
 
     private final static String EXPLORER_CONFIG = "ExplorerConfig.properties";
@@ -213,6 +214,14 @@ public class AppResourcePath {
         return getCurrentResultsPath() + File.separator + REPORT_DATA;
     }
 
+    /**
+     * @return the log of the finished test cases of the run, one JSON record
+     * per line
+     */
+    public static String getCurrentReportLogPath() {
+        return getCurrentResultsPath() + File.separator + REPORT_LOG;
+    }
+
     public static String getCurrentReportHistoryDataPath() {
         return getCurrentResultsLocation() + File.separator + REPORT_HISTORY_DATA;
     }
@@ -0,0 +1,67 @@
+package com.ing.engine.core;
+
+import com.ing.datalib.component.Scenario;
+import com.ing.datalib.component.TestCase;
+import com.ing.datalib.component.TestStep;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Detects the test cases which never use a browser or a device, from the
+ * object of their steps and of the reusables they execute.
+ * <br>
+ * Enabled with <code>-Dscheduler.browserless=true</code>, these test cases
+ * then run without launching a browser on the browserless lane of the
+ * {@link TaskScheduler}.
+ *
+ */
+final class Browserless {
+
+    /**
+     * objects whose commands do not use the browser
+     */
+    private static final Set<String> OBJECTS = new HashSet<>(Arrays.asList("Webservice", "Database", "Kafka",
+            "Queue", "Synthetic Data", "File", "General", "String Operations"));
+
+    private Browserless() {
+    }
+
+    static boolean isEnabled() {
+        return Boolean.getBoolean("scheduler.browserless");
+    }
+
+    /**
+     * @param testCase the test case, null if it could not be found
+     * @return true if none of the steps, including the ones of the reusables,
+     * needs a browser
+     */
+    static boolean isBrowserless(TestCase testCase) {
+        return testCase != null && isBrowserless(testCase, new HashSet<>());
+    }
+
+    private static boolean isBrowserless(TestCase testCase, Set<TestCase> visited) {
+        if (!visited.add(testCase)) {
+            return true;
+        }
+        for (TestStep step : testCase.getTestSteps()) {
+            if (step.isEmpty() || step.isCommented()) {
+                continue;
+            }
+            if (step.isReusableStep()) {
+                TestCase reusable = reusable(testCase, step.getReusableData());
+                if (reusable == null || !isBrowserless(reusable, visited)) {
+                    return false;
+                }
+            } else if (!OBJECTS.contains(step.getObject())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static TestCase reusable(TestCase testCase, String[] reusable) {
+        Scenario scenario = testCase.getProject().getScenarioByName(reusable[0]);
+        return scenario == null ? null : scenario.getTestCaseByName(reusable[1]);
+    }
+}
@@ -3,20 +3,34 @@ package com.ing.engine.core;
 import com.ing.datalib.component.Project;
 import com.ing.datalib.testdata.TestDataFactory;
 import com.ing.engine.cli.LookUp;
+import com.ing.engine.commands.database.ConnectionPool;
+import com.ing.engine.commands.queue.MQSessionPool;
+import com.ing.engine.commands.webservice.HttpClientCache;
+import com.ing.engine.commands.webservice.Webservice;
 
 import com.ing.engine.constants.FilePath;
 import com.ing.engine.constants.SystemDefaults;
+import com.ing.engine.drivers.PlaywrightBrowserPool;
 import com.ing.engine.drivers.PlaywrightDriverCreation;
+import com.ing.engine.execution.data.InputTemplate;
 import com.ing.engine.execution.exception.UnCaughtException;
 import com.ing.engine.execution.run.ProjectRunner;
 
 import com.ing.engine.reporting.SummaryReport;
 import com.ing.engine.reporting.impl.ConsoleReport;
+import com.ing.engine.reporting.impl.handlers.ReportEventBus;
+import com.ing.engine.reporting.impl.html.HtmlTemplate;
+import com.ing.engine.reporting.reportportal.RPUploader;
 import com.ing.engine.reporting.util.DateTimeUtils;
+import com.ing.engine.reporting.util.PayloadWriter;
+import com.ing.engine.reporting.util.ScreenshotWriter;
 import com.ing.engine.support.Status;
 import com.ing.engine.support.methodInf.MethodInfoManager;
 import com.ing.engine.support.reflect.MethodExecutor;
+import com.ing.engine.util.data.KeyMap;
+import com.ing.engine.util.data.fx.FParser;
 import com.ing.util.encryption.Encryption;
+import java.io.File;
 import java.util.Date;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -104,10 +118,13 @@ public class Control {
         addShutDownHook();
         FilePath.initDateTime();
         MethodExecutor.init();
+        InputTemplate.clearCache();
+        FParser.clearCache();
         ConsoleReport.init();
         SystemDefaults.printSystemInfo();
         System.out.println("👉 Run Started on " + new Date().toString()+"\n");
         WebDriverFactory.initDriverLocation(exe.getProject().getProjectSettings());
+        KeyMap.snapshotEnvVars();
         RunManager.loadRunManager();
         ReportManager = new SummaryReport();
         triggerId = UUID.randomUUID().toString().replace("-", "").toUpperCase().substring(0, 15);
@@ -119,10 +136,9 @@ public class Control {
             initRun();
             TMIntegration.init(ReportManager);
             ReportManager.createReport(DateTimeUtils.DateTimeNow(), RunManager.queue().size());
-            ThreadPool threadPool = new ThreadPool(
-                    exe.getExecSettings().getRunSettings().getThreadCount(),
-                    exe.getExecSettings().getRunSettings().getExecutionTimeOut(),
-                    exe.getExecSettings().getRunSettings().isGridExecution());
+            TestDurationHistory history = TestDurationHistory.load(new File(FilePath.getCurrentResultsLocation()));
+            TaskScheduler scheduler = new TaskScheduler(
+                    exe.getExecSettings().getRunSettings().getThreadCount(), history);
             System.out.println("\n👉 Run Manager : " + !RunManager.queue().isEmpty()+"\n");
             System.out.println("👉 Continue Execution : " + !SystemDefaults.stopExecution.get()+"\n");
             while (!RunManager.queue().isEmpty() && !SystemDefaults.stopExecution.get()) {
@@ -130,7 +146,7 @@ public class Control {
                 try {
                     RunContext currentContext = RunManager.queue().remove();
                     t = new Task(currentContext);
-                    threadPool.execute(t, currentContext.Browser);
+                    scheduler.submit(currentContext, t, t.isBrowserless());
                 } catch (Exception ex) {
                     Logger.getLogger(Control.class.getName()).log(Level.SEVERE, null, ex);
                     if (t != null) {
@@ -138,16 +154,18 @@ public class Control {
                     }
                 }
             }
-            threadPool.shutdownExecution();
+            scheduler.start();
 
-            if (threadPool.awaitTermination(exe.getExecSettings()
+            if (scheduler.awaitTermination(exe.getExecSettings()
                     .getRunSettings().getExecutionTimeOut(), TimeUnit.MINUTES)) {
             } else {
                 Logger.getLogger(Control.class.getName()).log(Level.SEVERE, "Execution stopped due to Timeout [{0}]",
                         exe.getExecSettings().getRunSettings().getExecutionTimeOut());
-                threadPool.shutdownNow();
+                scheduler.shutdownNow();
                 SystemDefaults.stopExecution.set(true);
             }
+            scheduler.report();
+            history.save();
 
         } catch (Exception ex) {
             LOG.log(Level.SEVERE, ex.getMessage(), ex);
@@ -189,6 +207,11 @@ public class Control {
         executionFinished = true;
         System.out.println("Run Finished on " + new Date().toString());
         try {
+            if (exe != null) {
+                exe.getProject().getTestData().flushChanges();
+            }
+            ScreenshotWriter.flush();
+            PayloadWriter.flush();
             if (ReportManager != null) {
                 ReportManager.finalizeReport();
                 if (ReportManager.sync != null) {
@@ -199,7 +222,7 @@ public class Control {
 
             if (playwrightDriver != null) {
                 playwrightDriver.closeBrowser();
-                playwrightDriver.playwright.close();
+                playwrightDriver.closePlaywright();
             } 
            else if(webDriver != null)
             {
@@ -209,6 +232,14 @@ public class Control {
         } catch (Exception ex) {
             Logger.getLogger(Control.class.getName()).log(Level.SEVERE, null, ex);
         }
+        PlaywrightBrowserPool.closeAll();
+        ConnectionPool.closeAll();
+        MQSessionPool.closeAll();
+        HttpClientCache.clear();
+        Webservice.clearParsedResponses();
+        ReportEventBus.closeAll();
+        HtmlTemplate.closeAll();
+        RPUploader.closeAll();
 
     }
 
@@ -7,6 +7,7 @@ import com.ing.engine.cli.LookUp;
 import com.ing.engine.constants.FilePath;
 import com.ing.engine.drivers.PlaywrightDriverFactory.Browser;
 import com.ing.engine.settings.GlobalSettings;
+import com.ing.engine.util.data.KeyMap;
 import com.ing.datalib.model.Tags;
 import org.apache.commons.lang.ArrayUtils;
 import java.io.File;
@@ -49,6 +50,7 @@ public class RunManager {
                 Properties appSett = new Properties();
                 appSett.load(new FileReader(appSettings));
                 System.getProperties().putAll(appSett);
+                KeyMap.invalidateEnvSnapshot();
             } catch (IOException ex) {
                 Logger.getLogger(RunManager.class.getName()).log(Level.SEVERE, null, ex);
             }
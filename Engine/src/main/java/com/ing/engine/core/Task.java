@@ -6,6 +6,7 @@ import com.ing.datalib.component.Scenario;
 import com.ing.datalib.component.TestCase;
 import com.ing.datalib.settings.RunSettings;
 import static com.ing.engine.commands.browser.Command.faker;
+import com.ing.engine.commands.database.General;
 import com.ing.engine.constants.SystemDefaults;
 import com.ing.engine.drivers.PlaywrightDriverCreation;
 import com.ing.engine.execution.data.Parameter;
@@ -38,11 +39,23 @@ public class Task implements Runnable {
     UserDataAccess userData;
     TestCaseRunner runner;
     WebDriverCreation webDriver;
+    private Boolean browserless;
 
     public Task(RunContext RC) {
         runContext = RC;
     }
 
+    /**
+     * @return true if the browserless mode is enabled and no step of the
+     * test case needs a browser
+     */
+    public boolean isBrowserless() {
+        if (browserless == null) {
+            browserless = Browserless.isEnabled() && Browserless.isBrowserless(getTestCase());
+        }
+        return browserless;
+    }
+
     public Project project() {
         return Control.exe.getProject();
     }
@@ -76,7 +89,7 @@ public class Task implements Runnable {
             try {
                 System.out.println("👉 Running Iteration " + iter);
                 runIteration(iter++);
-                if (isPlaywrightExecution()) {
+                if (isPlaywrightExecution() && !isBrowserless()) {
                     closePlaywrightInstance(iter - 1);
                 }
             } catch (Exception ex) {
@@ -104,7 +117,7 @@ public class Task implements Runnable {
         String browserName = playwrightDriver.getCurrentBrowser();
         if (playwrightDriver != null) {
             playwrightDriver.closeBrowser();
-            playwrightDriver.playwright.close();
+            playwrightDriver.closePlaywright();
         }
         String closureConfirmationText = "Playwright instance with [" + browserName + "] has been closed for Iteration : " + iter;
         System.out.println("\n");
@@ -145,7 +158,11 @@ public class Task implements Runnable {
             SystemDefaults.reportComplete.set(true);
             report.startIteration(iter);
             faker.put(runContext.Scenario + runContext.TestCase, new Faker(new Locale("en-US")));
-            if (isPlaywrightExecution()) {
+            if (isBrowserless()) {
+                playwrightDriver = new PlaywrightDriverCreation();
+                playwrightDriver.attach(runContext);
+                report.setPlaywrightDriver(playwrightDriver);
+            } else if (isPlaywrightExecution()) {
                 playwrightDriver = getPlaywrightDriver();
                 launchPlaywright();
             } else  {
@@ -165,7 +182,9 @@ public class Task implements Runnable {
         } catch (Throwable ex) {
             onError(ex, "Error", ex.getMessage());
         } finally {
-            if (isPlaywrightExecution()) {
+            if (isBrowserless()) {
+                // no browser to close
+            } else if (isPlaywrightExecution()) {
               closePlaywrightDriver();
             }
             else {
@@ -179,13 +198,36 @@ public class Task implements Runnable {
                 }
                 closeWebDriver();
             }
-                
+            flushTestData();
+            releaseSessions();
             report.endIteration(iter);
         }
 
         return success;
     }
 
+    /**
+     * writes the data sheet updates buffered during the iteration
+     */
+    private void flushTestData() {
+        try {
+            project().getTestData().flushChanges();
+        } catch (Exception ex) {
+            LOG.log(Level.SEVERE, ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * gives the DB connection of the test case back to its pool
+     */
+    private void releaseSessions() {
+        try {
+            General.releaseSession();
+        } catch (Exception ex) {
+            LOG.log(Level.SEVERE, ex.getMessage(), ex);
+        }
+    }
+
     private void closePlaywrightDriver() {
         if (playwrightDriver != null && !getRunSettings().useExistingDriver() && !Control.exe.getExecSettings().getRunSettings().isGridExecution()) {
             try {
@@ -304,6 +346,9 @@ public class Task implements Runnable {
     
     public void setLambdaStatus(String status, String remark)
     {
+      if (playwrightDriver == null || playwrightDriver.page == null) {
+          return;
+      }
       playwrightDriver.page.evaluate("_ => {}", "lambdatest_action: { \"action\": \"setTestStatus\", \"arguments\": { \"status\": \"" + status + "\", \"remark\": \"" + remark + "\"}}");
     }
 
@@ -0,0 +1,395 @@
+package com.ing.engine.core;
+
+import com.ing.engine.commands.database.General;
+import com.ing.engine.commands.queue.QueueOperations;
+import com.ing.engine.commands.webservice.Webservice;
+import com.ing.engine.constants.SystemDefaults;
+import com.ing.engine.reporting.util.DateTimeUtils;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the test cases of a run on a fixed number of workers, longest expected
+ * test case first.
+ * <br>
+ * Each browser has its own queue, sorted by the durations of the previous
+ * runs ({@link TestDurationHistory}). A worker takes from the queue of its
+ * browser and, when that queue is empty or the browser is at its cap, steals
+ * the longest test case of the other queues. The cap of a browser is set
+ * with <code>-Dscheduler.maxThreads.&lt;Browser&gt;</code>, e.g.
+ * <code>-Dscheduler.maxThreads.Firefox=2</code>, all the workers by default.
+ * <br>
+ * With a single worker, or with <code>-Dscheduler.keepOrder=true</code>, the
+ * test cases run in the order of the test set instead.
+ * <br>
+ * Browserless test cases (see {@link Browserless}) do not take a worker, they
+ * run on a virtual thread each on Java 21 and later, or on a pool of platform
+ * threads before, at most <code>-Dscheduler.browserlessThreads</code> (64 by
+ * default) at a time.
+ *
+ */
+final class TaskScheduler {
+
+    private static final Logger LOG = Logger.getLogger(TaskScheduler.class.getName());
+
+    static final class Entry {
+
+        final RunContext context;
+        final Runnable task;
+        final String browser;
+        final long expected;
+        final int position;
+
+        Entry(RunContext context, Runnable task, long expected) {
+            this(context, task, expected, 0);
+        }
+
+        Entry(RunContext context, Runnable task, long expected, int position) {
+            this.context = context;
+            this.task = task;
+            this.browser = String.valueOf(context.BrowserName);
+            this.expected = expected;
+            this.position = position;
+        }
+    }
+
+    private static final Comparator<Entry> LONGEST_FIRST = Comparator.comparingLong((Entry e) -> e.expected).reversed();
+
+    private static final Comparator<Entry> SUBMITTED = Comparator.comparingInt((Entry e) -> e.position);
+
+    private final int threadCount;
+    private final int browserlessThreads = Math.max(1, Integer.getInteger("scheduler.browserlessThreads", 64));
+    private final TestDurationHistory history;
+    private final boolean keepOrder = Boolean.getBoolean("scheduler.keepOrder");
+    private final Comparator<Entry> order;
+    private final List<Entry> submitted = new ArrayList<>();
+    private final List<Entry> browserless = new ArrayList<>();
+    private ExecutorService browserlessExecutor;
+    private Semaphore browserlessPermits;
+    private final Map<String, Deque<Entry>> queues = new LinkedHashMap<>();
+    private final Map<String, Integer> running = new HashMap<>();
+    private final Map<String, Integer> caps = new HashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private int queued;
+    private volatile boolean stopped;
+    private long predicted;
+    private long fifoPredicted;
+    private long startTime;
+    private long endTime;
+
+    TaskScheduler(int threadCount, TestDurationHistory history) {
+        this.threadCount = Math.max(1, threadCount);
+        this.history = history;
+        this.order = keepOrder || this.threadCount == 1 ? SUBMITTED : LONGEST_FIRST;
+    }
+
+    /**
+     * adds a test case to the run, before {@link #start()}
+     */
+    void submit(RunContext context, Runnable task) {
+        submit(context, task, false);
+    }
+
+    /**
+     * adds a test case to the run, before {@link #start()}
+     *
+     * @param browserless true to run it on the browserless lane
+     */
+    void submit(RunContext context, Runnable task, boolean browserless) {
+        Entry entry = new Entry(context, task, history.expected(context),
+                browserless ? this.browserless.size() : submitted.size());
+        if (browserless) {
+            this.browserless.add(entry);
+            return;
+        }
+        submitted.add(entry);
+        queues.computeIfAbsent(entry.browser, browser -> new ArrayDeque<>());
+        caps.computeIfAbsent(entry.browser, this::cap);
+    }
+
+    private int cap(String browser) {
+        return Math.max(1, Math.min(threadCount, Integer.getInteger("scheduler.maxThreads." + browser, threadCount)));
+    }
+
+    int getCap(String browser) {
+        return caps.getOrDefault(browser, threadCount);
+    }
+
+    synchronized void start() {
+        List<Entry> ordered = new ArrayList<>(submitted);
+        ordered.sort(order);
+        for (Entry entry : ordered) {
+            queues.get(entry.browser).addLast(entry);
+        }
+        queued = ordered.size();
+        predicted = predictMakespan(ordered, threadCount, this::getCap);
+        fifoPredicted = predictMakespan(submitted, threadCount, this::getCap);
+        startTime = System.currentTimeMillis();
+        startBrowserless();
+        List<String> browsers = new ArrayList<>(queues.keySet());
+        int count = Math.min(threadCount, submitted.size());
+        for (int i = 0; i < count; i++) {
+            String home = browsers.isEmpty() ? "" : browsers.get(i % browsers.size());
+            Thread worker = new Thread(() -> work(home), "scheduler-" + (i + 1));
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    private void startBrowserless() {
+        if (browserless.isEmpty()) {
+            return;
+        }
+        List<Entry> ordered = new ArrayList<>(browserless);
+        ordered.sort(keepOrder ? SUBMITTED : LONGEST_FIRST);
+        predicted = Math.max(predicted, predictMakespan(ordered, browserlessThreads, browser -> browserlessThreads));
+        fifoPredicted = Math.max(fifoPredicted, predictMakespan(browserless, browserlessThreads, browser -> browserlessThreads));
+        browserlessPermits = new Semaphore(browserlessThreads, true);
+        browserlessExecutor = browserlessExecutor(browserlessThreads);
+        for (Entry entry : ordered) {
+            browserlessExecutor.execute(() -> runBrowserless(entry));
+        }
+        browserlessExecutor.shutdown();
+    }
+
+    /**
+     * @return a virtual thread per test case on Java 21 and later, a pool of
+     * <code>threads</code> platform threads before
+     */
+    static ExecutorService browserlessExecutor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            LOG.log(Level.FINE, "Virtual threads not available, using {0} platform threads", threads);
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    private void runBrowserless(Entry entry) {
+        if (stopped || SystemDefaults.stopExecution.get()) {
+            return;
+        }
+        try {
+            browserlessPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            run(entry);
+        } finally {
+            browserlessPermits.release();
+            synchronized (this) {
+                endTime = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private void work(String home) {
+        Entry entry;
+        while ((entry = next(home)) != null) {
+            try {
+                run(entry);
+            } finally {
+                done(entry);
+            }
+        }
+    }
+
+    /**
+     * runs the test case, any error of it is logged so that the worker goes
+     * on with the rest of the queue
+     */
+    private void run(Entry entry) {
+        long start = System.currentTimeMillis();
+        try {
+            entry.task.run();
+        } catch (Throwable ex) {
+            LOG.log(Level.SEVERE, ex.getMessage(), ex);
+        } finally {
+            history.record(entry.context, System.currentTimeMillis() - start);
+            release(entry);
+        }
+    }
+
+    /**
+     * gives the DB and MQ sessions the test case still holds back to their
+     * pools, the thread of a browserless test case is not reused so they
+     * would otherwise keep their permits until the end of the run, and drops
+     * its parsed webservice responses
+     */
+    private static void release(Entry entry) {
+        try {
+            General.releaseSession();
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, "Couldn't release the DB session of " + entry.context.getName(), ex);
+        }
+        try {
+            QueueOperations.releaseSession(entry.context.Scenario, entry.context.TestCase);
+        } catch (RuntimeException ex) {
+            LOG.log(Level.WARNING, "Couldn't release the MQ session of " + entry.context.getName(), ex);
+        }
+        Webservice.releaseParsedResponses(entry.context.Scenario, entry.context.TestCase);
+    }
+
+    private synchronized Entry next(String home) {
+        while (!stopped && !SystemDefaults.stopExecution.get() && queued > 0) {
+            Entry entry = poll(home);
+            if (entry != null) {
+                queued--;
+                running.merge(entry.browser, 1, Integer::sum);
+                return entry;
+            }
+            try {
+                wait(1000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * the next test case of the home browser, else the first one, longest or
+     * earliest submitted, of the browsers under their cap
+     */
+    private Entry poll(String home) {
+        Deque<Entry> own = queues.get(home);
+        if (own != null && !own.isEmpty() && isUnderCap(home)) {
+            return own.pollFirst();
+        }
+        Deque<Entry> victim = null;
+        for (Map.Entry<String, Deque<Entry>> queue : queues.entrySet()) {
+            Entry head = queue.getValue().peekFirst();
+            if (head != null && isUnderCap(queue.getKey())
+                    && (victim == null || order.compare(head, victim.peekFirst()) < 0)) {
+                victim = queue.getValue();
+            }
+        }
+        return victim == null ? null : victim.pollFirst();
+    }
+
+    private boolean isUnderCap(String browser) {
+        return running.getOrDefault(browser, 0) < getCap(browser);
+    }
+
+    private synchronized void done(Entry entry) {
+        running.merge(entry.browser, -1, Integer::sum);
+        endTime = System.currentTimeMillis();
+        notifyAll();
+    }
+
+    /**
+     * @return true if all the workers finished before the timeout
+     */
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread worker : workers) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return !isAlive();
+            }
+            TimeUnit.NANOSECONDS.timedJoin(worker, left);
+        }
+        if (browserlessExecutor != null
+                && !browserlessExecutor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        return !isAlive();
+    }
+
+    private boolean isAlive() {
+        return workers.stream().anyMatch(Thread::isAlive);
+    }
+
+    /**
+     * drops the queued test cases and interrupts the running ones
+     */
+    synchronized void shutdownNow() {
+        stopped = true;
+        queues.values().forEach(Deque::clear);
+        queued = 0;
+        workers.forEach(Thread::interrupt);
+        if (browserlessExecutor != null) {
+            browserlessExecutor.shutdownNow();
+        }
+        notifyAll();
+    }
+
+    long getPredictedMakespan() {
+        return predicted;
+    }
+
+    /**
+     * prints the predicted and the actual makespan of the run
+     */
+    void report() {
+        if (submitted.isEmpty() && browserless.isEmpty()) {
+            return;
+        }
+        long actual = Math.max(0, endTime - startTime);
+        String summary = String.format("Scheduler : %d test cases on %d threads, %d browserless, predicted %s (test set order %s), actual %s",
+                submitted.size(), workers.size(), browserless.size(), DateTimeUtils.parseTime(predicted),
+                DateTimeUtils.parseTime(fifoPredicted), DateTimeUtils.parseTime(actual));
+        System.out.println("\n👉 " + summary + "\n");
+        LOG.log(Level.INFO, summary);
+    }
+
+    /**
+     * simulates a run of the test cases in the given order with their
+     * expected durations, each free worker taking the first test case whose
+     * browser is under its cap
+     *
+     * @return the expected time until the last test case ends
+     */
+    static long predictMakespan(List<Entry> order, int threads, ToIntFunction<String> cap) {
+        long[] free = new long[Math.max(1, threads)];
+        List<Entry> pending = new ArrayList<>(order);
+        Map<String, List<Long>> busy = new HashMap<>();
+        long makespan = 0;
+        while (!pending.isEmpty()) {
+            int worker = 0;
+            for (int i = 1; i < free.length; i++) {
+                if (free[i] < free[worker]) {
+                    worker = i;
+                }
+            }
+            long now = free[worker];
+            busy.values().forEach(ends -> ends.removeIf(end -> end <= now));
+            Entry next = null;
+            for (Iterator<Entry> it = pending.iterator(); it.hasNext();) {
+                Entry entry = it.next();
+                if (busy.getOrDefault(entry.browser, new ArrayList<>()).size() < cap.applyAsInt(entry.browser)) {
+                    next = entry;
+                    it.remove();
+                    break;
+                }
+            }
+            if (next == null) {
+                free[worker] = busy.values().stream().flatMap(List::stream)
+                        .mapToLong(Long::longValue).min().orElse(now + 1);
+                continue;
+            }
+            long end = now + next.expected;
+            free[worker] = end;
+            busy.computeIfAbsent(next.browser, browser -> new ArrayList<>()).add(end);
+            makespan = Math.max(makespan, end);
+        }
+        return makespan;
+    }
+}
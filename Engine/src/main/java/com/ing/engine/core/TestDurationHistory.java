@@ -0,0 +1,176 @@
+package com.ing.engine.core;
+
+import com.ing.engine.reporting.util.RDS;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * Expected duration of the test cases of a test set, from the durations of
+ * its previous runs.
+ * <br>
+ * Kept in <code>durations.properties</code> in the results folder of the test
+ * set as a moving average in milliseconds, keyed by
+ * scenario:testcase:browser. When the file is missing it is seeded from the
+ * <code>Latest</code> report.
+ *
+ */
+final class TestDurationHistory {
+
+    private static final Logger LOG = Logger.getLogger(TestDurationHistory.class.getName());
+
+    static final String FILE = "durations.properties";
+
+    /**
+     * weight of the last run in the moving average
+     */
+    private static final double WEIGHT = 0.5;
+
+    private final File file;
+    private final Map<String, Long> expected = new ConcurrentHashMap<>();
+    private final Map<String, Long> actual = new ConcurrentHashMap<>();
+    private final long median;
+
+    TestDurationHistory(File file, Map<String, Long> expected) {
+        this.file = file;
+        this.expected.putAll(expected);
+        this.median = median(expected.values());
+    }
+
+    /**
+     * @param location the results folder of the test set
+     * @return the durations of the previous runs, empty if there are none
+     */
+    static TestDurationHistory load(File location) {
+        File file = new File(location, FILE);
+        Map<String, Long> expected = new ConcurrentHashMap<>();
+        if (file.exists()) {
+            Properties props = new Properties();
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                props.load(in);
+                for (String key : props.stringPropertyNames()) {
+                    expected.put(key, Long.valueOf(props.getProperty(key)));
+                }
+            } catch (IOException | NumberFormatException ex) {
+                LOG.log(Level.WARNING, "Unable to read " + file, ex);
+            }
+        } else {
+            expected.putAll(fromReport(new File(new File(location, "Latest"), "data.js")));
+        }
+        return new TestDurationHistory(file, expected);
+    }
+
+    /**
+     * reads the duration of each test case of an html report
+     */
+    static Map<String, Long> fromReport(File dataJs) {
+        Map<String, Long> durations = new ConcurrentHashMap<>();
+        if (!dataJs.exists()) {
+            return durations;
+        }
+        try {
+            String data = new String(Files.readAllBytes(dataJs.toPath()), StandardCharsets.UTF_8).trim();
+            data = data.substring(data.indexOf('=') + 1, data.lastIndexOf(';'));
+            JSONObject report = (JSONObject) new JSONParser().parse(data);
+            JSONArray executions = (JSONArray) report.get(RDS.TestSet.EXECUTIONS);
+            if (executions != null) {
+                for (Object execution : executions) {
+                    JSONObject tc = (JSONObject) execution;
+                    Object exeTime = tc.get(RDS.TestCase.EXE_TIME);
+                    if (exeTime != null) {
+                        durations.put(key(String.valueOf(tc.get(RDS.TestCase.SCENARIO_NAME)),
+                                String.valueOf(tc.get(RDS.TestCase.TESTCASE_NAME)),
+                                String.valueOf(tc.get(RDS.TestCase.BROWSER))), parseTime(exeTime.toString()));
+                    }
+                }
+            }
+        } catch (IOException | ParseException | RuntimeException ex) {
+            LOG.log(Level.WARNING, "Unable to read durations from " + dataJs, ex);
+        }
+        return durations;
+    }
+
+    static String key(String scenario, String testCase, String browser) {
+        return scenario + ":" + testCase + ":" + browser;
+    }
+
+    static String key(RunContext context) {
+        return key(context.Scenario, context.TestCase, context.BrowserName);
+    }
+
+    /**
+     * @param time HH:mm:ss, as in the reports
+     */
+    static long parseTime(String time) {
+        long seconds = 0;
+        for (String part : time.trim().split(":")) {
+            seconds = seconds * 60 + Long.parseLong(part.trim());
+        }
+        return seconds * 1000;
+    }
+
+    /**
+     * @return the expected duration in milliseconds, the median of the known
+     * durations if the test case has never run
+     */
+    long expected(RunContext context) {
+        return expected.getOrDefault(key(context), median);
+    }
+
+    boolean isEmpty() {
+        return expected.isEmpty();
+    }
+
+    void record(RunContext context, long millis) {
+        actual.put(key(context), millis);
+    }
+
+    /**
+     * merges the durations of this run into the history and stores it
+     */
+    void save() {
+        if (actual.isEmpty()) {
+            return;
+        }
+        Properties props = new Properties();
+        expected.forEach((key, value) -> props.setProperty(key, String.valueOf(value)));
+        actual.forEach((key, value) -> {
+            Long previous = expected.get(key);
+            long average = previous == null ? value : Math.round(WEIGHT * value + (1 - WEIGHT) * previous);
+            props.setProperty(key, String.valueOf(average));
+        });
+        try {
+            file.getParentFile().mkdirs();
+            try (OutputStream out = Files.newOutputStream(file.toPath())) {
+                props.store(out, "expected duration of the test cases in ms");
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Unable to write " + file, ex);
+        }
+    }
+
+    private static long median(Iterable<Long> values) {
+        List<Long> sorted = new ArrayList<>();
+        values.forEach(sorted::add);
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
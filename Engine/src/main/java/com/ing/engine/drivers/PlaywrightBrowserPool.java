@@ -0,0 +1,137 @@
+package com.ing.engine.drivers;
+
+import com.ing.datalib.settings.ProjectSettings;
+import com.ing.engine.core.RunContext;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per worker pool of running browsers, used when the run settings choose the
+ * <code>Pooled</code> browser mode.
+ * <br>
+ * Playwright objects must stay on the thread that created them, so each worker
+ * thread keeps its own browsers keyed by browser name and launch options. Each
+ * iteration gets a fresh browser context (isolated storage) on a pooled
+ * browser. A browser is relaunched after it served the configured number of
+ * contexts or when it is no longer connected.
+ *
+ */
+public class PlaywrightBrowserPool {
+
+    private static final Logger LOG = Logger.getLogger(PlaywrightBrowserPool.class.getName());
+
+    private static final ThreadLocal<Map<String, PooledBrowser>> POOL = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * every pooled browser of every worker, to close them at the end of the
+     * run
+     */
+    private static final Set<PooledBrowser> ALL = ConcurrentHashMap.newKeySet();
+
+    public static class PooledBrowser {
+
+        private final Playwright playwright;
+        private final Browser browser;
+        private int uses;
+
+        PooledBrowser(Playwright playwright, Browser browser) {
+            this.playwright = playwright;
+            this.browser = browser;
+        }
+
+        public Playwright getPlaywright() {
+            return playwright;
+        }
+
+        public Browser getBrowser() {
+            return browser;
+        }
+
+        private boolean isUsable(int recycleAfter) {
+            return uses < Math.max(1, recycleAfter) && browser.isConnected();
+        }
+
+        private void close() {
+            try {
+                browser.close();
+            } catch (Exception ex) {
+                LOG.log(Level.OFF, "Couldn't close the pooled browser", ex);
+            }
+            try {
+                playwright.close();
+            } catch (Exception ex) {
+                LOG.log(Level.OFF, "Couldn't close the pooled playwright", ex);
+            }
+        }
+    }
+
+    /**
+     * returns a running browser of the current worker for the browser and its
+     * launch options, launching (or relaunching) it if needed
+     *
+     * @param browserName the browser name
+     * @param settings the project settings
+     * @param context the run context
+     * @param recycleAfter number of contexts a browser serves before it is
+     * relaunched
+     * @return the pooled browser
+     */
+    public static PooledBrowser acquire(String browserName, ProjectSettings settings, RunContext context, int recycleAfter) {
+        String key = PlaywrightDriverFactory.getLaunchKey(browserName, settings, context);
+        Map<String, PooledBrowser> pool = POOL.get();
+        PooledBrowser pooled = pool.get(key);
+        if (pooled != null && !pooled.isUsable(recycleAfter)) {
+            System.out.println("♻️ Recycling pooled " + browserName + " after " + pooled.uses + " use(s)");
+            discard(pool, key, pooled);
+            pooled = null;
+        }
+        if (pooled == null) {
+            Playwright playwright = PlaywrightDriverFactory.createPlaywright();
+            BrowserType browserType = PlaywrightDriverFactory.createBrowserType(playwright, browserName, context, settings);
+            pooled = new PooledBrowser(playwright, PlaywrightDriverFactory.launchBrowser(browserType, browserName, settings, context));
+            pool.put(key, pooled);
+            ALL.add(pooled);
+        }
+        pooled.uses++;
+        return pooled;
+    }
+
+    /**
+     * drops the browser from the pool of the current worker, e.g. after it
+     * crashed, the next acquire launches a new one
+     *
+     * @param browser the browser to drop
+     */
+    public static void evict(Browser browser) {
+        Map<String, PooledBrowser> pool = POOL.get();
+        pool.entrySet().stream()
+                .filter(e -> e.getValue().browser == browser)
+                .findFirst()
+                .ifPresent(e -> discard(pool, e.getKey(), e.getValue()));
+    }
+
+    /**
+     * closes all the pooled browsers of all the workers, called at the end of
+     * the run
+     */
+    public static void closeAll() {
+        for (PooledBrowser pooled : ALL) {
+            pooled.close();
+        }
+        ALL.clear();
+        POOL.remove();
+    }
+
+    private static void discard(Map<String, PooledBrowser> pool, String key, PooledBrowser pooled) {
+        pool.remove(key);
+        ALL.remove(pooled);
+        pooled.close();
+    }
+}
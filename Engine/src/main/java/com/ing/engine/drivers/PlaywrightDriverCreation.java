@@ -1,8 +1,10 @@
 package com.ing.engine.drivers;
 
+import com.ing.datalib.settings.RunSettings;
 import com.ing.datalib.settings.emulators.Emulator;
 import com.ing.engine.core.Control;
 import com.ing.engine.core.RunContext;
+import com.ing.engine.drivers.PlaywrightBrowserPool.PooledBrowser;
 import com.ing.engine.drivers.PlaywrightDriverFactory.Browser;
 import com.ing.engine.execution.exception.DriverClosedException;
 import com.ing.engine.execution.exception.UnCaughtException;
@@ -14,6 +16,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import com.microsoft.playwright.*;
 import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 
 /**
@@ -26,6 +29,7 @@ public class PlaywrightDriverCreation {
     public Page page;
     public BrowserContext browserContext;
     protected RunContext runContext;
+    private boolean pooled;
 
     public Page getPage() {
         return page;
@@ -38,15 +42,23 @@ public class PlaywrightDriverCreation {
         runContext = context;
         System.out.println("\n🚀 Launching " + runContext.BrowserName+"\n");
         try {
-            playwright = PlaywrightDriverFactory.createPlaywright();
-            
-            if(Control.getCurrentProject().getProjectSettings().getUserDefinedSettings().containsKey("testIdAttribute"))
-            {
-             playwright.selectors().setTestIdAttribute(Control.getCurrentProject().getProjectSettings().getUserDefinedSettings().getProperty("testIdAttribute"));
+            RunSettings runSettings = Control.exe.getExecSettings().getRunSettings();
+            pooled = runSettings.isBrowserPooled() && !runSettings.isGridExecution();
+            if (pooled) {
+                System.out.println("🚀 Launching Local Driver (pooled) \n");
+                PooledBrowser pooledBrowser = PlaywrightBrowserPool.acquire(runContext.BrowserName,
+                        Control.getCurrentProject().getProjectSettings(), context, runSettings.getBrowserRecycleAfter());
+                playwright = pooledBrowser.getPlaywright();
+                setTestIdAttribute();
+                browserContext = PlaywrightDriverFactory.createContext(pooledBrowser.getBrowser(), runContext.BrowserName, Control.getCurrentProject().getProjectSettings(), runContext);
+                page = PlaywrightDriverFactory.createPage(browserContext);
+                return;
             }
+            playwright = PlaywrightDriverFactory.createPlaywright();
+            setTestIdAttribute();
             
             BrowserType browserType = (BrowserType) PlaywrightDriverFactory.createBrowserType(playwright,runContext.BrowserName, context, Control.getCurrentProject().getProjectSettings());
-            if (Control.exe.getExecSettings().getRunSettings().isGridExecution()) {
+            if (runSettings.isGridExecution()) {
                 System.out.println("🚀 Launching Remote Driver \n");
                 browserContext = PlaywrightDriverFactory.createContext(true, browserType, runContext.BrowserName, Control.getCurrentProject().getProjectSettings(), runContext);
             } else {
@@ -63,6 +75,33 @@ public class PlaywrightDriverCreation {
         }
     }
 
+    /**
+     * binds the driver to a test case without launching a browser, for the
+     * test cases which only call browserless commands
+     *
+     * @param context the test case run
+     */
+    public void attach(RunContext context) {
+        runContext = context;
+    }
+
+    private void setTestIdAttribute() {
+        if(Control.getCurrentProject().getProjectSettings().getUserDefinedSettings().containsKey("testIdAttribute"))
+        {
+         playwright.selectors().setTestIdAttribute(Control.getCurrentProject().getProjectSettings().getUserDefinedSettings().getProperty("testIdAttribute"));
+        }
+    }
+
+    /**
+     * closes the playwright instance, pooled instances are kept for the next
+     * iteration and closed at the end of the run
+     */
+    public void closePlaywright() {
+        if (!pooled && playwright != null) {
+            playwright.close();
+        }
+    }
+
     public void launchDriver(String browser) throws UnCaughtException, UnsupportedEncodingException {
         RunContext context = new RunContext();
         context.BrowserName = browser;
@@ -102,7 +141,9 @@ public class PlaywrightDriverCreation {
             com.microsoft.playwright.Browser browser = browserContext.browser();
             page.close();
             closeBrowserContext();
-            browser.close();
+            if (!pooled) {
+                browser.close();
+            }
 
         } catch (Exception ex) {
             Logger.getLogger(this.getClass().getName()).log(Level.OFF, null, ex);
@@ -123,6 +164,9 @@ public class PlaywrightDriverCreation {
                 this.page.close();
             } catch (Exception ex) {
                 Logger.getLogger(this.getClass().getName()).log(Level.OFF, "Couldn't Kill the Driver", ex);
+                if (pooled && browserContext != null) {
+                    PlaywrightBrowserPool.evict(browserContext.browser());
+                }
             }
             page = null;
         }
@@ -154,15 +198,30 @@ public class PlaywrightDriverCreation {
         }
     }
 
-    public File createScreenShot() throws IOException {
+    /**
+     * captures the page in memory
+     *
+     * @return the PNG bytes of the page
+     */
+    public byte[] captureScreenShot() {
+        if (this.page == null) {
+            return null;
+        }
         Boolean fullpageScreenshot = Control.exe.getExecSettings().getRunSettings().getTakeFullPageScreenShot();
-        this.page.screenshot(new Page.ScreenshotOptions().setPath(Paths.get("screenshot.png")).setFullPage(fullpageScreenshot));
-        File file = new File("screenshot.png");
+        return this.page.screenshot(new Page.ScreenshotOptions().setFullPage(fullpageScreenshot));
+    }
+
+    public File createScreenShot() throws IOException {
+        File file = File.createTempFile("screenshot", ".png");
+        Files.write(file.toPath(), captureScreenShot());
         return file;
 
     }
 
     public String getBrowserVersion() {
+        if (browserContext == null) {
+            return "";
+        }
         return browserContext.browser().version();
     }
 
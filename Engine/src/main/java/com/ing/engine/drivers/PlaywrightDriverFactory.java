@@ -105,6 +105,53 @@ public class PlaywrightDriverFactory {
 
     }
 
+    /**
+     * creates a new context on an already running (pooled) browser
+     *
+     * @param browser the running browser
+     * @param browserName the browser name
+     * @param settings the project settings
+     * @param context the run context
+     * @return the new browser context
+     */
+    public static BrowserContext createContext(com.microsoft.playwright.Browser browser, String browserName, ProjectSettings settings, RunContext context) {
+        List<String> capabilities = getCapability(browserName, settings);
+        NewContextOptions newContextOptions = addContextOptions(new NewContextOptions(), context, capabilities, settings);
+        return enhanceContext(browser.newContext(newContextOptions));
+    }
+
+    /**
+     * launches a local browser with the launch options from the capabilities
+     * of the browser
+     *
+     * @param browserType the browser type
+     * @param browserName the browser name
+     * @param settings the project settings
+     * @param context the run context
+     * @return the launched browser
+     */
+    public static com.microsoft.playwright.Browser launchBrowser(BrowserType browserType, String browserName, ProjectSettings settings, RunContext context) {
+        List<String> capabilities = getCapability(browserName, settings);
+        addContextOptions(new NewContextOptions(), context, capabilities, settings);
+        return browserType.launch(addLaunchOptions(new LaunchOptions(), capabilities));
+    }
+
+    /**
+     * key identifying the launch configuration of a browser, browsers with the
+     * same key can be shared
+     *
+     * @param browserName the browser name
+     * @param settings the project settings
+     * @param context the run context
+     * @return the launch key
+     */
+    public static String getLaunchKey(String browserName, ProjectSettings settings, RunContext context) {
+        List<String> capabilities = getCapability(browserName, settings);
+        addContextOptions(new NewContextOptions(), context, capabilities, settings);
+        capabilities.sort(null);
+        return browserName + capabilities + isViewPortSizeMaximized;
+    }
+
     public static BrowserContext createContext(Boolean isGrid, BrowserType browserType, String browserName, ProjectSettings settings, RunContext context) throws UnsupportedEncodingException {
         List<String> capabilities = getCapability(browserName, settings);
         NewContextOptions newContextOptions = new NewContextOptions();
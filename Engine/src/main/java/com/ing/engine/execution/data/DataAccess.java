@@ -8,6 +8,7 @@ import com.ing.engine.execution.exception.data.DataNotFoundException;
 import com.ing.engine.execution.exception.data.GlobalDataNotFoundException;
 import com.ing.engine.execution.exception.data.TestDataNotFoundException;
 import com.ing.engine.execution.run.TestCaseRunner;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -163,6 +164,39 @@ public class DataAccess extends DataAccessInternal {
         }
     }
 
+    /**
+     * updates consecutive sub iterations of the iteration, one row per sub
+     * iteration, starting at <code>firstSubIter</code>.
+     * <br>
+     * The rows are written under one lock of the model and the sheet is saved
+     * once for the whole batch. The environment model is used when it has all
+     * the fields, the default one otherwise.
+     *
+     * @param context the context(environment,testcase,reusable and iteration)
+     * @param sheet data sheet name
+     * @param fields the column names, in the order of the row values
+     * @param rows the row values
+     * @param iter the iteration
+     * @param firstSubIter the sub iteration of the first row
+     * @throws DataNotFoundException if a field is not present
+     */
+    public static void putRows(TestCaseRunner context, String sheet, List<String> fields, List<String[]> rows,
+            String iter, int firstSubIter) throws DataNotFoundException {
+        TestDataModel def = getDefModel(context, sheet);
+        TestDataModel model = validEnv(context) && hasColumns(getModel(context, sheet), fields)
+                ? getModel(context, sheet) : def;
+        if (!hasColumns(model, fields)) {
+            String missing = notNull(def)
+                    ? fields.stream().filter(field -> !def.hasColumn(field)).findFirst().orElse(fields.get(0))
+                    : fields.get(0);
+            throwErrorWithCause(context, sheet, missing, String.valueOf(firstSubIter));
+        }
+        if (!putRowsToModel(model, fields, rows, context.getRoot().scenario(), context.getRoot().testcase(),
+                iter, firstSubIter)) {
+            throwErrorWithCause(context, sheet, fields.get(0), String.valueOf(firstSubIter));
+        }
+    }
+
     /**
      * if the environment in the context is valid get global data from
      * environment else get it from default environment
@@ -218,8 +252,10 @@ public class DataAccess extends DataAccessInternal {
         } else if (isNull(env)) {
             throw new GlobalDataNotFoundException(context, gid, field);
         }
-        env.setValueAt(value, env.getRecordIndexByKey(gid), env.findColumn(field));
-        env.saveChanges();
+        synchronized (env) {
+            env.setValueAt(value, env.getRecordIndexByKey(gid), env.findColumn(field));
+            env.saveChangesDeferred();
+        }
     }
 
     /**
@@ -3,9 +3,11 @@ package com.ing.engine.execution.data;
 
 import com.ing.datalib.testdata.model.GlobalDataModel;
 import com.ing.datalib.testdata.model.TestDataModel;
+import com.ing.datalib.testdata.view.TestDataView;
 import com.ing.engine.execution.exception.data.DataNotFoundException.Cause;
 import com.ing.engine.execution.exception.data.TestDataNotFoundException;
 import com.ing.engine.execution.run.TestCaseRunner;
+import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -64,13 +66,22 @@ public class DataAccessInternal {
         return null;
     }
 
+    /**
+     * updates the model, writes for a model are serialized on the model itself
+     * so parallel test cases only contend when they update the same sheet.
+     * The sheet is saved deferred, it is written when the provider flushes
+     */
     protected static boolean putDataToModel(TestDataModel model, String field, String newVal,
             String scn, String tc, String iter, String subIter) {
         try {
-            if (notNull(model) && model.view().withSubIter(scn, tc, iter, subIter, true)
-                    .update(field, newVal)) {
-                model.saveChanges();
-                return true;
+            if (notNull(model)) {
+                synchronized (model) {
+                    if (model.view().withSubIter(scn, tc, iter, subIter, true)
+                            .update(field, newVal)) {
+                        model.saveChangesDeferred();
+                        return true;
+                    }
+                }
             }
         } catch (Exception ex) {
             LOG.log(Level.WARNING, ex.getMessage(), ex);
@@ -79,6 +90,43 @@ public class DataAccessInternal {
     }
     private static final Logger LOG = Logger.getLogger(DataAccessInternal.class.getName());
 
+    /**
+     * updates one sub iteration per row, adding the missing records, under one
+     * lock of the model and with one deferred save for all the rows
+     */
+    protected static boolean putRowsToModel(TestDataModel model, List<String> fields, List<String[]> rows,
+            String scn, String tc, String iter, int firstSubIter) {
+        try {
+            synchronized (model) {
+                for (int row = 0; row < rows.size(); row++) {
+                    String subIter = String.valueOf(firstSubIter + row);
+                    TestDataView view = model.view().withSubIter(scn, tc, iter, subIter, true);
+                    String[] values = rows.get(row);
+                    for (int col = 0; col < fields.size(); col++) {
+                        view.update(fields.get(col), values[col]);
+                    }
+                }
+                model.saveChangesDeferred();
+                return true;
+            }
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, ex.getMessage(), ex);
+        }
+        return false;
+    }
+
+    protected static boolean hasColumns(TestDataModel model, List<String> fields) {
+        if (isNull(model)) {
+            return false;
+        }
+        for (String field : fields) {
+            if (!model.hasColumn(field)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     protected static boolean putDataToModel(TestDataModel env, TestDataModel def, String field, String newVal,
             String scn, String tc, String iter, String subIter) {
         return putDataToModel(env, field, newVal, scn, tc, iter, subIter)
@@ -1,9 +1,9 @@
 
 package com.ing.engine.execution.data;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  *
@@ -12,10 +12,10 @@ import java.util.Set;
 public class DataIterator {
 
     private final Map<String, Integer> dataIter;
-    private int maxIter = -1;
+    private volatile int maxIter = -1;
 
     public DataIterator() {
-        dataIter = new HashMap<>();
+        dataIter = new ConcurrentHashMap<>();
     }
 
     public void setMaxIter(int n) {
@@ -15,7 +15,12 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- *
+ * Resolves step inputs to their runtime values.
+ * <br>
+ * Resolution holds no global lock: everything it mutates is confined to the
+ * calling {@link TestCaseRunner} (runtime variables, iteration state) or is
+ * guarded per data model, so parallel test cases only meet when they touch the
+ * same data sheet.
  *
  */
 public class DataProcessor {
@@ -36,7 +41,7 @@ public class DataProcessor {
         return resolveKeyMapVars(inp, 2);
     }
     
-    private static boolean isInputPatternDynamic(String inp){
+    static boolean isInputPatternDynamic(String inp){
         return (inp.matches("(^@|=|>|%)(.*)")               // check if Static string | addVar function | Dynamic Variable
                 || inp.startsWith("<")                      // 
                 || inp.startsWith("[")                      // 
@@ -53,23 +58,49 @@ public class DataProcessor {
             
     }
     
-    public static synchronized String resolve(String raw, TestCaseRunner context,
+    public static String resolve(String raw, TestCaseRunner context,
             String subIter) throws DataNotFoundException {
-        String inp = Objects.toString(raw, "");
-        //resolveKeyMapVars(Objects.toString(raw, ""), 2, context.getControl().getRunTimeVars())
-        if (isInputPatternDynamic(inp)) {
-            inp = resolveDynamic(resolveIn(inp), context);
-        } else if (isInputPatternDataSheet(inp)) {
-            String inp_string = inp.startsWith("{") ? inp.substring( 1, inp.length() - 1 ) : inp;
-            String[] args = inp_string.split(":");
-            if (!context.isIterResolved(args[0])) {
-                context.setIter(args[0], DataAccess.getIterations(context, args[0]));
-            }
-            inp = DataAccess.getData(context, args[0], args[1], context.iteration(), subIter);
+        InputTemplate template = InputTemplate.of(Objects.toString(raw, ""));
+        String inp;
+        switch (template.getKind()) {
+            case DYNAMIC:
+                inp = fillRunTimeVars(template, context);
+                break;
+            case FUNCTION:
+                inp = resolveDynamic(Objects.toString(FParser.eval(template.getText()), ""), context);
+                break;
+            case SCRIPT:
+                inp = resolveDynamic(Objects.toString(FParser.evaljs(template.getText()), ""), context);
+                break;
+            case DATASHEET:
+                if (!context.isIterResolved(template.getSheet())) {
+                    context.setIter(template.getSheet(), DataAccess.getIterations(context, template.getSheet()));
+                }
+                inp = DataAccess.getData(context, template.getSheet(), template.getField(),
+                        context.iteration(), subIter);
+                break;
+            default:
+                inp = template.getText();
+                break;
         }
         return resolveKeyMapVars(inp, 2, context.getControl().getRunTimeVars());
     }
 
+    /**
+     * fills the pre-parsed <code>%var%</code> slots of the template
+     */
+    private static String fillRunTimeVars(InputTemplate template, TestCaseRunner context) {
+        String data = template.getText();
+        for (String var : template.getRunTimeVars()) {
+            String inp = context.getControl().getDynamicValue(var);
+            if (inp != null) {
+                System.out.println(String.format("%s changed to %s", var, inp));
+                data = data.replace(var, inp);
+            }
+        }
+        return data;
+    }
+
     private static String resolveIn(String inp) {
         if (inp.startsWith("@")) {
             inp = trimFirst(inp);
@@ -82,6 +113,9 @@ public class DataProcessor {
     }
 
     private static String resolveDynamic(String data, TestCaseRunner context) {
+        if (data.indexOf('%') < 0) {
+            return data;
+        }
         Matcher matcher = RT_VAR.matcher(data);
         while (matcher.find()) {
             String var = matcher.group();
@@ -107,6 +141,9 @@ public class DataProcessor {
     }
 
     public static String resolveKeyMapVars(String inp, int pass, Map<String, String> runTimeVars) {
+        if (!InputTemplate.hasKeys(inp)) {
+            return inp;
+        }
         inp = KeyMap.replaceKeys(inp, KeyMap.USER_VARS, true, pass, runTimeVars,
                 Control.getCurrentProject().getProjectSettings().getUserDefinedSettings());
         inp = KeyMap.replaceKeys(inp, KeyMap.CONTEXT_VARS, true, pass,
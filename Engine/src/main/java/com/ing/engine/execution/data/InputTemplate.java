@@ -0,0 +1,170 @@
+package com.ing.engine.execution.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled form of a step input.
+ * <br>
+ * The input of a step does not change during a run, so it is classified once
+ * (literal, datasheet reference, runtime variable, function, javascript) and
+ * the result is cached for the run. Per iteration only the slots are filled,
+ * the pattern matching is done here and not in the step loop.
+ *
+ */
+public final class InputTemplate {
+
+    public enum Kind {
+        /**
+         * plain text, only the key-map variables are resolved
+         */
+        LITERAL,
+        /**
+         * <code>Sheet:Field</code> or <code>{Sheet:Field}</code>
+         */
+        DATASHEET,
+        /**
+         * <code>@text</code>, <code>%var%</code>, <code>{context}</code>,
+         * <code>&lt;..</code>, <code>[..</code> or quoted text
+         */
+        DYNAMIC,
+        /**
+         * <code>=Function(..)</code>
+         */
+        FUNCTION,
+        /**
+         * <code>&gt;javascript</code>
+         */
+        SCRIPT
+    }
+
+    private static final Pattern RT_VAR = Pattern.compile("(%.+?%)");
+
+    private static final Map<String, InputTemplate> CACHE = new ConcurrentHashMap<>();
+
+    private final String raw;
+    private final Kind kind;
+    private final String text;
+    private final String sheet;
+    private final String field;
+    private final List<String> runTimeVars;
+    private final boolean hasKeys;
+
+    private InputTemplate(String raw, Kind kind, String text, String sheet, String field) {
+        this.raw = raw;
+        this.kind = kind;
+        this.text = text;
+        this.sheet = sheet;
+        this.field = field;
+        this.runTimeVars = findRunTimeVars(kind == Kind.DYNAMIC ? text : "");
+        this.hasKeys = hasKeys(text);
+    }
+
+    /**
+     * returns the compiled template for the input, compiling it on first use
+     *
+     * @param raw the step input
+     * @return the compiled template
+     */
+    public static InputTemplate of(String raw) {
+        return CACHE.computeIfAbsent(raw, InputTemplate::compile);
+    }
+
+    /**
+     * drops all compiled templates, called at the start of each run
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    static InputTemplate compile(String inp) {
+        if (DataProcessor.isInputPatternDynamic(inp)) {
+            if (inp.startsWith("=")) {
+                return new InputTemplate(inp, Kind.FUNCTION, DataProcessor.trimFirst(inp), null, null);
+            } else if (inp.startsWith(">")) {
+                return new InputTemplate(inp, Kind.SCRIPT, DataProcessor.trimFirst(inp), null, null);
+            } else if (inp.startsWith("@")) {
+                return new InputTemplate(inp, Kind.DYNAMIC, DataProcessor.trimFirst(inp), null, null);
+            }
+            return new InputTemplate(inp, Kind.DYNAMIC, inp, null, null);
+        } else if (DataProcessor.isInputPatternDataSheet(inp)) {
+            String ref = inp.startsWith("{") ? inp.substring(1, inp.length() - 1) : inp;
+            String[] args = ref.split(":");
+            return new InputTemplate(inp, Kind.DATASHEET, inp, args[0], args[1]);
+        }
+        return new InputTemplate(inp, Kind.LITERAL, inp, null, null);
+    }
+
+    private static List<String> findRunTimeVars(String text) {
+        if (text.indexOf('%') < 0) {
+            return Collections.emptyList();
+        }
+        Set<String> vars = new LinkedHashSet<>();
+        Matcher matcher = RT_VAR.matcher(text);
+        while (matcher.find()) {
+            vars.add(matcher.group());
+        }
+        return new ArrayList<>(vars);
+    }
+
+    /**
+     * cheap check for key-map variables (<code>%user%</code>,
+     * <code>{context}</code> and <code>${env}</code>), if there are none the
+     * regex based replacement can be skipped
+     *
+     * @param value the value to check
+     * @return true if the value may hold key-map variables
+     */
+    public static boolean hasKeys(String value) {
+        return value.indexOf('%') >= 0 || value.indexOf('{') >= 0;
+    }
+
+    public String getRaw() {
+        return raw;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the input without its prefix (<code>@ = &gt;</code>)
+     */
+    public String getText() {
+        return text;
+    }
+
+    public String getSheet() {
+        return sheet;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * @return the distinct <code>%var%</code> slots of a dynamic input
+     */
+    public List<String> getRunTimeVars() {
+        return runTimeVars;
+    }
+
+    /**
+     * @return true if the text may hold key-map variables
+     */
+    public boolean hasKeys() {
+        return hasKeys;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s]", kind, raw);
+    }
+}
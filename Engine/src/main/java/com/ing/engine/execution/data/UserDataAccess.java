@@ -3,6 +3,8 @@ package com.ing.engine.execution.data;
 
 import com.ing.datalib.testdata.view.TestDataView;
 import com.ing.engine.execution.run.TestCaseRunner;
+import java.util.List;
+import java.util.Set;
 
 /**
  *
@@ -78,6 +80,15 @@ public abstract class UserDataAccess {
         DataAccess.putData(context(), sheet, column, value, scenario, testcase, iteration, subIteration);
     }
 
+    public void putRows(String sheet, List<String> columns, List<String[]> rows, String iteration,
+            int firstSubIteration) {
+        DataAccess.putRows(context(), sheet, columns, rows, iteration, firstSubIteration);
+    }
+
+    public Set<String> getSubIterations(String sheet) {
+        return DataAccessInternal.getSubIterations(context(), sheet);
+    }
+
     public TestDataView getTestData(String sheetName) {
         return DataAccess.getTestData(context(), sheetName).withSubIter(context().scenario(), context().testcase(),
                 context().iteration(), context().subIteration());
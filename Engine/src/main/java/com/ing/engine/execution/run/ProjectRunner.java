@@ -11,6 +11,7 @@ import com.ing.engine.constants.FilePath;
 import com.ing.engine.constants.SystemDefaults;
 import com.ing.engine.core.RunManager;
 import com.ing.engine.execution.data.DataIterator;
+import com.ing.engine.util.data.KeyMap;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
@@ -243,6 +244,7 @@ public class ProjectRunner implements TestRunner {
                 Properties appSett = new Properties();
                 appSett.load(new FileReader(appSettings));
                 System.getProperties().putAll(appSett);
+                KeyMap.invalidateEnvSnapshot();
             } catch (IOException ex) {
                 Logger.getLogger(ProjectRunner.class.getName()).log(Level.SEVERE, null, ex);
             }
@@ -8,10 +8,14 @@ import com.ing.engine.core.RunContext;
 import com.ing.engine.core.RunManager;
 import com.ing.engine.drivers.PlaywrightDriverCreation;
 import com.ing.engine.reporting.impl.handlers.PrimaryHandler;
+import com.ing.engine.reporting.impl.handlers.ReportEvent;
+import com.ing.engine.reporting.impl.handlers.ReportEventBus;
 import com.ing.engine.reporting.impl.handlers.TestCaseHandler;
 import com.ing.engine.reporting.impl.html.HtmlTestCaseHandler;
 import com.ing.engine.reporting.intf.Report;
 import com.ing.engine.reporting.util.DateTimeUtils;
+import com.ing.engine.reporting.util.ReportUtils;
+import com.ing.engine.reporting.util.ScreenshotWriter;
 import com.ing.engine.support.Status;
 import com.ing.engine.support.Step;
 import com.ing.engine.support.methodInf.MethodInfoManager;
@@ -21,11 +25,18 @@ import com.ing.engine.reporting.impl.extent.ExtentTestCaseHandler;
 import java.util.Date;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 import java.io.FileWriter;
 import org.json.simple.JSONObject;
 import com.ing.engine.drivers.WebDriverCreation;
 
+/**
+ * Report of a test case, forwards the steps to the handlers through the
+ * {@link ReportEventBus} so that the step thread does not wait for them.
+ *
+ */
 public final class TestCaseReport implements Report {
 
     public static volatile int tcCount;
@@ -99,6 +110,8 @@ public final class TestCaseReport implements Report {
     public void setPlaywrightDriver(PlaywrightDriverCreation driver) {
         playwrightdriver = driver;
         for (TestCaseHandler handler : handlers) {
+            // the handlers read the browser, which belongs to the step thread
+            ReportEventBus.await(handler);
             handler.setPlaywrightDriver(driver);
         }
     }
@@ -106,6 +119,7 @@ public final class TestCaseReport implements Report {
     public void setWebDriver(WebDriverCreation driver) {
         webDriver = driver;
         for (TestCaseHandler handler : handlers) {
+            ReportEventBus.await(handler);
             handler.setWebDriver(driver);
         }
     }
@@ -136,9 +150,7 @@ public final class TestCaseReport implements Report {
         this.TestCase = runContext.TestCase;
         this.sb = new StringBuilder();
         this.sb.append(createRunInfoString(runContext.Scenario, runContext.TestCase, runContext.BrowserName, runContext.BrowserVersionValue, runContext.PlatformValue, runContext.Iteration));
-        for (TestCaseHandler handler : handlers) {
-            handler.createReport(runContext, runTime);
-        }
+        publish(handler -> handler.createReport(runContext, runTime));
     }
     //<editor-fold defaultstate="collapsed" desc="wrapper functions">
 
@@ -189,8 +201,50 @@ public final class TestCaseReport implements Report {
         System.out.println(String.format("\n%99s\n", "=").replace(" ", "="));
         String stepInfo = stepLevelLog(String.valueOf(getStep().StepNum), getStep().ObjectName, getStep().Action, getStep().Input, getStep().Condition, state, stepDescription);
         this.sb.append(stepInfo).append("\n");
+        List<String> links = optional == null ? null : Collections.unmodifiableList(new ArrayList<>(optional));
+        boolean screenshot = ReportEventBus.isAsync() && needsScreenshot(state, optionalLink, optional)
+                && ReportUtils.takeScreenshot(playwrightdriver, webDriver, screenShotFileName);
+        publish(new ReportEvent(handler -> handler.updateTestLog(stepName, stepDescription, state, optionalLink, links),
+                curr, stepNo, screenShotFileName, DateTimeUtils.DateTimeNow(), screenshot, getVideoPath()), true);
+    }
+
+    /**
+     * same rule as the handlers, which then reuse the screenshot taken here
+     */
+    private static boolean needsScreenshot(Status state, String optionalLink, List<String> optional) {
+        switch (state) {
+            case PASS:
+            case FAIL:
+                String screenShotFor = Control.exe.getExecSettings().getRunSettings().getScreenShotFor();
+                if (!screenShotFor.matches(state == Status.PASS ? "(Pass|Both)" : "(Fail|Both)") || optionalLink != null) {
+                    return false;
+                }
+            case SCREENSHOT:
+                return optional == null || optional.size() != 3;
+            default:
+                return false;
+        }
+    }
+
+    private String getVideoPath() {
+        if (!ReportEventBus.isAsync() || playwrightdriver == null || playwrightdriver.page == null
+                || !Control.exe.getExecSettings().getRunSettings().isVideoEnabled()) {
+            return null;
+        }
+        try {
+            return playwrightdriver.page.video().path().toString();
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private void publish(Consumer<TestCaseHandler> call) {
+        publish(new ReportEvent(call, curr, stepNo, screenShotFileName, DateTimeUtils.DateTimeNow(), false, getVideoPath()), false);
+    }
+
+    private void publish(ReportEvent event, boolean droppable) {
         for (TestCaseHandler handler : handlers) {
-            handler.updateTestLog(stepName, stepDescription, state, optionalLink, optional);
+            ReportEventBus.publish(handler, event, droppable);
         }
     }
 
@@ -203,8 +257,9 @@ public final class TestCaseReport implements Report {
     @Override
     public Status finalizeReport() {
         runComplete = true;
+        publish(TestCaseHandler::finalizeReport);
         for (TestCaseHandler handler : handlers) {
-            handler.finalizeReport();
+            ReportEventBus.await(handler);
         }
         JSONObject testcasedata = (JSONObject) primaryHandler.getData();
         String testcase = testcasedata.get("testcaseName").toString();
@@ -234,9 +289,7 @@ public final class TestCaseReport implements Report {
     public void startIteration(int iteration) {
         stepNo = 0;
         iterCounter++;
-        for (TestCaseHandler handler : handlers) {
-            handler.startIteration(iteration);
-        }
+        publish(handler -> handler.startIteration(iteration));
     }
 
     /**
@@ -247,23 +300,17 @@ public final class TestCaseReport implements Report {
      */
     @Override
     public void startComponent(String component, String desc) {
-        for (TestCaseHandler handler : handlers) {
-            handler.startComponent(component, desc);
-        }
+        publish(handler -> handler.startComponent(component, desc));
     }
 
     @Override
     public void endComponent(String component) {
-        for (TestCaseHandler handler : handlers) {
-            handler.endComponent(component);
-        }
+        publish(handler -> handler.endComponent(component));
     }
 
     @Override
     public void endIteration(int iteration) {
-        for (TestCaseHandler handler : handlers) {
-            handler.endIteration(iteration);
-        }
+        publish(handler -> handler.endIteration(iteration));
     }
 //</editor-fold>
 
@@ -314,7 +361,7 @@ public final class TestCaseReport implements Report {
                 + "_Step-"
                 + stepNo + "_"
                 + DateTimeUtils.TimeNowForFolder()
-                + ".png";
+                + ScreenshotWriter.getExtension();
     }
 
     public String getWebserviceResponseFileName() {
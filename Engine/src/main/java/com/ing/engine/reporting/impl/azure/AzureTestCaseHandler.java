@@ -13,9 +13,7 @@ import java.util.TimeZone;
 import java.util.UUID;
 
 import org.apache.http.client.ClientProtocolException;
-import org.apache.http.client.HttpClient;
 
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.ParseException;
@@ -34,7 +32,9 @@ import com.ing.engine.reporting.impl.handlers.TestCaseHandler;
 import com.ing.engine.reporting.util.DateTimeUtils;
 import com.ing.engine.reporting.util.RDS;
 import com.ing.engine.reporting.util.RDS.TestCase;
+import com.ing.engine.reporting.util.PayloadWriter;
 import com.ing.engine.reporting.util.ReportUtils;
+import com.ing.engine.reporting.util.ScreenshotWriter;
 import com.ing.engine.support.Status;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -54,7 +54,6 @@ public class AzureTestCaseHandler extends TestCaseHandler implements PrimaryHand
 
     private StringBuffer SourceDoc;
     public File ReportFile;
-    public HttpClient client = HttpClientBuilder.create().useSystemProperties().build();
     public static Map<String, String> itemIds = new HashMap<String, String>();
 
     String CurrentComponent = "";
@@ -136,7 +135,7 @@ public class AzureTestCaseHandler extends TestCaseHandler implements PrimaryHand
     @Override
     public void updateTestLog(String stepName, String stepDescription, Status state, String link, List<String> links) {
 
-        String time = DateTimeUtils.DateTimeNow();
+        String time = getEventTime();
         String stepData = "";
         JSONObject step;
         try {
@@ -164,6 +163,8 @@ public class AzureTestCaseHandler extends TestCaseHandler implements PrimaryHand
 
             if (data.get(RDS.Step.Data.LINK) != null) {
                 filename = AppResourcePath.getCurrentResultsPath() + data.get(RDS.Step.Data.LINK);
+                ScreenshotWriter.await(filename);
+                PayloadWriter.await(filename);
             }
 
             String payloadfiles = testCaseData.get(TestCase.SCENARIO_NAME)
@@ -226,7 +227,7 @@ public class AzureTestCaseHandler extends TestCaseHandler implements PrimaryHand
 
     @Override
     public void endComponent(String string) {
-        reusable.put(RDS.Step.END_TIME, DateTimeUtils.DateTimeNow());
+        reusable.put(RDS.Step.END_TIME, getEventTime());
         if (reusable.get(TestCase.STATUS).equals("")) {
             /* status not is updated set it to FAIL */
             reusable.put(TestCase.STATUS, "FAIL");
@@ -358,7 +359,7 @@ public class AzureTestCaseHandler extends TestCaseHandler implements PrimaryHand
             if (optional != null) {
                 data.put(RDS.Step.Data.OBJECTS, optional.get(0));
             }
-            if (ReportUtils.takeScreenshot(getPlaywrightDriver(), getWebDriver(), imgSrc)) {
+            if (takeScreenshot(imgSrc)) {
                 data.put(RDS.Step.Data.LINK, imgSrc);
             }
         }
@@ -57,7 +57,6 @@ public class ExcelSummaryHandler extends SummaryHandler implements PrimaryHandle
     static ArrayList<JSONObject> objectsarray = new ArrayList<JSONObject>();
 
     JSONObject testSetData = new JSONObject();
-    JSONArray executions = new JSONArray();
     public boolean RunComplete = false;
     int FailedTestCases = 0;
     int PassedTestCases = 0;
@@ -124,7 +123,6 @@ public class ExcelSummaryHandler extends SummaryHandler implements PrimaryHandle
     public synchronized void updateTestCaseResults(RunContext runContext, TestCaseReport report, Status state,
             String executionTime) {
 
-        executions.add(report.getData());
         String status;
         if (state.equals(Status.PASS)) {
             status = "Passed";
@@ -142,7 +140,8 @@ public class ExcelSummaryHandler extends SummaryHandler implements PrimaryHandle
     }
 
     /**
-     * update the test set details to the json data file and write the data file
+     * update the test set details, the data file itself is written by the
+     * html summary from the executions log
      */
     @SuppressWarnings("unchecked")
     public synchronized void updateResults() {
@@ -151,13 +150,11 @@ public class ExcelSummaryHandler extends SummaryHandler implements PrimaryHandle
 
         try {
             if (RunComplete) {
-                testSetData.put(RDS.TestSet.EXECUTIONS, executions);
                 testSetData.put(RDS.TestSet.END_TIME, endTime);
                 testSetData.put(RDS.TestSet.EXE_TIME, exeTime);
 
                 testSetData.put(RDS.TestSet.NO_OF_FAIL_TESTS, String.valueOf(FailedTestCases));
                 testSetData.put(RDS.TestSet.NO_OF_PASS_TESTS, String.valueOf(PassedTestCases));
-                RDS.writeToDataJS(FilePath.getCurrentReportDataPath(), testSetData);
             } else {
 
             }
@@ -231,6 +228,8 @@ public class ExcelSummaryHandler extends SummaryHandler implements PrimaryHandle
 
                     AtomicInteger sheetnumber = new AtomicInteger(1);
 
+                    JSONArray executions = RDS.readLog(FilePath.getCurrentReportLogPath());
+
                     for (int i = 0; i < executions.size(); i++) {
                         XSSFFont font = workbook.createFont();
                         font.setBold(true);
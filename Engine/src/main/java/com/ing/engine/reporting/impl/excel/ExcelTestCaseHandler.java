@@ -91,7 +91,7 @@ public class ExcelTestCaseHandler extends TestCaseHandler implements PrimaryHand
     public void updateTestLog(String stepName, String stepDescription, Status state,
             String link, List<String> links) {
 
-        String time = DateTimeUtils.DateTimeNow();
+        String time = getEventTime();
         JSONObject step;
         try {
             step = RDS.getNewStep(getStep().Description);
@@ -146,7 +146,7 @@ public class ExcelTestCaseHandler extends TestCaseHandler implements PrimaryHand
 
     @Override
     public void endComponent(String string) {
-        reusable.put(RDS.Step.END_TIME, DateTimeUtils.DateTimeNow());
+        reusable.put(RDS.Step.END_TIME, getEventTime());
         if (reusable.get(TestCase.STATUS).equals("")) {
             /*
             * status not is updated set it to FAIL 
@@ -279,7 +279,7 @@ public class ExcelTestCaseHandler extends TestCaseHandler implements PrimaryHand
             if (optional != null) {
                 data.put(RDS.Step.Data.OBJECTS, optional.get(0));
             }
-            if (ReportUtils.takeScreenshot(getPlaywrightDriver(),getWebDriver(), imgSrc)) {
+            if (takeScreenshot(imgSrc)) {
                 data.put(RDS.Step.Data.LINK, imgSrc);
             }
         }
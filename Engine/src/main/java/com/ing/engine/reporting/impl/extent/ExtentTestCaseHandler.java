@@ -32,7 +32,9 @@ import com.ing.engine.reporting.impl.handlers.TestCaseHandler;
 import com.ing.engine.reporting.util.DateTimeUtils;
 import com.ing.engine.reporting.util.RDS;
 import com.ing.engine.reporting.util.RDS.TestCase;
+import com.ing.engine.reporting.util.PayloadWriter;
 import com.ing.engine.reporting.util.ReportUtils;
+import com.ing.engine.reporting.util.ScreenshotWriter;
 import com.ing.engine.support.Status;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -137,7 +139,7 @@ public class ExtentTestCaseHandler extends TestCaseHandler implements PrimaryHan
 
     @Override
     public void updateTestLog(String stepName, String stepDescription, Status state, String link, List<String> links) {
-        String time = DateTimeUtils.DateTimeNow();
+        String time = getEventTime();
         String stepData = "";
         JSONObject step;
         try {
@@ -165,6 +167,8 @@ public class ExtentTestCaseHandler extends TestCaseHandler implements PrimaryHan
 
             if (data.get(RDS.Step.Data.LINK) != null) {
                 filename = AppResourcePath.getCurrentResultsPath() + data.get(RDS.Step.Data.LINK);
+                ScreenshotWriter.await(filename);
+                PayloadWriter.await(filename);
             }
 
             String payloadfiles = testCaseData.get(TestCase.SCENARIO_NAME)
@@ -222,7 +226,7 @@ public class ExtentTestCaseHandler extends TestCaseHandler implements PrimaryHan
 
     @Override
     public void endComponent(String string) {
-        reusable.put(RDS.Step.END_TIME, DateTimeUtils.DateTimeNow());
+        reusable.put(RDS.Step.END_TIME, getEventTime());
         if (reusable.get(TestCase.STATUS).equals("")) {
             /* status not is updated set it to FAIL */
             reusable.put(TestCase.STATUS, "FAIL");
@@ -354,7 +358,7 @@ public class ExtentTestCaseHandler extends TestCaseHandler implements PrimaryHan
             if (optional != null) {
                 data.put(RDS.Step.Data.OBJECTS, optional.get(0));
             }
-            if (ReportUtils.takeScreenshot(getPlaywrightDriver(), getWebDriver(), imgSrc)) {
+            if (takeScreenshot(imgSrc)) {
                 data.put(RDS.Step.Data.LINK, imgSrc);
             }
         }
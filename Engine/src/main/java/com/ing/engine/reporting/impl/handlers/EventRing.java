@@ -0,0 +1,85 @@
+package com.ing.engine.reporting.impl.handlers;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring for many producers and one consumer.
+ * <br>
+ * Each slot has a sequence number: a producer claims a position with a CAS
+ * on the tail and publishes the slot by setting its sequence, the consumer
+ * reads a slot once its sequence says it is published and frees it for the
+ * producer of the next lap.
+ *
+ * @param <T> the element type
+ */
+final class EventRing<T> {
+
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    EventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        buffer = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * @return false if the ring is full
+     */
+    boolean offer(T element) {
+        long position;
+        while (true) {
+            position = tail.get();
+            long available = sequences.get((int) position & mask) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (available < 0) {
+                return false;
+            }
+        }
+        int slot = (int) position & mask;
+        buffer[slot] = element;
+        sequences.set(slot, position + 1);
+        return true;
+    }
+
+    /**
+     * to be called from the consumer thread only
+     *
+     * @return the next element, null if the ring is empty
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        long position = head;
+        int slot = (int) position & mask;
+        if (sequences.get(slot) != position + 1) {
+            return null;
+        }
+        T element = (T) buffer[slot];
+        buffer[slot] = null;
+        sequences.set(slot, position + buffer.length);
+        head = position + 1;
+        return element;
+    }
+
+    boolean isEmpty() {
+        return tail.get() == head;
+    }
+}
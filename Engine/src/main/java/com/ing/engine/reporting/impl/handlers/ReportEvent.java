@@ -0,0 +1,44 @@
+package com.ing.engine.reporting.impl.handlers;
+
+import com.ing.engine.support.Step;
+import java.util.function.Consumer;
+
+/**
+ * A call of the test case report to its handlers, with the state of the
+ * report when it was made.
+ * <br>
+ * The handlers replay it on their {@link ReportEventBus} thread, where
+ * {@link TestCaseHandler#getStep()}, {@link TestCaseHandler#getStepCount()}
+ * etc. return the values below instead of the current ones.
+ *
+ */
+public final class ReportEvent {
+
+    final Consumer<TestCaseHandler> call;
+    final Step step;
+    final int stepCount;
+    final String screenShotName;
+    final String time;
+    final boolean screenshot;
+    final String videoPath;
+
+    /**
+     * @param call the handler method to call
+     * @param step the current step
+     * @param stepCount the number of steps so far
+     * @param screenShotName the screenshot name of the step
+     * @param time when the event happened
+     * @param screenshot true if the screenshot of the step was taken
+     * @param videoPath the video of the page, null if not recorded
+     */
+    public ReportEvent(Consumer<TestCaseHandler> call, Step step, int stepCount, String screenShotName,
+            String time, boolean screenshot, String videoPath) {
+        this.call = call;
+        this.step = step;
+        this.stepCount = stepCount;
+        this.screenShotName = screenShotName;
+        this.time = time;
+        this.screenshot = screenshot;
+        this.videoPath = videoPath;
+    }
+}
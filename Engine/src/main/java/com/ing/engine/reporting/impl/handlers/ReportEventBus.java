@@ -0,0 +1,176 @@
+package com.ing.engine.reporting.impl.handlers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hands the calls of the test case reports over to their handlers, so that a
+ * slow handler (file or network I/O) does not slow down the steps.
+ * <br>
+ * Each handler class has a bounded ring (<code>report.async.capacity</code>,
+ * default 4096) drained by its own thread, the handlers of a test case see
+ * the events in the order they were published. When a ring is full the
+ * producer waits (<code>report.async.backpressure=block</code>, the default)
+ * or the step logs are dropped (<code>drop</code>), the other events always
+ * wait. <code>-Dreport.async=false</code> calls the handlers on the step
+ * thread.
+ *
+ */
+public final class ReportEventBus {
+
+    private static final Logger LOG = Logger.getLogger(ReportEventBus.class.getName());
+
+    private static final boolean ASYNC = Boolean.parseBoolean(System.getProperty("report.async", "true"));
+
+    private static final int CAPACITY = Integer.getInteger("report.async.capacity", 4096);
+
+    private static final boolean DROP = "drop".equalsIgnoreCase(System.getProperty("report.async.backpressure"));
+
+    private static final Map<Class<?>, Lane> LANES = new ConcurrentHashMap<>();
+
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    private static final class Entry {
+
+        final TestCaseHandler handler;
+        final ReportEvent event;
+
+        Entry(TestCaseHandler handler, ReportEvent event) {
+            this.handler = handler;
+            this.event = event;
+        }
+    }
+
+    private static final class Lane implements Runnable {
+
+        final EventRing<Entry> ring;
+        final Thread thread;
+        volatile boolean closed;
+        volatile boolean sleeping;
+
+        Lane(String name, int capacity) {
+            ring = new EventRing<>(capacity);
+            thread = new Thread(this, "report-" + name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Entry entry = ring.poll();
+                if (entry != null) {
+                    replay(entry);
+                } else if (closed) {
+                    return;
+                } else {
+                    sleeping = true;
+                    if (ring.isEmpty() && !closed) {
+                        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(10));
+                    }
+                    sleeping = false;
+                }
+            }
+        }
+
+        void offer(Entry entry, boolean droppable) {
+            while (!ring.offer(entry)) {
+                if (droppable) {
+                    DROPPED.incrementAndGet();
+                    return;
+                }
+                wakeUp();
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+            }
+            entry.handler.published.incrementAndGet();
+            wakeUp();
+        }
+
+        void wakeUp() {
+            if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private ReportEventBus() {
+    }
+
+    public static boolean isAsync() {
+        return ASYNC;
+    }
+
+    /**
+     * calls the handler with the event, on the thread of the handler class
+     * if the bus is asynchronous
+     *
+     * @param handler the handler
+     * @param event the event
+     * @param droppable true if the event may be dropped when the ring is
+     * full, see <code>report.async.backpressure</code>
+     */
+    public static void publish(TestCaseHandler handler, ReportEvent event, boolean droppable) {
+        if (!ASYNC) {
+            event.call.accept(handler);
+            return;
+        }
+        LANES.computeIfAbsent(handler.getClass(), type -> new Lane(type.getSimpleName(), CAPACITY))
+                .offer(new Entry(handler, event), droppable && DROP);
+    }
+
+    /**
+     * waits until the handler has replayed all the events published to it
+     *
+     * @param handler the handler
+     */
+    public static void await(TestCaseHandler handler) {
+        long target = handler.published.get();
+        Lane lane = LANES.get(handler.getClass());
+        while (handler.consumed < target) {
+            if (lane != null) {
+                lane.wakeUp();
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    private static void replay(Entry entry) {
+        TestCaseHandler handler = entry.handler;
+        handler.current = entry.event;
+        try {
+            entry.event.call.accept(handler);
+        } catch (Throwable ex) {
+            LOG.log(Level.SEVERE, "Error in report handler " + handler.getClass().getSimpleName(), ex);
+        } finally {
+            handler.current = null;
+            handler.consumed++;
+        }
+    }
+
+    /**
+     * drains and stops the handler threads, called at the end of the run
+     */
+    public static void closeAll() {
+        for (Lane lane : LANES.values()) {
+            lane.closed = true;
+            LockSupport.unpark(lane.thread);
+        }
+        for (Lane lane : LANES.values()) {
+            try {
+                lane.thread.join(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        LANES.clear();
+        long dropped = DROPPED.getAndSet(0);
+        if (dropped > 0) {
+            LOG.log(Level.WARNING, "{0} step logs dropped by the report handlers", dropped);
+        }
+    }
+}
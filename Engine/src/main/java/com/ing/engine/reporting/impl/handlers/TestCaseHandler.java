@@ -1,13 +1,17 @@
 package com.ing.engine.reporting.impl.handlers;
 
+import com.ing.engine.core.Control;
 import com.ing.engine.core.RunContext;
 import com.ing.engine.drivers.PlaywrightDriverCreation;
 import com.ing.engine.reporting.TestCaseReport;
 import com.ing.engine.reporting.intf.Report;
+import com.ing.engine.reporting.util.DateTimeUtils;
+import com.ing.engine.reporting.util.ReportUtils;
 import com.ing.engine.support.Status;
 import com.ing.engine.support.Step;
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import com.ing.engine.drivers.WebDriverCreation;
 
 /**
@@ -18,6 +22,14 @@ public class TestCaseHandler implements Report {
 
     public TestCaseReport report;
 
+    /**
+     * the event being replayed by the {@link ReportEventBus}, null on the
+     * step thread
+     */
+    volatile ReportEvent current;
+    final AtomicLong published = new AtomicLong();
+    volatile long consumed;
+
     public TestCaseHandler(TestCaseReport report) {
         this.report = report;
     }
@@ -54,7 +66,8 @@ public class TestCaseHandler implements Report {
     
     @Override
     public String getScreenShotName() {
-        return report.getScreenShotName();
+        ReportEvent event = current;
+        return event != null ? event.screenShotName : report.getScreenShotName();
     }
 
     @Override
@@ -78,12 +91,58 @@ public class TestCaseHandler implements Report {
 
     @Override
     public Step getStep() {
-        return report.getStep();
+        ReportEvent event = current;
+        return event != null ? event.step : report.getStep();
     }
 
     @Override
     public int getStepCount() {
-        return report.getStepCount();
+        ReportEvent event = current;
+        return event != null ? event.stepCount : report.getStepCount();
+    }
+
+    /**
+     * @return when the current event happened, now on the step thread
+     */
+    public String getEventTime() {
+        ReportEvent event = current;
+        return event != null ? event.time : DateTimeUtils.DateTimeNow();
+    }
+
+    /**
+     * takes the screenshot of the step, when replayed from the
+     * {@link ReportEventBus} it was already taken on the step thread
+     *
+     * @param imgSrc the screenshot name
+     * @return true if the screenshot is available
+     */
+    public boolean takeScreenshot(String imgSrc) {
+        ReportEvent event = current;
+        if (event != null) {
+            return event.screenshot;
+        }
+        return ReportUtils.takeScreenshot(getPlaywrightDriver(), getWebDriver(), imgSrc);
+    }
+
+    /**
+     * @return the path of the video of the page, null if there is no page
+     * (e.g. browserless test cases) or no video
+     */
+    public String getVideoPath() {
+        ReportEvent event = current;
+        if (event != null) {
+            return event.videoPath;
+        }
+        PlaywrightDriverCreation driver = getPlaywrightDriver();
+        if (driver == null || driver.page == null
+                || !Control.exe.getExecSettings().getRunSettings().isVideoEnabled()) {
+            return null;
+        }
+        try {
+            return driver.page.video() == null ? null : driver.page.video().path().toString();
+        } catch (RuntimeException ex) {
+            return null;
+        }
     }
 
     @Override
@@ -28,7 +28,6 @@ import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.commons.io.FileUtils;
-import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
 /**
@@ -41,7 +40,6 @@ public class HtmlSummaryHandler extends SummaryHandler implements PrimaryHandler
     private static final Logger LOGGER = Logger.getLogger(HtmlSummaryHandler.class.getName());
 
     JSONObject testSetData = new JSONObject();
-    JSONArray executions = new JSONArray();
     public boolean RunComplete = false;
     int FailedTestCases = 0;
     int PassedTestCases = 0;
@@ -100,6 +98,7 @@ public class HtmlSummaryHandler extends SummaryHandler implements PrimaryHandler
             testSetData.put(RDS.TestSet.MAX_THREADS, Control.exe.getExecSettings().getRunSettings().getThreadCount());
             testSetData.put(RDS.TestSet.BDD_STYLE, Control.exe.getExecSettings().getRunSettings().isBddReportEnabled());
             testSetData.put(RDS.TestSet.PERF_REPORT, Control.exe.getExecSettings().getRunSettings().isPerformanceLogEnabled());
+            testSetData.put(RDS.TestSet.VIDEO_REPORT, Control.exe.getExecSettings().getRunSettings().isVideoEnabled());
             testSetData.put(RDS.TestSet.START_TIME, runTime);
             testSetData.put(RDS.TestSet.TEST_RUN, RunManager.getGlobalSettings().isTestRun());
             testSetData.put(RDS.TestSet.NO_OF_TESTS, size);
@@ -110,7 +109,9 @@ public class HtmlSummaryHandler extends SummaryHandler implements PrimaryHandler
     }
 
     /**
-     * update the result of each test case result
+     * update the result of each test case result, the test case data is
+     * appended to the executions log and read back once when the report is
+     * finalized
      *
      * @param runContext
      * @param report
@@ -122,7 +123,7 @@ public class HtmlSummaryHandler extends SummaryHandler implements PrimaryHandler
     public synchronized void updateTestCaseResults(RunContext runContext, TestCaseReport report, Status state,
             String executionTime) {
 
-        executions.add(report.getData());
+        RDS.appendToLog(FilePath.getCurrentReportLogPath(), (JSONObject) report.getData());
         String status;
         if (state.equals(Status.PASS)) {
             status = "Passed";
@@ -149,13 +150,13 @@ public class HtmlSummaryHandler extends SummaryHandler implements PrimaryHandler
 
         try {
             if (RunComplete) {
-                testSetData.put(RDS.TestSet.EXECUTIONS, executions);
                 testSetData.put(RDS.TestSet.END_TIME, endTime);
                 testSetData.put(RDS.TestSet.EXE_TIME, exeTime);
 
                 testSetData.put(RDS.TestSet.NO_OF_FAIL_TESTS, String.valueOf(FailedTestCases));
                 testSetData.put(RDS.TestSet.NO_OF_PASS_TESTS, String.valueOf(PassedTestCases));
-                RDS.writeToDataJS(FilePath.getCurrentReportDataPath(), testSetData);
+                RDS.writeToDataJS(FilePath.getCurrentReportDataPath(), testSetData, RDS.TestSet.EXECUTIONS,
+                        FilePath.getCurrentReportLogPath());
             } else {
 
             }
@@ -237,7 +238,7 @@ public class HtmlSummaryHandler extends SummaryHandler implements PrimaryHandler
     private void createCucumberBddReport(CucumberReport reporter) {
         try {
             System.out.print("Generating BDD-Report...");
-            reporter.toCucumberReport(testSetData.toString(),
+            reporter.toCucumberReport(RDS.readFromDataJS(FilePath.getCurrentReportDataPath()),
                     new File(FilePath.getCurrentResultsPath(), "bdd-report.json"));
             System.out.println("Done!");
         } catch (Exception ex) {
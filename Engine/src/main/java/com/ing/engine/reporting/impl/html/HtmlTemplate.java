@@ -0,0 +1,72 @@
+package com.ing.engine.reporting.impl.html;
+
+import com.ing.datalib.util.data.FileScanner;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.json.simple.JSONObject;
+
+/**
+ * A report template read once per run and split at its data placeholder, so
+ * that each report is written as the parts of the template with the data
+ * serialized in between.
+ *
+ */
+public final class HtmlTemplate {
+
+    private static final Map<String, HtmlTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    private final String[] parts;
+
+    HtmlTemplate(String template, String placeholder) {
+        List<String> split = new ArrayList<>();
+        int from = 0;
+        for (int at = template.indexOf(placeholder); at >= 0; at = template.indexOf(placeholder, from)) {
+            split.add(template.substring(from, at));
+            from = at + placeholder.length();
+        }
+        split.add(template.substring(from));
+        parts = split.toArray(new String[0]);
+    }
+
+    /**
+     * @param template the template file
+     * @param placeholder the placeholder of the data
+     * @return the template, read on the first call of the run
+     */
+    static HtmlTemplate of(String template, String placeholder) {
+        return TEMPLATES.computeIfAbsent(template + '\n' + placeholder, key -> {
+            try {
+                return new HtmlTemplate(FileScanner.readFile(new File(template)), placeholder);
+            } catch (Exception ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+    }
+
+    /**
+     * writes the template with each placeholder replaced by the data
+     *
+     * @param data the data
+     * @param out the writer
+     * @throws IOException if the writer fails
+     */
+    void write(JSONObject data, Writer out) throws IOException {
+        out.write(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            data.writeJSONString(out);
+            out.write(parts[i]);
+        }
+    }
+
+    /**
+     * forgets the templates read in the run, called at the end of the run
+     */
+    public static void closeAll() {
+        TEMPLATES.clear();
+    }
+}
@@ -1,6 +1,5 @@
 package com.ing.engine.reporting.impl.html;
 
-import com.ing.datalib.util.data.FileScanner;
 import com.ing.engine.constants.AppResourcePath;
 import com.ing.engine.constants.FilePath;
 import com.ing.engine.core.Control;
@@ -42,7 +41,7 @@ public class HtmlTestCaseHandler extends TestCaseHandler implements PrimaryHandl
     boolean isIteration = true;
     Stack<JSONObject> reusableStack = new Stack<>();
 
-    private StringBuffer SourceDoc;
+    private HtmlTemplate SourceDoc;
     public File ReportFile;
 
     String CurrentComponent = "";
@@ -78,7 +77,7 @@ public class HtmlTestCaseHandler extends TestCaseHandler implements PrimaryHandl
         try {
             ReportFile = new File(getReportLoc(), runContext.getName() + ".html");
             ReportFile.createNewFile();
-            SourceDoc = new StringBuffer(FileScanner.readFile(new File(FilePath.getTCReportTemplate())));
+            SourceDoc = HtmlTemplate.of(FilePath.getTCReportTemplate(), DATAF);
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
@@ -93,7 +92,7 @@ public class HtmlTestCaseHandler extends TestCaseHandler implements PrimaryHandl
     public void updateTestLog(String stepName, String stepDescription, Status state,
             String link, List<String> links) {
 
-        String time = DateTimeUtils.DateTimeNow();
+        String time = getEventTime();
         JSONObject step;
         try {
             step = RDS.getNewStep(getStep().Description);
@@ -131,9 +130,9 @@ public class HtmlTestCaseHandler extends TestCaseHandler implements PrimaryHandl
             }
             if (isVideoEnabled()) {
                 if (isIteration) {
-                    iteration.put(RDS.TestSet.VIDEO_REPORT_DIR, getPlaywrightDriver().page.video().path().toString());
+                    iteration.put(RDS.TestSet.VIDEO_REPORT_DIR, getVideoPath());
                 } else {
-                    reusable.put(RDS.TestSet.VIDEO_REPORT_DIR, getPlaywrightDriver().page.video().path().toString());
+                    reusable.put(RDS.TestSet.VIDEO_REPORT_DIR, getVideoPath());
                 }
             }
         } catch (Exception ex) {
@@ -174,7 +173,7 @@ public class HtmlTestCaseHandler extends TestCaseHandler implements PrimaryHandl
 
     @Override
     public void endComponent(String string) {
-        reusable.put(RDS.Step.END_TIME, DateTimeUtils.DateTimeNow());
+        reusable.put(RDS.Step.END_TIME, getEventTime());
         if (reusable.get(TestCase.STATUS).equals("")) {
             /*
             * status not is updated set it to FAIL 
@@ -310,7 +309,7 @@ public class HtmlTestCaseHandler extends TestCaseHandler implements PrimaryHandl
             if (optional != null) {
                 data.put(RDS.Step.Data.OBJECTS, optional.get(0));
             }
-            if (ReportUtils.takeScreenshot(getPlaywrightDriver(),getWebDriver(), imgSrc)) {
+            if (takeScreenshot(imgSrc)) {
                 data.put(RDS.Step.Data.LINK, imgSrc);
             }
         }
@@ -329,8 +328,7 @@ public class HtmlTestCaseHandler extends TestCaseHandler implements PrimaryHandl
         try (BufferedWriter bufwriter = new BufferedWriter(new FileWriter(ReportFile));) {
             JSONObject singleTestcasereport = (JSONObject) testCaseData.clone();
             ReportUtils.loadDefaultTheme(singleTestcasereport);
-            String tempDoc = SourceDoc.toString().replace(DATAF, singleTestcasereport.toJSONString());
-            bufwriter.write(tempDoc);
+            SourceDoc.write(singleTestcasereport, bufwriter);
         } catch (Exception ex) {
             LOG.log(Level.SEVERE, null, ex);
         }
@@ -9,8 +9,6 @@ import java.util.Map;
 import java.util.Stack;
 
 import org.apache.http.client.ClientProtocolException;
-import org.apache.http.client.HttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.ParseException;
@@ -24,11 +22,14 @@ import com.ing.engine.drivers.WebDriverCreation;
 import com.ing.engine.reporting.TestCaseReport;
 import com.ing.engine.reporting.impl.handlers.PrimaryHandler;
 import com.ing.engine.reporting.impl.handlers.TestCaseHandler;
+import com.ing.engine.reporting.reportportal.RPUploader;
 import com.ing.engine.reporting.reportportal.ReportPortalClient;
 import com.ing.engine.reporting.util.DateTimeUtils;
 import com.ing.engine.reporting.util.RDS;
 import com.ing.engine.reporting.util.RDS.TestCase;
+import com.ing.engine.reporting.util.PayloadWriter;
 import com.ing.engine.reporting.util.ReportUtils;
+import com.ing.engine.reporting.util.ScreenshotWriter;
 import com.ing.engine.support.Status;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -47,7 +48,6 @@ public class RPTestCaseHandler extends TestCaseHandler implements PrimaryHandler
     
     private StringBuffer SourceDoc;
     public File ReportFile;
-    public HttpClient client = HttpClientBuilder.create().useSystemProperties().build();
     public static Map<String, String> itemIds = new HashMap<String, String>();
     
     String CurrentComponent = "";
@@ -135,7 +135,7 @@ public class RPTestCaseHandler extends TestCaseHandler implements PrimaryHandler
     public void updateTestLog(String stepName, String stepDescription, Status state,
             String link, List<String> links) {
         
-        String time = DateTimeUtils.DateTimeNow();
+        String time = getEventTime();
         String stepData = "";
         JSONObject step;
         try {
@@ -164,6 +164,8 @@ public class RPTestCaseHandler extends TestCaseHandler implements PrimaryHandler
             
             if (data.get(RDS.Step.Data.LINK) != null) {
                 filename = AppResourcePath.getCurrentResultsPath() + data.get(RDS.Step.Data.LINK);
+                ScreenshotWriter.await(filename);
+                PayloadWriter.await(filename);
             }
             
             String payloadfile = testCaseData.get(TestCase.SCENARIO_NAME)
@@ -220,7 +222,7 @@ public class RPTestCaseHandler extends TestCaseHandler implements PrimaryHandler
     
     @Override
     public void endComponent(String string) {
-        reusable.put(RDS.Step.END_TIME, DateTimeUtils.DateTimeNow());
+        reusable.put(RDS.Step.END_TIME, getEventTime());
         if (reusable.get(TestCase.STATUS).equals("")) {
             /* status not is updated set it to FAIL */
             reusable.put(TestCase.STATUS, "FAIL");
@@ -350,7 +352,7 @@ public class RPTestCaseHandler extends TestCaseHandler implements PrimaryHandler
             if (optional != null) {
                 data.put(RDS.Step.Data.OBJECTS, optional.get(0));
             }
-            if (ReportUtils.takeScreenshot(getPlaywrightDriver(),getWebDriver(), imgSrc)) {
+            if (takeScreenshot(imgSrc)) {
                 data.put(RDS.Step.Data.LINK, imgSrc);
             }
         }
@@ -366,6 +368,9 @@ public class RPTestCaseHandler extends TestCaseHandler implements PrimaryHandler
     @Override
     public Status finalizeReport() {
         updateResults();
+        if (isRPEnabled()) {
+            RPUploader.flush(itemIds.get(testcasename));
+        }
         return report.getCurrentStatus();
     }
     
@@ -0,0 +1,369 @@
+package com.ing.engine.reporting.reportportal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+/**
+ * Sends the step logs to ReportPortal in the background, over one pooled
+ * http client shared by all the ReportPortal calls of the run.
+ * <br>
+ * The logs are queued and posted as batch log requests of up to
+ * <code>rp.batch.size</code> entries (default 20), a batch waits at most
+ * <code>rp.batch.linger</code> ms (default 500) for more entries. The
+ * attachments travel as parts of the same multipart request. Failed batches
+ * are retried <code>rp.retries</code> times (default 3) with an exponential
+ * backoff starting at <code>rp.retry.backoff</code> ms (default 500). A call
+ * waits at most <code>rp.connectionRequestTimeout</code> ms (default 30000)
+ * for a connection of the pool. A test item waits only for its own logs
+ * when it ends.
+ *
+ */
+public final class RPUploader {
+
+    private static final Logger LOG = Logger.getLogger(RPUploader.class.getName());
+
+    private static final int BATCH_SIZE = Math.max(1, Integer.getInteger("rp.batch.size", 20));
+
+    private static final int LINGER = Integer.getInteger("rp.batch.linger", 500);
+
+    private static final int RETRIES = Integer.getInteger("rp.retries", 3);
+
+    private static final int BACKOFF = Integer.getInteger("rp.retry.backoff", 500);
+
+    private static final int MAX_CONNECTIONS = Integer.getInteger("rp.maxConnections", 8);
+
+    private static final int CONNECTION_REQUEST_TIMEOUT = Integer.getInteger("rp.connectionRequestTimeout", 30000);
+
+    private static final String JSON_PART = "json_request_part";
+
+    private static CloseableHttpClient client;
+
+    private static RPUploader uploader;
+
+    /**
+     * a log entry of a batch log request
+     */
+    static final class LogEntry {
+
+        final String url;
+        final String uuid;
+        final JSONObject json;
+        final File file;
+        final String contentType;
+        final String item;
+
+        LogEntry(String url, String uuid, JSONObject json, File file, String contentType) {
+            this.url = url;
+            this.uuid = uuid;
+            this.json = json;
+            this.file = file;
+            this.contentType = contentType;
+            this.item = Objects.toString(json.get("item_id"), "");
+        }
+
+        boolean sameRequest(LogEntry other) {
+            return url.equals(other.url) && uuid.equals(other.uuid);
+        }
+    }
+
+    private final LinkedBlockingDeque<LogEntry> queue = new LinkedBlockingDeque<>();
+    private final Thread thread;
+    private long queued;
+    private long sent;
+    /**
+     * the log entries not sent yet by test item
+     */
+    private final Map<String, Long> pending = new HashMap<>();
+    private volatile int waiting;
+    private volatile boolean closed;
+
+    private RPUploader() {
+        thread = new Thread(this::run, "rp-uploader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return the http client of the ReportPortal calls, created on first use
+     */
+    public static synchronized CloseableHttpClient client() {
+        if (client == null) {
+            client = HttpClientBuilder.create().useSystemProperties()
+                    .setMaxConnTotal(MAX_CONNECTIONS).setMaxConnPerRoute(MAX_CONNECTIONS)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(CONNECTION_REQUEST_TIMEOUT).build())
+                    .build();
+        }
+        return client;
+    }
+
+    private static synchronized RPUploader uploader() {
+        if (uploader == null) {
+            uploader = new RPUploader();
+        }
+        return uploader;
+    }
+
+    /**
+     * queues a log entry
+     *
+     * @param url the log endpoint of the project
+     * @param uuid the access token
+     * @param json the log entry, its <code>file</code> names the attachment
+     * @param file the attachment, null if none
+     * @param contentType the content type of the attachment
+     */
+    public static void log(String url, String uuid, JSONObject json, File file, String contentType) {
+        RPUploader current = uploader();
+        LogEntry entry = new LogEntry(url, uuid, json, file, contentType);
+        synchronized (current) {
+            current.queued++;
+            current.pending.merge(entry.item, 1L, Long::sum);
+        }
+        current.queue.add(entry);
+    }
+
+    /**
+     * waits until the log entries queued so far are sent
+     */
+    public static void flush() {
+        RPUploader current;
+        synchronized (RPUploader.class) {
+            current = uploader;
+        }
+        if (current != null) {
+            current.await();
+        }
+    }
+
+    /**
+     * waits until the log entries queued so far for the test item are sent,
+     * the logs of the other items are not waited for
+     *
+     * @param item the id of the test item
+     */
+    public static void flush(String item) {
+        RPUploader current;
+        synchronized (RPUploader.class) {
+            current = uploader;
+        }
+        if (current != null) {
+            current.await(Objects.toString(item, ""));
+        }
+    }
+
+    /**
+     * sends the queued log entries and closes the http client, called at the
+     * end of the run
+     */
+    public static void closeAll() {
+        RPUploader current;
+        CloseableHttpClient http;
+        synchronized (RPUploader.class) {
+            current = uploader;
+            uploader = null;
+        }
+        if (current != null) {
+            current.await();
+            current.closed = true;
+            current.thread.interrupt();
+        }
+        synchronized (RPUploader.class) {
+            http = client;
+            client = null;
+        }
+        if (http != null) {
+            try {
+                http.close();
+            } catch (IOException ex) {
+                LOG.log(Level.WARNING, null, ex);
+            }
+        }
+    }
+
+    private synchronized void await() {
+        long target = queued;
+        waiting++;
+        try {
+            while (sent < target && thread.isAlive()) {
+                wait(1000);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting--;
+        }
+    }
+
+    private synchronized void await(String item) {
+        waiting++;
+        try {
+            while (pending.containsKey(item) && thread.isAlive()) {
+                wait(1000);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting--;
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            List<LogEntry> batch;
+            try {
+                batch = take();
+            } catch (InterruptedException ex) {
+                continue;
+            }
+            try {
+                send(batch);
+            } catch (RuntimeException ex) {
+                LOG.log(Level.SEVERE, "Failed to send the logs to ReportPortal", ex);
+            } finally {
+                synchronized (this) {
+                    sent += batch.size();
+                    for (LogEntry entry : batch) {
+                        pending.computeIfPresent(entry.item, (item, count) -> count == 1 ? null : count - 1);
+                    }
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the next batch, the entries of a batch go to the same endpoint,
+     * it does not wait for more entries while a flush is waiting
+     */
+    private List<LogEntry> take() throws InterruptedException {
+        List<LogEntry> batch = new ArrayList<>();
+        LogEntry first = queue.take();
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LINGER);
+        while (batch.size() < BATCH_SIZE) {
+            LogEntry next = waiting > 0 ? queue.poll()
+                    : queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            if (!first.sameRequest(next)) {
+                queue.addFirst(next);
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private static void send(List<LogEntry> batch) {
+        String boundary = "rp-" + UUID.randomUUID();
+        byte[] body;
+        try {
+            body = body(boundary, batch);
+        } catch (IOException ex) {
+            LOG.log(Level.SEVERE, "Failed to write the ReportPortal logs", ex);
+            return;
+        }
+        LogEntry first = batch.get(0);
+        for (int attempt = 0;; attempt++) {
+            HttpPost postRequest = new HttpPost(first.url);
+            postRequest.addHeader("accept", "application/json");
+            postRequest.addHeader("Authorization", "bearer " + first.uuid);
+            ByteArrayEntity entity = new ByteArrayEntity(body);
+            entity.setContentType("multipart/form-data; boundary=" + boundary);
+            postRequest.setEntity(entity);
+            try (CloseableHttpResponse response = client().execute(postRequest)) {
+                int code = response.getStatusLine().getStatusCode();
+                EntityUtils.consume(response.getEntity());
+                if (code < 300) {
+                    return;
+                }
+                if ((code < 500 && code != 429) || attempt >= RETRIES) {
+                    LOG.log(Level.SEVERE, "Failed : HTTP error code : {0}", code);
+                    return;
+                }
+            } catch (IOException ex) {
+                if (attempt >= RETRIES) {
+                    LOG.log(Level.SEVERE, "Failed to send the logs to ReportPortal", ex);
+                    return;
+                }
+            }
+            try {
+                Thread.sleep((long) BACKOFF << attempt);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param boundary the multipart boundary
+     * @param batch the log entries
+     * @return the multipart body of the batch log request, an attachment that
+     * cannot be read is left out
+     * @throws IOException if the body cannot be written
+     */
+    @SuppressWarnings("unchecked")
+    static byte[] body(String boundary, List<LogEntry> batch) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSONArray entries = new JSONArray();
+        byte[][] files = new byte[batch.size()][];
+        for (int i = 0; i < batch.size(); i++) {
+            LogEntry entry = batch.get(i);
+            if (entry.file != null) {
+                try {
+                    files[i] = Files.readAllBytes(entry.file.toPath());
+                } catch (IOException ex) {
+                    LOG.log(Level.WARNING, "Failed to read the ReportPortal attachment " + entry.file, ex);
+                    entry.json.remove("file");
+                }
+            }
+            entries.add(entry.json);
+        }
+        part(out, boundary, "form-data; name=\"" + JSON_PART + "\"", "application/json");
+        out.write(entries.toJSONString().getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < batch.size(); i++) {
+            if (files[i] != null) {
+                LogEntry entry = batch.get(i);
+                String name = entry.file.getName().replace("\"", "");
+                out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+                part(out, boundary, "form-data; name=\"" + name + "\"; filename=\"" + name + "\"",
+                        entry.contentType);
+                out.write(files[i]);
+            }
+        }
+        out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    private static void part(ByteArrayOutputStream out, String boundary, String disposition, String contentType)
+            throws IOException {
+        out.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: " + disposition + "\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
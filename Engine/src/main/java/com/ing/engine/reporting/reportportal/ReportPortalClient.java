@@ -1,24 +1,23 @@
 
 package com.ing.engine.reporting.reportportal;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.UUID;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
 import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
-//import org.apache.http.entity.mime.MultipartEntityBuilder;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.ParseException;
@@ -74,18 +73,8 @@ public class ReportPortalClient {
             StringEntity requestEntity = new StringEntity(startLaunchJSON.toJSONString(), ContentType.APPLICATION_JSON);
 
             postRequest.setEntity(requestEntity);
-            HttpResponse response = HttpClientBuilder.create().useSystemProperties().build().execute(postRequest);
-            if (response.getStatusLine().getStatusCode() != 201) {
-                Logger.getLogger(ReportPortalClient.class.getName()).log(Level.SEVERE, "Failed : HTTP error code : {0}",
-                        response.getStatusLine().getStatusCode());
-            }
-            BufferedReader br = new BufferedReader(new InputStreamReader((response.getEntity().getContent())));
-            String output;
-            String resp = "";
+            String resp = execute(postRequest, 201);
             System.out.println("Output from Server .... \n");
-            while ((output = br.readLine()) != null) {
-                resp = resp.concat(output);
-            }
             ReportPortalClient.LaunchID = Utility.getID(resp);
         } catch (Exception e) {
             Logger.getLogger(ReportPortalClient.class.getName()).log(Level.SEVERE, null, e);
@@ -110,18 +99,8 @@ public class ReportPortalClient {
         StringEntity requestEntity = new StringEntity(finishLaunchJSON.toJSONString(), ContentType.APPLICATION_JSON);
 
         putRequest.setEntity(requestEntity);
-        HttpResponse response = HttpClientBuilder.create().useSystemProperties().build().execute(putRequest);
-        if (response.getStatusLine().getStatusCode() != 200) {
-            Logger.getLogger(ReportPortalClient.class.getName()).log(Level.SEVERE, "Failed : HTTP error code : {0}",
-                    response.getStatusLine().getStatusCode());
-        }
-        BufferedReader br = new BufferedReader(new InputStreamReader((response.getEntity().getContent())));
-        String output;
-        String resp = "";
+        execute(putRequest, 200);
         System.out.println("Output from Server .... \n");
-        while ((output = br.readLine()) != null) {
-            resp = resp.concat(output);
-        }
     }
 
     public static void finishItem(String rp_endpoint, String rp_uuid, String rp_launch, String rp_project,
@@ -150,18 +129,8 @@ public class ReportPortalClient {
         StringEntity requestEntity = new StringEntity(finishItemJSON.toJSONString(), ContentType.APPLICATION_JSON);
 
         putRequest.setEntity(requestEntity);
-        HttpResponse response = HttpClientBuilder.create().useSystemProperties().build().execute(putRequest);
-        if (response.getStatusLine().getStatusCode() != 200) {
-            Logger.getLogger(ReportPortalClient.class.getName()).log(Level.SEVERE, "Failed : HTTP error code : {0}",
-                    response.getStatusLine().getStatusCode());
-        }
-        BufferedReader br = new BufferedReader(new InputStreamReader((response.getEntity().getContent())));
-        String output;
-        String resp = "";
+        execute(putRequest, 200);
         System.out.println("Output from Server .... \n");
-        while ((output = br.readLine()) != null) {
-            resp = resp.concat(output);
-        }
     }
 
     public static void startItem(String rp_endpoint, String rp_uuid, String rp_launch, String rp_project,
@@ -205,121 +174,81 @@ public class ReportPortalClient {
         StringEntity requestEntity = new StringEntity(startItemJSON.toJSONString(), ContentType.APPLICATION_JSON);
 
         postRequest.setEntity(requestEntity);
-        HttpResponse response = HttpClientBuilder.create().useSystemProperties().build().execute(postRequest);
-        if (response.getStatusLine().getStatusCode() != 201) {
-            Logger.getLogger(ReportPortalClient.class.getName()).log(Level.SEVERE, "Failed : HTTP error code : {0}",
-                    response.getStatusLine().getStatusCode());
-        }
-        BufferedReader br = new BufferedReader(new InputStreamReader((response.getEntity().getContent())));
-        String output;
-        String resp = "";
-        //System.out.println("Output from Server .... \n");
-        while ((output = br.readLine()) != null) {
-            resp = resp.concat(output);
-        }
+        String resp = execute(postRequest, 201);
         RPTestCaseHandler.itemIds.put(testcaseName, Utility.getID(resp));
     }
 
+    /**
+     * sends the request over the pooled client of {@link RPUploader}
+     *
+     * @param request the request
+     * @param expectedStatus the status code of a successful call
+     * @return the body of the response, the connection is given back to the
+     * pool once it is read
+     * @throws IOException if the call fails
+     */
+    private static String execute(HttpUriRequest request, int expectedStatus) throws IOException {
+        try (CloseableHttpResponse response = RPUploader.client().execute(request)) {
+            if (response.getStatusLine().getStatusCode() != expectedStatus) {
+                Logger.getLogger(ReportPortalClient.class.getName()).log(Level.SEVERE, "Failed : HTTP error code : {0}",
+                        response.getStatusLine().getStatusCode());
+            }
+            return response.getEntity() == null ? "" : EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * @return the content type of the screenshot, png or jpg as written by
+     * the screenshot writer
+     */
+    static String contentType(File file) {
+        String contentType = URLConnection.guessContentTypeFromName(file.getName());
+        return contentType != null ? contentType : "application/octet-stream";
+    }
+
+    /**
+     * queues the log of a step, see {@link RPUploader}
+     */
     public static void sendLog(String payloadfile, String rp_endpoint, String rp_uuid, String rp_launch, String rp_project,
             String testitemID, String status, String teststepdata, String filename) throws IOException, ParseException {
         testitemID = RPTestCaseHandler.itemIds.get(testitemID);
-        HttpPost putRequest = new HttpPost(rp_endpoint + "/api/v1/" + rp_project + "/log");
-        putRequest.addHeader("accept", "application/json");
-        putRequest.addHeader("Authorization", "bearer " + rp_uuid);
         String timeStamp = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").format(new Date());
 
-        if (filename.equalsIgnoreCase("")) {
-
-            JSONObject sendLogEntityJSON = new JSONObject();
-            sendLogEntityJSON.put("item_id", testitemID);
-            if (status.contains("PASS") || status.contains("DONE") || status.contains("COMPLETE")) {
-                sendLogEntityJSON.put("level", "info");
-            } else {
-                sendLogEntityJSON.put("level", "ERROR");
-            }
-            sendLogEntityJSON.put("message", teststepdata);
-            sendLogEntityJSON.put("time", timeStamp);
-
-            JSONObject filearray_Obj = new JSONObject();
-            filearray_Obj.put("name", "none");
-            sendLogEntityJSON.put("file", filearray_Obj);
-            StringEntity requestEntity = new StringEntity(sendLogEntityJSON.toJSONString(),
-                    ContentType.APPLICATION_JSON);
-            putRequest.setEntity(requestEntity);
-
+        JSONObject sendLogEntityJSON = new JSONObject();
+        sendLogEntityJSON.put("item_id", testitemID);
+        if (status.contains("PASS") || status.contains("DONE") || status.contains("COMPLETE")) {
+            sendLogEntityJSON.put("level", "INFO");
         } else {
-            File f = new File(new File(filename).getCanonicalPath());
-            JSONArray sendLog_array = new JSONArray();
-            JSONObject sendLogMEntityJSON = new JSONObject();
-            sendLogMEntityJSON.put("item_id", testitemID);
-            if (status.contains("PASS") || status.contains("DONE") || status.contains("COMPLETE")) {
-                sendLogMEntityJSON.put("level", "INFO");
-            } else {
-                sendLogMEntityJSON.put("level", "ERROR");
-            }
-            sendLogMEntityJSON.put("message", teststepdata);
-            sendLogMEntityJSON.put("time", timeStamp);
+            sendLogEntityJSON.put("level", "ERROR");
+        }
+        sendLogEntityJSON.put("message", teststepdata);
+        sendLogEntityJSON.put("time", timeStamp);
 
-            String contentType = "";
-            String attachmentName = "";
-            File attachment = null;
+        String contentType = "";
+        File attachment = null;
+        if (!filename.equalsIgnoreCase("")) {
+            File f = new File(new File(filename).getCanonicalPath());
             if (f.isDirectory()) {
                 String prefix = payloadfile;
                 for (File fileEntry : f.listFiles()) {
                     if (fileEntry.getName().contains(prefix)) {
-                        attachmentName = fileEntry.getName();
                         attachment = new File(fileEntry.getAbsolutePath());
                         contentType = "application/octet-stream";
                         break;
                     }
                 }
-
             } else {
-                attachmentName = f.getName();
-                contentType = "image/png";
+                contentType = contentType(f);
                 attachment = f;
             }
-
+        }
+        if (attachment != null) {
             JSONObject filearray_Obj = new JSONObject();
-            filearray_Obj.put("name", attachmentName);
+            filearray_Obj.put("name", attachment.getName());
             filearray_Obj.put("content-type", contentType);
-            sendLogMEntityJSON.put("file", filearray_Obj);
-
-            sendLog_array.add(sendLogMEntityJSON);
-
-//            HttpEntity entity = MultipartEntityBuilder.create()
-//                    .addTextBody("json_request_part", sendLog_array.toJSONString(), ContentType.APPLICATION_JSON)
-//                    .addBinaryBody(attachmentName, attachment, ContentType.create(contentType), attachmentName).build();
-        //    putRequest.setEntity(entity);
-        }
-
-        HttpResponse response = null;
-
-        try {
-            response = HttpClientBuilder.create().useSystemProperties().build().execute(putRequest);
-        } catch (IOException e) {
-            Logger.getLogger(ReportPortalClient.class.getName()).log(Level.SEVERE, null, e);
-        }
-        if (response.getStatusLine().getStatusCode() != 201) {
-            Logger.getLogger(ReportPortalClient.class.getName()).log(Level.SEVERE, "Failed : HTTP error code : {0}",
-                    response.getStatusLine().getStatusCode());
-        }
-        BufferedReader br = null;
-        try {
-            br = new BufferedReader(new InputStreamReader((response.getEntity().getContent())));
-        } catch (UnsupportedOperationException | IOException e) {
-            Logger.getLogger(ReportPortalClient.class.getName()).log(Level.SEVERE, null, e);
-        }
-        String output;
-        String resp = "";
-        try {
-            while ((output = br.readLine()) != null) {
-                resp = resp.concat(output);
-            }
-        } catch (IOException e) {
-            Logger.getLogger(ReportPortalClient.class.getName()).log(Level.SEVERE, null, e);
+            sendLogEntityJSON.put("file", filearray_Obj);
         }
-
+        RPUploader.log(rp_endpoint + "/api/v1/" + rp_project + "/log", rp_uuid, sendLogEntityJSON, attachment, contentType);
     }
 
 }
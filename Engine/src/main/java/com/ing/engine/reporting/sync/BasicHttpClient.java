@@ -82,7 +82,8 @@ public class BasicHttpClient extends AbstractHttpClient {
     }
 
     /**
-     * execute the given URI request
+     * execute the given URI request, with a context of its own as the client
+     * may be shared by threads
      *
      * @param req
      * @return
@@ -93,7 +94,7 @@ public class BasicHttpClient extends AbstractHttpClient {
         DLogger.Log(req.toString());
         Optional.ofNullable(proxy).ifPresent((p)
                 -> ((HttpRequestBase) req).setConfig(RequestConfig.custom().setProxy(p).build()));
-        return client.execute(req, context);
+        return client.execute(req, createContext(url.toURI(), creds));
     }
 
 // <editor-fold defaultstate="collapsed" desc="PUT implementation">
@@ -6,11 +6,22 @@ import com.ing.engine.support.DLogger;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import static java.util.stream.Collectors.joining;
@@ -19,13 +30,38 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
 /**
+ * Publishes the results of the run to an Azure DevOps test plan.
+ * <br>
+ * The test points of a suite are read in the background as soon as a test
+ * case of the suite finishes. At the end of the run the outcomes are sent
+ * in bulk updates of <code>azure.batch.size</code> results (default 100) and
+ * the attachments by <code>azure.threads</code> threads (default 4). Calls
+ * throttled (429) or failed by the server (5xx) are retried
+ * <code>azure.retries</code> times (default 3), waiting as asked by the
+ * Retry-After header, the updates that still fail or are refused are reported
+ * once the run is published.
  *
- * 
  */
 public class AzureClient {
 
     private static final Logger LOGGER = Logger.getLogger(AzureClient.class.getName());
+    private static final int PAGE_SIZE = 1000;
+    /**
+     * results sent per bulk update
+     */
+    private final int batchSize = Math.max(1, Integer.getInteger("azure.batch.size", 100));
+
+    private final int threads = Math.max(1, Integer.getInteger("azure.threads", 4));
+
+    private final int retries = Integer.getInteger("azure.retries", 3);
+
+    private final int backoff = Integer.getInteger("azure.retry.backoff", 1000);
+
     private final AzureHttpClient httpClient;
+    private final Map<String, Map<String, Integer>> testSuites = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Map<String, Integer>>> testPoints = new ConcurrentHashMap<>();
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+    private ExecutorService executor;
     public String serverUrl;
     final String PAT;
     URL url;
@@ -36,6 +72,12 @@ public class AzureClient {
         httpClient = new AzureHttpClient(getUrl(serverUrl), PAT,config);
     }
 
+    AzureClient(String url, AzureHttpClient httpClient) {
+        this.setUrl(url);
+        this.PAT = null;
+        this.httpClient = httpClient;
+    }
+
     private void setUrl(String url) {
         try {
             if (!url.endsWith("/")) {
@@ -61,33 +103,60 @@ public class AzureClient {
         return serverUrl.concat(rest);
     }
 
-    private JSONObject getTestPoint(JSONArray testpoints, String testcaseTitle) {
-        for (Object v : testpoints) {
-            for (Object wiProps : (JSONArray) ((JSONObject) v).get("workItemProperties")) {
-                JSONObject wi = (JSONObject) ((JSONObject) wiProps).get("workItem");
-                if (wi.get("key").equals("System.Title") && wi.get("value").equals(testcaseTitle)) {
-                    return (JSONObject) v;
-                }
-            }
-        }
-        return null;
+    /**
+     * @return the test point ids of the suite by test case title, read once
+     * per suite in the background, a failed read is dropped by
+     * {@link #getTestPointId} and done again for the next test case
+     */
+    private CompletableFuture<Map<String, Integer>> getTestPoints(String project, int testPlanId, String suite) {
+        return testPoints.computeIfAbsent(project + "/" + testPlanId + "/" + suite,
+                key -> CompletableFuture.supplyAsync(() -> {
+                    Map<String, Integer> points = new HashMap<>();
+                    try {
+                        int suiteId = getTestSuiteId(project, testPlanId, suite);
+                        if (suiteId < 0) {
+                            LOGGER.log(Level.WARNING, "Azure DevOps: suite {0} not found in test plan {1}",
+                                    new Object[]{suite, testPlanId});
+                            return points;
+                        }
+                        JSONObject res = call(() -> httpClient.Get(getUrl(buildUrl(getTestPlanUrl(project, testPlanId)
+                                + "/suites/" + suiteId
+                                + "/points?witFields=System.Title"))));
+                        for (Object v : (JSONArray) res.get("value")) {
+                            for (Object wiProps : (JSONArray) ((JSONObject) v).get("workItemProperties")) {
+                                JSONObject wi = (JSONObject) ((JSONObject) wiProps).get("workItem");
+                                if (wi.get("key").equals("System.Title")) {
+                                    points.putIfAbsent(wi.get("value").toString(),
+                                            Integer.parseInt(((JSONObject) v).get("id").toString()));
+                                }
+                            }
+                        }
+                    } catch (Exception ex) {
+                        throw new CompletionException(ex);
+                    }
+                    return points;
+                }, executor()));
     }
 
-    private int getTestSuiteId(String project, int testPlanId, String suite) {
-        try {
-            JSONObject res = httpClient.Get(getUrl(buildUrl(getTestPlanUrl(project, testPlanId)
-                    + "/suites?api-version=1.0")));
-
+    /**
+     * @return the id of the suite, -1 if the plan has no such suite
+     * @throws Exception if the suites of the plan cannot be read, the
+     * failure is not kept
+     */
+    private int getTestSuiteId(String project, int testPlanId, String suite) throws Exception {
+        String key = project + "/" + testPlanId;
+        Map<String, Integer> suites = testSuites.get(key);
+        if (suites == null) {
+            Map<String, Integer> ids = new HashMap<>();
+            JSONObject res = call(() -> httpClient.Get(getUrl(buildUrl(getTestPlanUrl(project, testPlanId)
+                    + "/suites?api-version=1.0"))));
             for (Object i : (JSONArray) res.get("value")) {
                 JSONObject suiteSet = (JSONObject) i;
-                if (suiteSet.get("name").equals(suite)) {
-                    return Integer.parseInt(suiteSet.get("id").toString());
-                }
+                ids.putIfAbsent(suiteSet.get("name").toString(), Integer.parseInt(suiteSet.get("id").toString()));
             }
-        } catch (Exception ex) {
-            LOGGER.log(Level.SEVERE, null, ex);
+            suites = testSuites.computeIfAbsent(key, k -> ids);
         }
-        return -1;
+        return suites.getOrDefault(suite, -1);
     }
 
     public boolean containsProject(String project) {
@@ -113,107 +182,235 @@ public class AzureClient {
         }
     }
 
+    /**
+     * @return the test point of the test case, -1 if it is not in the suite
+     * or the points of the suite could not be read
+     */
     private int getTestPointId(String project, int testPlanId, String suite, String testCase) {
-
+        CompletableFuture<Map<String, Integer>> points = getTestPoints(project, testPlanId, suite);
         try {
-            JSONObject res = httpClient.Get(getUrl(buildUrl(getTestPlanUrl(project, testPlanId)
-                    + "/suites/" + getTestSuiteId(project, testPlanId, suite)
-                    + "/points?witFields=System.Title")));
-            JSONObject testpoint = getTestPoint((JSONArray) res.get("value"), testCase);
-            if (Objects.nonNull(testpoint)) {
-                return Integer.parseInt(testpoint.get("id").toString());
-            }
-        } catch (Exception ex) {
-            LOGGER.log(Level.SEVERE, null, ex);
+            return points.join().getOrDefault(testCase, -1);
+        } catch (CompletionException | CancellationException ex) {
+            testPoints.remove(project + "/" + testPlanId + "/" + suite, points);
+            LOGGER.log(Level.SEVERE, "Azure DevOps: reading the test points of " + suite + " failed", ex);
+            return -1;
+        }
+    }
+
+    /**
+     * starts reading the test points of the suite while the run goes on
+     *
+     * @param project the project
+     * @param testPlanId the test plan
+     * @param suite the suite
+     */
+    public void prefetch(String project, int testPlanId, String suite) {
+        if (testPlanId > 0) {
+            getTestPoints(project, testPlanId, suite);
         }
-        return -1;
     }
 
     private String getTestPlanUrl(String project, int testPlanId) {
         return project + "/_apis/test/plans/" + testPlanId;
     }
 
-    private int getResultId(String project, String testcase, int runId) {
-        try {
-            JSONObject res = httpClient.Get(getUrl(buildUrl(project + "/_apis/test/runs/" + runId + "/results")));
-
-            for (Object r : (JSONArray) res.get("value")) {
+    /**
+     * @return the result ids of the run by test case name, in the order of
+     * the run
+     */
+    private Map<String, Deque<Integer>> getResultIds(String project, int runId) throws Exception {
+        Map<String, Deque<Integer>> ids = new HashMap<>();
+        for (int skip = 0;; skip += PAGE_SIZE) {
+            int from = skip;
+            JSONObject res = call(() -> httpClient.Get(getUrl(buildUrl(project + "/_apis/test/runs/" + runId
+                    + "/results?api-version=5.0&$top=" + PAGE_SIZE + "&$skip=" + from))));
+            JSONArray page = (JSONArray) res.get("value");
+            for (Object r : page) {
                 JSONObject run = (JSONObject) r;
-                if (((JSONObject) run.get("testCase")).get("name").equals(testcase)) {
-                    return Integer.parseInt(run.get("id").toString());
-                }
+                ids.computeIfAbsent(((JSONObject) run.get("testCase")).get("name").toString(),
+                        name -> new ArrayDeque<>()).add(Integer.parseInt(run.get("id").toString()));
+            }
+            if (page.size() < PAGE_SIZE) {
+                return ids;
             }
-        } catch (Exception ex) {
-            LOGGER.log(Level.SEVERE, null, ex);
         }
-        return -1;
     }
 
     public void createNewTestRun(ArrayList<AzureTestData> listOTest) {
+        failures.clear();
         try {
-            String testPoints = listOTest.stream()
-                    .filter(td -> td.testPlanId > 0)
-                    .map(td -> getTestPointId(td.project, td.testPlanId, td.suite, td.testcase))
+            List<AzureTestData> tests = new ArrayList<>();
+            List<Integer> pointIds = new ArrayList<>();
+            for (AzureTestData td : listOTest) {
+                if (td.testPlanId > 0) {
+                    int pointId = getTestPointId(td.project, td.testPlanId, td.suite, td.testcase);
+                    if (pointId < 0) {
+                        failures.add("test point of //" + td.suite + "/" + td.testcase + " not found");
+                    } else {
+                        tests.add(td);
+                        pointIds.add(pointId);
+                    }
+                }
+            }
+            if (tests.isEmpty()) {
+                return;
+            }
+            String testPoints = pointIds.stream()
                     .map(String::valueOf)
                     .collect(joining(","));
             LOGGER.log(Level.INFO, "Conneting Azure DevOps to update results");
-            JSONObject res = httpClient.post(getUrl(buildUrl(listOTest.get(0).project + "/_apis/test/runs?api-version=5.0")),
+            String project = tests.get(0).project;
+            JSONObject res = call(() -> httpClient.post(getUrl(buildUrl(project + "/_apis/test/runs?api-version=5.0")),
                     "{\"name\": \"" + FilePath.getCurrentReportFolderName()
-                    + "\", \"plan\": { \"id\": " + listOTest.get(0).testPlanId
-                    + " }, \"pointIds\": [ " + testPoints + " ] }");
+                    + "\", \"plan\": { \"id\": " + tests.get(0).testPlanId
+                    + " }, \"pointIds\": [ " + testPoints + " ] }"));
 
             int runId = Integer.parseInt(res.get("id").toString());
-            listOTest.stream()
-                    .filter(td -> td.testPlanId > 0)
-                    .forEach(test -> {
-                        System.out.print(String.format(
-                                "Azure DevOps: updating //%s/%s result(%s) with %s attachments... ",
-                                test.suite, test.testcase, test.status, test.attach.size()));
-                        updateResults(test.project, runId,
-                                getResultId(test.project, test.testcase, runId),
-                                test.status, test.attach);
-                    });
-            updateRunStatus(listOTest.get(0).project, runId);
+            Map<String, Deque<Integer>> resultIds = getResultIds(project, runId);
+            List<CompletableFuture<Void>> attachments = new ArrayList<>();
+            StringBuilder results = new StringBuilder();
+            int batched = 0;
+            for (AzureTestData test : tests) {
+                Deque<Integer> ids = resultIds.getOrDefault(test.testcase, new ArrayDeque<>());
+                if (ids.isEmpty()) {
+                    failures.add("result of //" + test.suite + "/" + test.testcase + " not found");
+                    continue;
+                }
+                int resultId = ids.poll();
+                System.out.println(String.format(
+                        "Azure DevOps: updating //%s/%s result(%s) with %s attachments... ",
+                        test.suite, test.testcase, test.status, test.attach.size()));
+                results.append(results.length() == 0 ? "[" : ",").append(result(resultId, test.status));
+                if (++batched == batchSize) {
+                    patchResults(project, runId, results.append("]").toString(), batched);
+                    results.setLength(0);
+                    batched = 0;
+                }
+                for (File f : test.attach) {
+                    attachments.add(CompletableFuture.runAsync(
+                            () -> sendAttachment(project, runId, f, resultId), executor()));
+                }
+            }
+            if (batched > 0) {
+                patchResults(project, runId, results.append("]").toString(), batched);
+            }
+            CompletableFuture.allOf(attachments.toArray(new CompletableFuture[0])).join();
+            updateRunStatus(project, runId);
         } catch (Exception ex) {
             LOGGER.log(Level.SEVERE, null, ex);
+        } finally {
+            reportFailures();
         }
     }
-    
-    private void updateRunStatus(String project, int runId){
+
+    private static String result(int resultId, String status) {
+        return "{ \"id\": " + resultId + ", \"state\": \"Completed\", \"outcome\": \"" + status + "\"}";
+    }
+
+    private void patchResults(String project, int runId, String results, int count) {
         try {
-            httpClient.patch(getUrl(buildUrl(project + "/_apis/test/runs/"
-                    + runId + "?api-version=6.0")), "{ \"state\": \"Completed\"}");
+            call(() -> httpClient.patch(getUrl(buildUrl(project + "/_apis/test/runs/"
+                    + runId + "/results?api-version=6.0-preview.6")), results));
         } catch (Exception ex) {
-            LOGGER.log(Level.SEVERE, null, ex);
+            failed("update of " + count + " results", ex);
         }
     }
-    public void updateResults(String project, int runId, int resultId, String status, List<File> attach) {
 
+    private void updateRunStatus(String project, int runId){
         try {
-            httpClient.patch(getUrl(buildUrl(project + "/_apis/test/runs/"
-                    + runId + "/results?api-version=6.0-preview.6")), "[{ \"id\": " + resultId
-                    + ", \"state\": \"Completed\", \"outcome\": \"" + status + "\"}]");
-            for (File f : attach) {
-                sendAttachment(project, runId, f, resultId);
-            }
-           // System.out.println("Done!");
+            call(() -> httpClient.patch(getUrl(buildUrl(project + "/_apis/test/runs/"
+                    + runId + "?api-version=6.0")), "{ \"state\": \"Completed\"}"));
         } catch (Exception ex) {
             LOGGER.log(Level.SEVERE, null, ex);
         }
     }
+    public void updateResults(String project, int runId, int resultId, String status, List<File> attach) {
+        patchResults(project, runId, "[" + result(resultId, status) + "]", 1);
+        for (File f : attach) {
+            sendAttachment(project, runId, f, resultId);
+        }
+    }
 
     public void sendAttachment(String project, int runId, File attach, int resultId) {
 
         try {
             byte[] encodedBytes = Base64.getEncoder().encode(FileUtils.readFileToByteArray(attach));
             String content = new String(encodedBytes);
-            httpClient.post(getUrl(buildUrl(project + "/_apis/test/Runs/"
+            call(() -> httpClient.post(getUrl(buildUrl(project + "/_apis/test/Runs/"
                     + runId + "/Results/" + resultId + "/attachments?api-version=6.0-preview.1")),
-                    "{ \"stream\": \"" + content + "\", \"fileName\": \"" + attach.getName() + "\"}");
+                    "{ \"stream\": \"" + content + "\", \"fileName\": \"" + attach.getName() + "\"}"));
         } catch (Exception ex) {
-            LOGGER.log(Level.SEVERE, null, ex);
+            failed("attachment " + attach.getName(), ex);
         }
 
     }
 
+    /**
+     * calls Azure DevOps, retrying when the call fails, is throttled or fails
+     * on the server, the other error answers are not retried
+     */
+    private JSONObject call(Callable<JSONObject> request) throws Exception {
+        for (int attempt = 0;; attempt++) {
+            long wait = (long) backoff << attempt;
+            try {
+                return request.call();
+            } catch (AzureHttpClient.StatusException ex) {
+                if (!ex.isRetryable() || attempt >= retries) {
+                    throw ex;
+                }
+                if (ex.getRetryAfter() >= 0) {
+                    wait = ex.getRetryAfter();
+                }
+            } catch (Exception ex) {
+                if (attempt >= retries) {
+                    throw ex;
+                }
+            }
+            Thread.sleep(wait);
+        }
+    }
+
+    private void failed(String what, Exception ex) {
+        failures.add(what);
+        LOGGER.log(Level.WARNING, "Azure DevOps: " + what + " failed", ex);
+    }
+
+    private void reportFailures() {
+        if (!failures.isEmpty()) {
+            LOGGER.log(Level.SEVERE, "Azure DevOps: {0} updates failed: {1}",
+                    new Object[]{failures.size(), String.join(", ", failures)});
+        }
+    }
+
+    /**
+     * @return the updates failed by the last publish of the run
+     */
+    List<String> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures);
+        }
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            AtomicInteger count = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "azure-sync-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * stops the background threads
+     */
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
 }
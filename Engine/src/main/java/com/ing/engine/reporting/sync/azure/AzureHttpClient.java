@@ -3,12 +3,19 @@ package com.ing.engine.reporting.sync.azure;
 
 import com.ing.engine.reporting.sync.BasicHttpClient;
 import java.net.URL;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
+import org.apache.http.Header;
 import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
 import org.apache.http.auth.AuthenticationException;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.util.EntityUtils;
+import org.json.simple.JSONObject;
 
 public class AzureHttpClient extends BasicHttpClient {
 
@@ -44,4 +51,72 @@ public class AzureHttpClient extends BasicHttpClient {
         httppatch.setHeader("Content-Type", "application/json");
     }
 
+    /**
+     * fails on the error answers of Azure DevOps instead of returning them
+     * as results
+     */
+    @Override
+    public JSONObject parseResponse(HttpResponse response) throws Exception {
+        int status = response.getStatusLine().getStatusCode();
+        if (status < 200 || status >= 300) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            throw new StatusException(status, response.getStatusLine().getReasonPhrase(),
+                    retryAfter(response.getFirstHeader("Retry-After")));
+        }
+        return super.parseResponse(response);
+    }
+
+    /**
+     * @return the wait asked by the Retry-After header in milliseconds, in
+     * seconds or as a date, -1 if there is none
+     */
+    static long retryAfter(Header header) {
+        if (header != null && header.getValue() != null) {
+            String value = header.getValue().trim();
+            try {
+                return Math.max(0, Long.parseLong(value) * 1000);
+            } catch (NumberFormatException ex) {
+                try {
+                    return Math.max(0, Duration.between(ZonedDateTime.now(),
+                            ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME)).toMillis());
+                } catch (RuntimeException ignored) {
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * an answer of Azure DevOps out of the 2xx range
+     */
+    public static class StatusException extends Exception {
+
+        private final int status;
+        private final long retryAfter;
+
+        public StatusException(int status, String reason, long retryAfter) {
+            super("Azure DevOps answered " + status + " " + reason);
+            this.status = status;
+            this.retryAfter = retryAfter;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the wait asked by the server in milliseconds, -1 if none
+         */
+        public long getRetryAfter() {
+            return retryAfter;
+        }
+
+        /**
+         * @return true for throttling (429) and server errors (5xx)
+         */
+        public boolean isRetryable() {
+            return status == 429 || status >= 500;
+        }
+    }
+
 }
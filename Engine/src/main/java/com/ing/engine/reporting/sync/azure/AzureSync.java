@@ -20,6 +20,7 @@ public class AzureSync implements Sync {
 
     private AzureClient conn;
     private final ArrayList<AzureTestData> listOTest = new ArrayList<>();
+    private boolean connected;
     private String project = "";
     private int testPlanId;
     private static final Logger LOG = Logger.getLogger(AzureSync.class.getName());
@@ -40,20 +41,30 @@ public class AzureSync implements Sync {
                 options);
     }
 
+    /**
+     * checks the connection until it succeeds once, it is asked after every
+     * test case
+     */
     @Override
-    public boolean isConnected() {
-        try {
-            return conn.isConnected() && conn.containsProject(project);
-        } catch (Exception ex) {
-            LOG.log(Level.SEVERE, null, ex);
-            return false;
+    public synchronized boolean isConnected() {
+        if (!connected) {
+            try {
+                connected = conn.isConnected() && conn.containsProject(project);
+            } catch (Exception ex) {
+                LOG.log(Level.SEVERE, null, ex);
+            }
         }
+        return connected;
     }
 
     @Override
-    public void disConnect() {
-        conn.createNewTestRun(listOTest);
-        conn = null;
+    public synchronized void disConnect() {
+        try {
+            conn.createNewTestRun(listOTest);
+        } finally {
+            conn.close();
+            conn = null;
+        }
     }
 
     @Override
@@ -62,9 +73,10 @@ public class AzureSync implements Sync {
     }
 
     @Override
-    public boolean updateResults(TestInfo tc, String status, List<File> attach) {
+    public synchronized boolean updateResults(TestInfo tc, String status, List<File> attach) {
         AzureTestData test = new AzureTestData(project, testPlanId, tc.testScenario, tc.testCase, status, attach);
         listOTest.add(test);
+        conn.prefetch(project, testPlanId, tc.testScenario);
         return true;
     }
 
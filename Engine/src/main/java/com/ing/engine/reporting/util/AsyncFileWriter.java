@@ -0,0 +1,115 @@
+package com.ing.engine.reporting.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes report files (screenshots, webservice payloads) on a background
+ * thread.
+ * <br>
+ * The queue is bounded, when it is full the calling thread writes the file
+ * itself. Readers of a queued file call {@link #await(String)} (with the file
+ * or its folder) before reading it.
+ *
+ */
+public final class AsyncFileWriter {
+
+    private static final Logger LOG = Logger.getLogger(AsyncFileWriter.class.getName());
+
+    private static final long AWAIT_TIMEOUT = 30;
+
+    private final Map<Path, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor writer;
+
+    @FunctionalInterface
+    public interface Content {
+
+        byte[] get() throws IOException;
+    }
+
+    /**
+     * @param name the writer thread name
+     * @param queueSize number of files queued before the callers write
+     * themselves
+     */
+    public AsyncFileWriter(String name, int queueSize) {
+        writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread t = new Thread(r, name);
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, name + "-exit"));
+    }
+
+    /**
+     * queues the content to be written to the target file
+     *
+     * @param target the file to write
+     * @param content produces the bytes, called on the writer thread
+     */
+    public void write(File target, Content content) {
+        Path path = key(target.getPath());
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        pending.put(path, done);
+        writer.execute(() -> {
+            try {
+                Files.createDirectories(path.getParent());
+                Files.write(path, content.get());
+            } catch (Exception ex) {
+                LOG.log(Level.SEVERE, "Couldn't write " + path, ex);
+            } finally {
+                pending.remove(path, done);
+                done.complete(null);
+            }
+        });
+    }
+
+    /**
+     * waits until the file is written, or all the queued files of the folder,
+     * returns immediately if nothing is queued for it
+     *
+     * @param file the file or folder
+     */
+    public void await(String file) {
+        if (file == null || file.isEmpty() || pending.isEmpty()) {
+            return;
+        }
+        Path path = key(file);
+        pending.forEach((queued, done) -> {
+            if (queued.startsWith(path)) {
+                await(queued, done);
+            }
+        });
+    }
+
+    /**
+     * waits until all the queued files are written
+     */
+    public void flush() {
+        pending.forEach(AsyncFileWriter::await);
+    }
+
+    private static void await(Path file, CompletableFuture<Void> done) {
+        try {
+            done.get(AWAIT_TIMEOUT, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, file + " not written yet", ex);
+        }
+    }
+
+    private static Path key(String file) {
+        return new File(file).toPath().toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,48 @@
+package com.ing.engine.reporting.util;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the webservice request/response payloads to the report folder in
+ * the background (<code>payload.queueSize</code>, default 64).
+ * <br>
+ * Readers of the payload files (e.g. the handlers uploading them) must call
+ * {@link #await(String)} with the file or its folder before reading.
+ *
+ */
+public final class PayloadWriter {
+
+    private static final AsyncFileWriter WRITER = new AsyncFileWriter("payload-writer",
+            Integer.getInteger("payload.queueSize", 64));
+
+    private PayloadWriter() {
+    }
+
+    /**
+     * queues the payload to be written to the target file
+     *
+     * @param data the payload
+     * @param target the payload file in the report folder
+     */
+    public static void write(String data, File target) {
+        WRITER.write(target, () -> data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * waits until the payload file, or all the queued payloads of the folder,
+     * are written
+     *
+     * @param file the payload file or folder
+     */
+    public static void await(String file) {
+        WRITER.await(file);
+    }
+
+    /**
+     * waits until all the queued payloads are written
+     */
+    public static void flush() {
+        WRITER.flush();
+    }
+}
@@ -1,12 +1,21 @@
 package com.ing.engine.reporting.util;
 
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
 
 /**
  *
@@ -49,6 +58,105 @@ public class RDS {
         writeToFile(fileToWrite, BEFORE + data.toString() + AFTER);
     }
 
+    /**
+     * writes the data file with the records of the log as the array
+     * <code>key</code>, streaming them from the log instead of building the
+     * whole document in memory
+     *
+     * @param fileToWrite the data file
+     * @param data the data, without <code>key</code>
+     * @param key the key of the array
+     * @param log the JSON Lines log, see {@link #appendToLog(String, JSONObject)}
+     */
+    public synchronized static void writeToDataJS(String fileToWrite, JSONObject data, String key, String log) {
+        String head = data.toJSONString();
+        try (BufferedWriter bufwriter = new BufferedWriter(new FileWriter(fileToWrite))) {
+            bufwriter.write(BEFORE);
+            bufwriter.write(head, 0, head.length() - 1);
+            if (!data.isEmpty()) {
+                bufwriter.write(',');
+            }
+            bufwriter.write(JSONValue.toJSONString(key));
+            bufwriter.write(":[");
+            copyLog(log, bufwriter);
+            bufwriter.write("]}");
+            bufwriter.write(AFTER);
+        } catch (IOException ex) {
+            Logger.getLogger(RDS.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    private static void copyLog(String log, Writer out) throws IOException {
+        File file = new File(log);
+        if (!file.exists()) {
+            return;
+        }
+        boolean first = true;
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (!first) {
+                    out.write(',');
+                }
+                out.write(line);
+                first = false;
+            }
+        }
+    }
+
+    /**
+     * appends the record as one line to a JSON Lines log
+     *
+     * @param log the log file
+     * @param record the record
+     */
+    public synchronized static void appendToLog(String log, JSONObject record) {
+        try (BufferedWriter bufwriter = Files.newBufferedWriter(new File(log).toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            record.writeJSONString(bufwriter);
+            bufwriter.write('\n');
+        } catch (IOException ex) {
+            Logger.getLogger(RDS.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * @param log a JSON Lines log, see {@link #appendToLog(String, JSONObject)}
+     * @return the records of the log, empty if there is no log
+     * @throws IOException if the log cannot be read
+     * @throws ParseException if a record is not valid JSON
+     */
+    public static JSONArray readLog(String log) throws IOException, ParseException {
+        JSONArray records = new JSONArray();
+        File file = new File(log);
+        if (!file.exists()) {
+            return records;
+        }
+        JSONParser parser = new JSONParser();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    records.add(parser.parse(line));
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * @param fileToRead a data file written by {@link #writeToDataJS}
+     * @return the JSON of the data file
+     * @throws IOException if the file cannot be read
+     */
+    public static String readFromDataJS(String fileToRead) throws IOException {
+        String data = new String(Files.readAllBytes(new File(fileToRead).toPath()));
+        return data.substring(data.indexOf(BEFORE) + BEFORE.length(), data.lastIndexOf(AFTER));
+    }
+
     public synchronized static void writeToFile(String fileToWrite, String data) {
         try (BufferedWriter bufwriter = new BufferedWriter(new FileWriter(fileToWrite))) {
             bufwriter.write(data);
@@ -15,7 +15,6 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.apache.commons.io.FileUtils;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
@@ -70,25 +69,19 @@ public class ReportUtils {
 
     public static Boolean takeScreenshot(PlaywrightDriverCreation playwrightdriver,WebDriverCreation mobileDriver, String imgSrc) {
         try {
-            if(playwrightdriver!=null)
-           {
-            File scrFile = playwrightdriver.createScreenShot();
-            if (scrFile != null) {
-                File imgFile = new File(FilePath.getCurrentResultsPath() + imgSrc);
-                FileUtils.copyFile(scrFile, imgFile, true);
-                scrFile.delete();
-                return true;
-            }
-           }
-            else if(mobileDriver!=null)
-            {
+            File imgFile = new File(FilePath.getCurrentResultsPath() + imgSrc);
+            if (playwrightdriver != null) {
+                byte[] image = playwrightdriver.captureScreenShot();
+                if (image != null) {
+                    ScreenshotWriter.write(image, imgFile);
+                    return true;
+                }
+            } else if (mobileDriver != null) {
                 File scrFile = mobileDriver.createScreenShot();
-            if (scrFile != null) {
-                File imgFile = new File(FilePath.getCurrentResultsPath() + imgSrc);
-                FileUtils.copyFile(scrFile, imgFile, true);
-                scrFile.delete();
-                return true;
-            }
+                if (scrFile != null) {
+                    ScreenshotWriter.move(scrFile, imgFile);
+                    return true;
+                }
             }
         } catch (Exception ex) {
             Logger.getLogger(ReportUtils.class.getName()).log(Level.SEVERE, null, ex);
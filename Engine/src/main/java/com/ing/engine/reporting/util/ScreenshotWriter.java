@@ -0,0 +1,167 @@
+package com.ing.engine.reporting.util;
+
+import com.ing.datalib.settings.RunSettings;
+import com.ing.engine.core.Control;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Writes the captured screenshots to the report folder in the background.
+ * <br>
+ * The step thread only captures the image, the (optional) downscale, JPEG
+ * encoding and the disk write run on the writer thread. The queue is bounded
+ * (<code>screenshot.queueSize</code>, default 64), when it is full the step
+ * thread writes the image itself.
+ * <br>
+ * Readers of a screenshot file (e.g. the handlers uploading it) must call
+ * {@link #await(String)} before reading it.
+ *
+ */
+public final class ScreenshotWriter {
+
+    private static final AsyncFileWriter WRITER = new AsyncFileWriter("screenshot-writer",
+            Integer.getInteger("screenshot.queueSize", 64));
+
+    private ScreenshotWriter() {
+    }
+
+    /**
+     * queues the captured image to be written to the target file
+     *
+     * @param image the captured image (PNG)
+     * @param target the screenshot file in the report folder
+     */
+    public static void write(byte[] image, File target) {
+        write(() -> image, target);
+    }
+
+    /**
+     * queues the image file to be moved to the target file, the source is
+     * deleted once written
+     *
+     * @param source the captured image file (PNG)
+     * @param target the screenshot file in the report folder
+     */
+    public static void move(File source, File target) {
+        write(() -> {
+            try {
+                return Files.readAllBytes(source.toPath());
+            } finally {
+                source.delete();
+            }
+        }, target);
+    }
+
+    private static void write(AsyncFileWriter.Content image, File target) {
+        double scale = getScale();
+        int quality = getQuality();
+        WRITER.write(target, () -> encode(image.get(), scale, quality));
+    }
+
+    /**
+     * waits until the screenshot is written, returns immediately if the file
+     * is not queued
+     *
+     * @param file the screenshot file
+     */
+    public static void await(String file) {
+        WRITER.await(file);
+    }
+
+    /**
+     * waits until all the queued screenshots are written
+     */
+    public static void flush() {
+        WRITER.flush();
+    }
+
+    /**
+     * @return the file extension of the screenshots as per the run settings
+     */
+    public static String getExtension() {
+        return getQuality() > 0 ? ".jpg" : ".png";
+    }
+
+    static byte[] encode(byte[] image, double scale, int quality) throws IOException {
+        boolean resize = scale > 0 && scale < 1;
+        boolean jpeg = quality > 0;
+        if (!resize && !jpeg) {
+            return image;
+        }
+        BufferedImage img = ImageIO.read(new ByteArrayInputStream(image));
+        if (img == null) {
+            return image;
+        }
+        int width = resize ? Math.max(1, (int) Math.round(img.getWidth() * scale)) : img.getWidth();
+        int height = resize ? Math.max(1, (int) Math.round(img.getHeight() * scale)) : img.getHeight();
+        BufferedImage out = new BufferedImage(width, height,
+                jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(img, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (jpeg) {
+            writeJpeg(out, Math.min(quality, 100) / 100f, bytes);
+        } else {
+            ImageIO.write(out, "png", bytes);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeJpeg(BufferedImage img, float quality, ByteArrayOutputStream bytes) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            ImageIO.write(img, "png", bytes);
+            return;
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static RunSettings getRunSettings() {
+        return Control.exe != null ? Control.exe.getExecSettings().getRunSettings() : null;
+    }
+
+    private static double getScale() {
+        RunSettings settings = getRunSettings();
+        try {
+            return settings != null ? settings.getScreenShotScale() : 1;
+        } catch (NumberFormatException ex) {
+            return 1;
+        }
+    }
+
+    private static int getQuality() {
+        RunSettings settings = getRunSettings();
+        try {
+            return settings != null ? settings.getScreenShotQuality() : 0;
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
@@ -16,13 +16,26 @@ import java.util.logging.Logger;
 public class AnnontationUtil {
 
     public static void detect(AnnotationDetector ANNOTATION_DETECTOR, String... packageNames) {
+        detect(ANNOTATION_DETECTOR, null, packageNames);
+    }
+
+    /**
+     * @param ANNOTATION_DETECTOR the detector
+     * @param engineAnnotations reports the annotations of the engine instead
+     * of scanning the engine, null to scan
+     * @param packageNames the engine packages to scan
+     */
+    public static void detect(AnnotationDetector ANNOTATION_DETECTOR, Runnable engineAnnotations,
+            String... packageNames) {
         try {
             String libLocation = "lib" + File.separator;
             File[] externalCommands = new File(libLocation + "commands").listFiles();
             if (externalCommands != null) {
                 ANNOTATION_DETECTOR.detect(externalCommands);
             }
-            if (SystemDefaults.getClassesFromJar.get()) {
+            if (engineAnnotations != null) {
+                engineAnnotations.run();
+            } else if (SystemDefaults.getClassesFromJar.get()) {
                 ANNOTATION_DETECTOR.detect(new File(FilePath.getEngineJarPath()));
             } else {
                 ANNOTATION_DETECTOR.detect(packageNames);
@@ -3,6 +3,7 @@ package com.ing.engine.support.methodInf;
 
 import com.ing.datalib.component.TestStep;
 import com.ing.engine.support.AnnontationUtil;
+import com.ing.engine.support.reflect.CommandIndex;
 import com.ing.engine.support.reflect.Discovery;
 import com.ing.engine.support.reflect.MethodExecutor;
 import eu.infomas.annotation.AnnotationDetector;
@@ -46,7 +47,11 @@ public class MethodInfoManager {
     public static void load() {
         MethodExecutor.init();
         methodInfoMap.clear();
-        AnnontationUtil.detect(ANNOTATION_DETECTOR, "com.ing.engine.commands");
+        CommandIndex index = CommandIndex.get();
+        AnnontationUtil.detect(ANNOTATION_DETECTOR, index == null ? null
+                : () -> index.getActions().forEach((className, methods)
+                        -> methods.forEach(methodName -> loadMethod(className, methodName))),
+                "com.ing.engine.commands");
     }
     
     private static void loadMethod(String className, String methodName) {
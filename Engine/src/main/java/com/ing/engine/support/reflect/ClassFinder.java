@@ -15,8 +15,11 @@ import java.net.URLClassLoader;
 import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.logging.Level;
@@ -154,10 +157,116 @@ public class ClassFinder {
         return classes;
     }
 
+    /**
+     * lists the top level classes of the package and its sub packages without
+     * loading them
+     *
+     * @param pckgname the package name
+     * @return the class names
+     * @throws IOException if a directory or jar cannot be read
+     */
+    static Set<String> getClassNames(String pckgname) throws IOException {
+        Set<String> names = new HashSet<>();
+        String path = pckgname.replace('.', '/');
+        ClassLoader cld = Thread.currentThread().getContextClassLoader();
+        Enumeration<URL> resources = cld.getResources(path);
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            if ("jar".equals(url.getProtocol())) {
+                String jar = url.getPath().substring("file:".length(), url.getPath().indexOf("!/"));
+                names.addAll(getJarClassNames(URLDecoder.decode(jar, "UTF-8"), path.isEmpty() ? "" : path + "/"));
+            } else {
+                listClassNames(new File(URLDecoder.decode(url.getPath(), "UTF-8")),
+                        pckgname.isEmpty() ? "" : pckgname + '.', names);
+            }
+        }
+        return names;
+    }
+
+    private static void listClassNames(File directory, String prefix, Set<String> names) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                listClassNames(file, prefix + name + '.', names);
+            } else if (name.endsWith(".class") && name.indexOf('$') < 0) {
+                names.add(prefix + name.substring(0, name.length() - 6));
+            }
+        }
+    }
+
+    private static Set<String> getJarClassNames(String jf, String path) throws IOException {
+        Set<String> names = new HashSet<>();
+        try (JarFile jarFile = new JarFile(jf)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.startsWith(path) && name.endsWith(".class") && name.indexOf('$') < 0
+                        && !name.startsWith("META-INF/") && !name.endsWith("module-info.class")) {
+                    names.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @return true if the index knows all the classes found for the package,
+     * else it was written by a partial compile and the package is scanned
+     */
+    private static boolean isCurrent(CommandIndex index, String pkg, Set<String> classNames) {
+        if (index.isCurrent(classNames)) {
+            return true;
+        }
+        LOG.log(Level.INFO, "The command index is out of date for [{0}], scanning it", pkg);
+        return false;
+    }
+
+    /**
+     * loads the command classes of the packages the index covers from the
+     * index, and scans the other packages and the ones the index is out of
+     * date for
+     *
+     * @param index the command index
+     * @param packageName the packages
+     * @return the command classes
+     */
+    static List<Class<?>> getClasses(CommandIndex index, String... packageName) {
+        List<Class<?>> classes = new ArrayList<>();
+        List<String> scanned = new ArrayList<>();
+        for (String pkg : packageName) {
+            if (index.covers(pkg) && isCurrent(index, pkg, getClassNamesQuietly(pkg))) {
+                classes.addAll(index.loadClasses(pkg));
+            } else {
+                scanned.add(pkg);
+            }
+        }
+        classes.addAll(getClassesForPackage(scanned.toArray(new String[0])));
+        return classes;
+    }
+
+    private static Set<String> getClassNamesQuietly(String pkg) {
+        try {
+            return getClassNames(pkg);
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Couldn't list the classes of [" + pkg + "]", ex);
+            return Collections.singleton("");
+        }
+    }
+
     public static List<Class<?>> getClasses(String... packageName)
             throws ClassNotFoundException, IOException {
         List<Class<?>> classes = new ArrayList<>();
-        if (SystemDefaults.getClassesFromJar.get()) {
+        CommandIndex index = CommandIndex.get();
+        if (index != null && SystemDefaults.getClassesFromJar.get()
+                && isCurrent(index, FilePath.getEngineJarPath(), getJarClassNames(FilePath.getEngineJarPath(), "com/ing/"))) {
+            classes.addAll(index.loadClasses(""));
+        } else if (index != null && !SystemDefaults.getClassesFromJar.get()) {
+            classes.addAll(getClasses(index, packageName));
+        } else if (SystemDefaults.getClassesFromJar.get()) {
             classes.addAll(checkJarFile(FilePath.getEngineJarPath(), new String[]{""}));
         } else {
             classes.addAll(getClassesForPackage(packageName));
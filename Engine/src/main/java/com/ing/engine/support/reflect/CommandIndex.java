@@ -0,0 +1,178 @@
+package com.ing.engine.support.reflect;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Command classes and <code>@Action</code> methods of the engine, written at
+ * build time by {@link CommandIndexProcessor}.
+ * <br>
+ * When the index is on the classpath the engine commands are loaded from it
+ * instead of scanning the engine jar or classes, only external commands and
+ * the command packages the index has no class of are still scanned. Start with
+ * <code>-Dengine.commandIndex=false</code> to always scan.
+ * <br>
+ * The index also lists the other classes of the engine, so that a package
+ * with a class file the index doesn't know (e.g. after a partial compile) is
+ * scanned instead of trusted.
+ * <br>
+ * One line per command class: <code>className:action1,action2</code>, and
+ * one line per other class: <code>-className</code>.
+ *
+ */
+public final class CommandIndex {
+
+    private static final Logger LOG = Logger.getLogger(CommandIndex.class.getName());
+
+    static final String RESOURCE = "META-INF/ingenious/commands.idx";
+
+    private static final String OTHER = "-";
+
+    private static CommandIndex instance;
+    private static boolean loaded;
+
+    private final Map<String, List<String>> actions;
+    private final Set<String> others;
+
+    CommandIndex(Map<String, List<String>> actions, Set<String> others) {
+        this.actions = actions;
+        this.others = others;
+    }
+
+    /**
+     * @return the index of the engine, null if there is none or it is
+     * disabled
+     */
+    public static synchronized CommandIndex get() {
+        if (!Boolean.parseBoolean(System.getProperty("engine.commandIndex", "true"))) {
+            return null;
+        }
+        if (!loaded) {
+            loaded = true;
+            try (InputStream in = CommandIndex.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+                if (in != null) {
+                    instance = read(in);
+                }
+            } catch (IOException ex) {
+                LOG.log(Level.WARNING, "Could not read the command index, scanning instead", ex);
+            }
+        }
+        return instance;
+    }
+
+    static CommandIndex read(InputStream in) throws IOException {
+        Map<String, List<String>> actions = new LinkedHashMap<>();
+        Set<String> others = new HashSet<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (line.startsWith(OTHER)) {
+                others.add(line.substring(OTHER.length()));
+                continue;
+            }
+            int sep = line.indexOf(':');
+            if (sep < 0 || sep == line.length() - 1) {
+                actions.put(sep < 0 ? line : line.substring(0, sep), Collections.emptyList());
+            } else {
+                actions.put(line.substring(0, sep), Arrays.asList(line.substring(sep + 1).split(",")));
+            }
+        }
+        return new CommandIndex(actions, others);
+    }
+
+    static String format(String className, Collection<String> methods) {
+        return className + ":" + String.join(",", methods);
+    }
+
+    static String formatOther(String className) {
+        return OTHER + className;
+    }
+
+    /**
+     * @return the classes of the index that are not commands
+     */
+    Set<String> getOthers() {
+        return Collections.unmodifiableSet(others);
+    }
+
+    /**
+     * @param classNames the classes found on the classpath
+     * @return true if the index knows all the classes, as commands or not
+     */
+    public boolean isCurrent(Collection<String> classNames) {
+        for (String className : classNames) {
+            if (!actions.containsKey(className) && !others.contains(className)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the action names of each command class
+     */
+    public Map<String, List<String>> getActions() {
+        return Collections.unmodifiableMap(actions);
+    }
+
+    /**
+     * loads the indexed command classes of the packages
+     *
+     * @param packages the packages, an empty name for all
+     * @return the command classes
+     */
+    public List<Class<?>> loadClasses(String... packages) {
+        List<Class<?>> classes = new ArrayList<>();
+        for (String className : actions.keySet()) {
+            if (inPackages(className, packages)) {
+                try {
+                    classes.add(Class.forName(className));
+                } catch (ClassNotFoundException | LinkageError ex) {
+                    LOG.log(Level.WARNING, "Indexed command [" + className + "] could not be loaded", ex);
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * @param pkg the package
+     * @return true if the index has command classes in the package or its sub
+     * packages
+     */
+    public boolean covers(String pkg) {
+        for (String className : actions.keySet()) {
+            if (inPackages(className, pkg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean inPackages(String className, String... packages) {
+        for (String pkg : packages) {
+            if (pkg.isEmpty() || className.startsWith(pkg + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
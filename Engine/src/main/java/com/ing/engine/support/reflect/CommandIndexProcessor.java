@@ -0,0 +1,157 @@
+package com.ing.engine.support.reflect;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes the {@link CommandIndex} of the engine at compile time: the command
+ * classes (subclasses of <code>Command</code>) and the <code>@Action</code>
+ * methods they declare.
+ * <br>
+ * Runs in the default compile of the Engine module, it is compiled on its own
+ * in an earlier execution of the compiler plugin.
+ * <br>
+ * An incremental compile only sees the recompiled classes, so the index
+ * written by the previous compile is merged in: its entries are kept unless
+ * the class was recompiled or doesn't exist anymore. The other top level
+ * classes are listed too, see {@link CommandIndex#isCurrent}.
+ *
+ */
+@SupportedAnnotationTypes("*")
+public class CommandIndexProcessor extends AbstractProcessor {
+
+    private static final String COMMAND = "com.ing.engine.commands.browser.Command";
+    private static final String ACTION = "com.ing.engine.support.methodInf.Action";
+
+    private final Map<String, Set<String>> index = new TreeMap<>();
+    private final Set<String> others = new TreeSet<>();
+    private final Set<String> seen = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            write();
+            return false;
+        }
+        TypeElement command = processingEnv.getElementUtils().getTypeElement(COMMAND);
+        if (command != null) {
+            TypeMirror commandType = processingEnv.getTypeUtils().erasure(command.asType());
+            for (Element element : roundEnv.getRootElements()) {
+                collect(element, commandType);
+            }
+        }
+        return false;
+    }
+
+    private void collect(Element element, TypeMirror commandType) {
+        if (!element.getKind().isClass() && !element.getKind().isInterface()) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+        seen.add(name);
+        if (element.getKind() == ElementKind.CLASS
+                && processingEnv.getTypeUtils().isSubtype(processingEnv.getTypeUtils().erasure(type.asType()), commandType)) {
+            Set<String> actions = index.computeIfAbsent(name, k -> new TreeSet<>());
+            for (Element member : type.getEnclosedElements()) {
+                if (member.getKind() == ElementKind.METHOD && isAction(member)) {
+                    actions.add(member.getSimpleName().toString());
+                }
+            }
+        } else if (type.getNestingKind() == NestingKind.TOP_LEVEL) {
+            others.add(name);
+        }
+        for (Element member : type.getEnclosedElements()) {
+            collect(member, commandType);
+        }
+    }
+
+    private static boolean isAction(Element method) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(ACTION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * adds the entries of the previous index whose classes were not
+     * recompiled and still exist
+     */
+    private void merge() {
+        CommandIndex previous;
+        try (InputStream in = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                CommandIndex.RESOURCE).openInputStream()) {
+            previous = CommandIndex.read(in);
+        } catch (IOException ex) {
+            return;
+        }
+        for (Map.Entry<String, List<String>> entry : previous.getActions().entrySet()) {
+            if (isKept(entry.getKey())) {
+                index.putIfAbsent(entry.getKey(), new TreeSet<>(entry.getValue()));
+            }
+        }
+        for (String other : previous.getOthers()) {
+            if (isKept(other)) {
+                others.add(other);
+            }
+        }
+    }
+
+    private boolean isKept(String className) {
+        return !seen.contains(className)
+                && processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) != null;
+    }
+
+    private void write() {
+        if (index.isEmpty() && others.isEmpty()) {
+            return;
+        }
+        merge();
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    CommandIndex.RESOURCE);
+            try (Writer writer = resource.openWriter()) {
+                for (Map.Entry<String, Set<String>> entry : index.entrySet()) {
+                    writer.write(CommandIndex.format(entry.getKey(), entry.getValue()));
+                    writer.write('\n');
+                }
+                for (String other : others) {
+                    writer.write(CommandIndex.formatOther(other));
+                    writer.write('\n');
+                }
+            }
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "Indexed " + index.size() + " command classes in " + CommandIndex.RESOURCE);
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Could not write " + CommandIndex.RESOURCE + ": " + ex.getMessage());
+        }
+    }
+}
@@ -1,66 +1,144 @@
-
 package com.ing.engine.support.reflect;
 
 import com.ing.engine.core.CommandControl;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+/**
+ * Dispatches the action of a step to its command class.
+ * <br>
+ * The dispatch table is built once in {@link #init()}: every public no
+ * argument void method of the discovered command classes is mapped to an
+ * {@link Invoker} generated with {@link LambdaMetafactory}, which creates the
+ * command and calls the action like a direct call would. When several classes
+ * have the same method the first discovered class wins.
+ *
+ */
 public class MethodExecutor {
-    
-    private static final Map<String, MethodHandle> CACHE = new HashMap<>();
-    private static final Map<MethodHandle, Class<?>> CACHE_CLASS = new HashMap<>();
+
+    private static final Logger LOG = Logger.getLogger(MethodExecutor.class.getName());
+
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(void.class, CommandControl.class);
+
+    private static volatile Map<String, Invoker> table = Collections.emptyMap();
+
+    /**
+     * creates the command of the step and runs the action
+     */
+    @FunctionalInterface
+    interface Invoker {
+
+        void invoke(CommandControl cc) throws Throwable;
+    }
 
     public static void init() {
-        CACHE.clear();
-        CACHE_CLASS.clear();
         Discovery.discoverCommands();
+        table = build(Discovery.getClassList());
     }
-    
+
     public static boolean executeMethod(String mName, CommandControl inst) throws Throwable {
-        MethodHandle handle = getHandle(mName);
-        if (handle != null) {
-            handle.invoke(CACHE_CLASS.get(handle).getConstructor(
-                    CommandControl.class).newInstance(inst));
-            
+        Invoker invoker = table.get(mName);
+        if (invoker != null) {
+            invoker.invoke(inst);
             return true;
         }
         return false;
     }
-    
-    private static MethodHandle makeHandle(String mName) {
-        for (Class<?> c : Discovery.getClassList()) {
-            MethodHandle handle = getHandle(c, mName);
-            if (handle != null) {
-                CACHE.put(mName, handle);
-                CACHE_CLASS.put(handle, c);
-                return handle;
+
+    /**
+     * @param classes the command classes, in discovery order
+     * @return the invoker of each action
+     */
+    static Map<String, Invoker> build(List<Class<?>> classes) {
+        Map<String, Invoker> invokers = new HashMap<>();
+        for (Class<?> c : classes) {
+            if (Modifier.isAbstract(c.getModifiers()) || !Modifier.isPublic(c.getModifiers())) {
+                continue;
+            }
+            MethodHandles.Lookup lookup = null;
+            Function<CommandControl, Object> factory = null;
+            for (Method method : c.getMethods()) {
+                if (!isAction(method) || invokers.containsKey(method.getName())) {
+                    continue;
+                }
+                try {
+                    if (factory == null) {
+                        // the invokers are defined next to the command, user defined commands have their own loader
+                        lookup = MethodHandles.privateLookupIn(c, MethodHandles.lookup());
+                        factory = factory(lookup, c);
+                    }
+                    invokers.put(method.getName(), invoker(lookup, c, method, factory));
+                } catch (NoSuchMethodException ex) {
+                    // not a command class
+                    break;
+                } catch (Throwable ex) {
+                    LOG.log(Level.WARNING, "Could not bind [" + c.getName() + "." + method.getName() + "]", ex);
+                }
             }
         }
-        return null;
+        return new ConcurrentHashMap<>(invokers);
     }
-    
-    private static MethodHandle getHandle(Class<?> c, String mName) {
+
+    private static boolean isAction(Method method) {
+        return method.getParameterCount() == 0 && method.getReturnType() == void.class
+                && !Modifier.isStatic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<CommandControl, Object> factory(MethodHandles.Lookup lookup, Class<?> c) throws Throwable {
+        MethodHandle constructor = lookup.findConstructor(c, CONSTRUCTOR);
         try {
-            return MethodHandles.lookup().findVirtual(c, mName,
-                    MethodType.methodType(void.class
-                    ));
-        } catch (Exception ex) {
-            return null;
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), constructor, constructor.type());
+            return (Function<CommandControl, Object>) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            LOG.log(Level.FINE, "Falling back to a method handle for " + c.getName(), ex);
+            return cc -> invokeUnchecked(constructor, cc);
         }
     }
-    
-    private static boolean cached(String mName) {
-        return CACHE.containsKey(mName) && CACHE_CLASS.containsKey(CACHE.get(mName));
+
+    @SuppressWarnings("unchecked")
+    private static Invoker invoker(MethodHandles.Lookup lookup, Class<?> c, Method method,
+            Function<CommandControl, Object> factory) throws Throwable {
+        MethodHandle action = lookup.unreflect(method);
+        Consumer<Object> call;
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(Consumer.class),
+                    MethodType.methodType(void.class, Object.class), action, MethodType.methodType(void.class, c));
+            call = (Consumer<Object>) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            LOG.log(Level.FINE, "Falling back to a method handle for " + method, ex);
+            call = command -> invokeUnchecked(action, command);
+        }
+        Consumer<Object> target = call;
+        return cc -> target.accept(factory.apply(cc));
     }
-    
-    private static MethodHandle getHandle(String mName) {
-        if (cached(mName)) {
-            return CACHE.get(mName);
-        } else {
-            return makeHandle(mName);
+
+    // rethrows what the handle throws as is, like the generated invokers do
+    private static Object invokeUnchecked(MethodHandle handle, Object arg) {
+        try {
+            return handle.invoke(arg);
+        } catch (Throwable ex) {
+            throw MethodExecutor.<RuntimeException>sneakyThrow(ex);
         }
     }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T sneakyThrow(Throwable ex) throws T {
+        throw (T) ex;
+    }
 }
@@ -2,9 +2,11 @@
 package com.ing.engine.util.data;
 
 import com.ing.engine.constants.FilePath;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -19,6 +21,8 @@ public class KeyMap {
     public static final Pattern USER_VARS = Pattern.compile("%(.+?)%");
     
     private static Map<Object,Object> systemVars;
+
+    private static volatile Map<String, String> envSnapshot;
     
     public static Map<Object, Object> getSystemVars(){
         if(systemVars==null){
@@ -77,25 +81,63 @@ public class KeyMap {
     }
 
     /**
+     * resolves the pattern against the system properties and environment
+     * variables snapshot, keys that are not found are replaced by their name
      *
      * @param in input string
      * @param p pattern to match
      * @return resolved string
+     * @see #getEnvSnapshot()
      */
     public static String replaceKeys(String in, Pattern p) {
-        String properties = System.getProperties().toString().replace("{", "").replace("}", "");
-        Map <String,String> props = new HashMap<String, String>();
-        for (String prop : properties.split(",")){
-          if(prop.split("=").length == 2)
-          props.put(prop.split("=")[0].trim(), prop.split("=")[1].trim());
+        return replaceKeys(in, p, false, 1, getEnvSnapshot());
+    }
+
+    /**
+     * immutable snapshot of the system properties and environment variables,
+     * system properties take precedence over environment variables.
+     * <br>
+     * built once per run (see {@link #snapshotEnvVars()}) and lazily if no run
+     * has taken one yet
+     *
+     * @return the snapshot
+     */
+    public static Map<String, String> getEnvSnapshot() {
+        Map<String, String> snapshot = envSnapshot;
+        if (snapshot == null) {
+            synchronized (KeyMap.class) {
+                if (envSnapshot == null) {
+                    envSnapshot = buildEnvSnapshot();
+                }
+                snapshot = envSnapshot;
+            }
         }
-        String environmentVars = System.getenv().toString().replace("{", "").replace("}", "");
-        Map <String,String> envs = new HashMap<String, String>();
-        for (String env : environmentVars.split(",")){
-          if(env.split("=").length == 2)
-          envs.put(env.split("=")[0].trim(), env.split("=")[1].trim());
+        return snapshot;
+    }
+
+    /**
+     * takes a fresh snapshot of the system properties and environment
+     * variables
+     */
+    public static void snapshotEnvVars() {
+        envSnapshot = buildEnvSnapshot();
+    }
+
+    /**
+     * drops the current snapshot, the next lookup builds a new one. Call it
+     * whenever system properties are overridden during a run
+     */
+    public static void invalidateEnvSnapshot() {
+        envSnapshot = null;
+    }
+
+    private static Map<String, String> buildEnvSnapshot() {
+        Map<String, String> snapshot = new HashMap<>(System.getenv());
+        Properties props = System.getProperties();
+        for (String key : props.stringPropertyNames()) {
+            snapshot.put(key, props.getProperty(key));
         }
-        return replaceKeys(in, p, false, 1, props, envs);
+        return Collections.unmodifiableMap(snapshot);
     }
 
     public static String resolveSystemVars(String in) {
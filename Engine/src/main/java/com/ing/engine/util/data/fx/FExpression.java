@@ -0,0 +1,247 @@
+package com.ing.engine.util.data.fx;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <code>=Fn(...)</code> expression compiled once into a tree of calls, with
+ * the {@link Functions} methods bound as method handles.
+ * <br>
+ * Arguments are split on the commas outside quotes and outside nested
+ * <code>=Fn(...)</code> calls. Calls of pure functions with constant
+ * arguments are evaluated when compiled, so e.g.
+ * <code>=Concat(a,=ToUpper(b))</code> costs a cache lookup per step. The
+ * compiled expressions are immutable and shared by all threads, the
+ * <code>fparser.cacheSize</code> (default 1024) most recently used ones are
+ * cached.
+ *
+ */
+final class FExpression {
+
+    private static final Logger LOG = Logger.getLogger(FExpression.class.getName());
+
+    /**
+     * functions which always return the same value for the same arguments
+     */
+    private static final Set<String> PURE = new HashSet<>(Arrays.asList("Concat", "ToLower", "ToUpper", "Trim",
+            "getLength", "getOccurance", "Round", "Pow", "Min", "Max"));
+
+    private static final Map<String, MethodHandle> METHODS = bind(new Functions());
+
+    private static final int CACHE_SIZE = Integer.getInteger("fparser.cacheSize", 1024);
+
+    /**
+     * compiled expressions, least recently used dropped first
+     */
+    private static final Map<String, FExpression> CACHE = new LinkedHashMap<String, FExpression>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FExpression> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private interface Node {
+
+        String value();
+    }
+
+    private static final class Constant implements Node {
+
+        private final String value;
+
+        private Constant(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String value() {
+            return value;
+        }
+    }
+
+    private static final class Call implements Node {
+
+        private final String name;
+        private final MethodHandle method;
+        private final Node[] args;
+
+        private Call(String name, MethodHandle method, Node[] args) {
+            this.name = name;
+            this.method = method;
+            this.args = args;
+        }
+
+        @Override
+        public String value() {
+            String[] values = new String[args.length];
+            for (int i = 0; i < args.length; i++) {
+                values[i] = args[i].value();
+            }
+            try {
+                return String.valueOf((Object) method.invokeExact(values));
+            } catch (Throwable ex) {
+                LOG.log(Level.SEVERE, "Error in function " + name, ex);
+                return String.valueOf((Object) null);
+            }
+        }
+
+        private boolean isConstant() {
+            if (!PURE.contains(name)) {
+                return false;
+            }
+            for (Node arg : args) {
+                if (!(arg instanceof Constant)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final Node root;
+
+    private FExpression(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @param expression the expression, without the leading <code>=</code>
+     * @return the compiled expression, cached for the run
+     */
+    static FExpression of(String expression) {
+        synchronized (CACHE) {
+            FExpression cached = CACHE.get(expression);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        FExpression compiled = compile(expression);
+        synchronized (CACHE) {
+            FExpression cached = CACHE.putIfAbsent(expression, compiled);
+            return cached != null ? cached : compiled;
+        }
+    }
+
+    static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    static boolean isFunction(String name) {
+        return METHODS.containsKey(name);
+    }
+
+    /**
+     * @return the result of the expression, "null" if the function is unknown
+     * or fails
+     */
+    String eval() {
+        return root.value();
+    }
+
+    private static Map<String, MethodHandle> bind(Functions functions) {
+        Map<String, MethodHandle> methods = new HashMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        for (Method m : Functions.class.getDeclaredMethods()) {
+            if (Arrays.equals(m.getParameterTypes(), new Class<?>[]{String[].class})
+                    && m.getReturnType() == Object.class) {
+                try {
+                    methods.put(m.getName(), lookup.unreflect(m).asFixedArity().bindTo(functions));
+                } catch (IllegalAccessException ex) {
+                    LOG.log(Level.SEVERE, ex.getMessage(), ex);
+                }
+            }
+        }
+        return Collections.unmodifiableMap(methods);
+    }
+
+    static FExpression compile(String expression) {
+        return new FExpression(call(expression));
+    }
+
+    private static Node call(String expression) {
+        int open = expression.indexOf('(');
+        if (open < 0) {
+            throw new IllegalArgumentException("Invalid function expression [" + expression + "]");
+        }
+        String name = expression.substring(0, open);
+        List<Node> args = new ArrayList<>();
+        String rest = expression.substring(open);
+        if (rest.length() >= 2) {
+            for (String arg : split(rest.substring(1, rest.lastIndexOf(')')))) {
+                args.add(arg(arg));
+            }
+        }
+        MethodHandle method = METHODS.get(name);
+        if (method == null) {
+            LOG.log(Level.SEVERE, "Unknown function {0}", name);
+            return new Constant(String.valueOf((Object) null));
+        }
+        Call call = new Call(name, method, args.toArray(new Node[0]));
+        return call.isConstant() ? new Constant(call.value()) : call;
+    }
+
+    private static Node arg(String arg) {
+        arg = unquote(arg);
+        if (arg.startsWith("=")) {
+            int open = arg.indexOf('(');
+            if (open > 0 && isFunction(arg.substring(1, open))) {
+                return call(arg.substring(1));
+            }
+        }
+        return new Constant(arg);
+    }
+
+    /**
+     * splits on the commas outside quotes, and outside the parentheses of
+     * arguments that are nested calls
+     */
+    static List<String> split(String params) {
+        List<String> args = new ArrayList<>();
+        boolean quoted = false;
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < params.length(); i++) {
+            char c = params.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && isNestedCall(params, start)) {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                }
+            }
+            if (c == ',' && !quoted && depth == 0) {
+                args.add(params.substring(start, i));
+                start = i + 1;
+            }
+        }
+        args.add(params.substring(start));
+        return args;
+    }
+
+    private static boolean isNestedCall(String params, int start) {
+        return params.startsWith("=", start) || params.startsWith("\"=", start);
+    }
+
+    private static String unquote(String arg) {
+        if (arg.length() > 1 && arg.startsWith("\"") && arg.endsWith("\"")) {
+            return arg.substring(1, arg.length() - 1);
+        }
+        return arg;
+    }
+}
@@ -7,9 +7,13 @@ package com.ing.engine.util.data.fx;
  */
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
@@ -17,10 +21,24 @@ import javax.script.ScriptException;
 public class FParser {
 
     private static final Logger LOG = Logger.getLogger(FParser.class.getName());
-    private final static String RX = "(?x),(?=([^\"] * \" [^\"] * \" )* [^\"] * $ )";
 
     public static List<String> FUNCTIONS;
-    private static ScriptEngine JS;
+    /**
+     * script engines are not thread safe, each worker thread gets its own
+     */
+    private static final ThreadLocal<ScriptEngine> JS = ThreadLocal.withInitial(FParser::getJSEngine);
+    private static final int JS_CACHE_SIZE = Integer.getInteger("fparser.jsCacheSize", 256);
+    /**
+     * compiled scripts of the engine of the thread, least recently used
+     * dropped first
+     */
+    private static final ThreadLocal<Map<String, CompiledScript>> JS_COMPILED = ThreadLocal.withInitial(
+            () -> new LinkedHashMap<String, CompiledScript>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+            return size() > JS_CACHE_SIZE;
+        }
+    });
     private static Class<?> FX;
 
     static {
@@ -32,40 +50,50 @@ public class FParser {
     }
 
     /**
-     * eval expressions using custom parser and Functions from {@link Functions}
+     * eval expressions using custom parser and Functions from {@link Functions},
+     * the expression is compiled on first use and cached for the run
      *
      * @param s expression
      * @return result
      */
     public static Object eval(String s) {
-
-        String func = FN(s);
-        s = s.replaceFirst(func, "");
-        String[] params = {};
-        if (s.length() >= 2) {
-            String param = s.substring(1, s.lastIndexOf(")"));
-            params = param.split(RX, -1);
-        }
-        return String.valueOf(EXE(func, params));
+        return FExpression.of(s).eval();
     }
 
     /**
-     * eval expressions using javascript engine
+     * eval expressions using javascript engine, the script is compiled once
+     * per thread when the engine supports it
      *
      * @param script expression/script to eval.
      * @return result
      */
     public static String evaljs(String script) {
         try {
-            return JS.eval("JSON.stringify(" + script + ")").toString();
+            ScriptEngine js = JS.get();
+            if (js instanceof Compilable) {
+                Map<String, CompiledScript> compiled = JS_COMPILED.get();
+                CompiledScript cs = compiled.get(script);
+                if (cs == null) {
+                    cs = ((Compilable) js).compile("JSON.stringify(" + script + ")");
+                    compiled.put(script, cs);
+                }
+                return cs.eval().toString();
+            }
+            return js.eval("JSON.stringify(" + script + ")").toString();
         } catch (ScriptException ex) {
            LOG.log(Level.SEVERE, ex.getMessage(), ex);
         }
         return "undefined";
     }
 
+    /**
+     * drops the compiled expressions, called at the start of a run
+     */
+    public static void clearCache() {
+        FExpression.clearCache();
+    }
+
     private static void init() {
-        JS = getJSEngine();
         try {
             FX = getClazz();
             FUNCTIONS = new ArrayList<>();
@@ -88,56 +116,8 @@ public class FParser {
         return null;
     }
 
-    private static Object EXE(String func, String[] params) {
-        try {
-            List<String> p = new ArrayList<>();
-            for (String param : params) {
-                p.add(RES(param));
-            }
-            Method actn = FX.getDeclaredMethod(func, String[].class);
-            return actn.invoke(FX.newInstance(),
-                    new Object[]{p.toArray(new String[params.length])});
-
-        } catch (Exception ex) {
-            LOG.log(Level.SEVERE, ex.getMessage(), ex);
-        }
-        return null;
-    }
-
     private static Class<?> getClazz() throws ClassNotFoundException {
         return Class.forName(Functions.class.getName());
     }
 
-    private static String RES(String arg) {
-        arg = remQ(arg);
-        if (arg.startsWith("=")) {
-            if (isF(FN(arg.substring(1)))) {
-                return String.valueOf(eval(arg.substring(1)));
-            }
-        }
-        return arg;
-    }
-
-    private static String FN(String s) {
-        return s.substring(0, s.indexOf("("));
-    }
-
-    private static boolean isF(String arg) {
-        try {
-            Method m = FX.getDeclaredMethod(arg, String[].class);
-            return m != null;
-        } catch (NoSuchMethodException | SecurityException ex) {
-           LOG.log(Level.SEVERE, ex.getMessage(), ex);
-            return false;
-        }
-    }
-
-    private static String remQ(String arg) {
-        if (arg.startsWith("\"") && arg.endsWith("\"")) {
-            return arg.substring(1, arg.lastIndexOf("\""));
-        } else {
-            return arg;
-        }
-    }
-
 }
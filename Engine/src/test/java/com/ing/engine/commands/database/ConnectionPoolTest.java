@@ -0,0 +1,85 @@
+package com.ing.engine.commands.database;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class ConnectionPoolTest {
+
+    private final AtomicInteger opened = new AtomicInteger();
+
+    private Connection connection(AtomicBoolean valid) {
+        opened.incrementAndGet();
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isValid":
+                            return valid.get();
+                        case "isClosed":
+                            return closed.get();
+                        case "close":
+                            closed.set(true);
+                            return null;
+                        case "getAutoCommit":
+                            return true;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        ConnectionPool.closeAll();
+        opened.set(0);
+    }
+
+    /**
+     * Test of borrow and release methods, of class ConnectionPool.
+     */
+    @Test
+    public void testReuse() throws SQLException {
+        AtomicBoolean valid = new AtomicBoolean(true);
+        ConnectionPool pool = ConnectionPool.get("reuse", "", () -> connection(valid), 2, 5);
+        PooledConnection first = pool.borrow(1);
+        pool.release(first);
+        assertSame(pool.borrow(1), first);
+        assertEquals(opened.get(), 1);
+    }
+
+    /**
+     * Test of borrow method with a broken idle connection, of class
+     * ConnectionPool.
+     */
+    @Test
+    public void testInvalidConnectionReplaced() throws SQLException {
+        AtomicBoolean valid = new AtomicBoolean(true);
+        ConnectionPool pool = ConnectionPool.get("invalid", "", () -> connection(valid), 2, 5);
+        PooledConnection first = pool.borrow(1);
+        pool.release(first);
+        valid.set(false);
+        assertNotSame(pool.borrow(1), first);
+        assertEquals(opened.get(), 2);
+    }
+
+    /**
+     * Test of borrow method when all the connections are in use, of class
+     * ConnectionPool.
+     */
+    @Test(expectedExceptions = SQLException.class)
+    public void testMaxSize() throws SQLException {
+        AtomicBoolean valid = new AtomicBoolean(true);
+        ConnectionPool pool = ConnectionPool.get("max", "", () -> connection(valid), 1, 5);
+        pool.borrow(1);
+        pool.borrow(0);
+    }
+
+}
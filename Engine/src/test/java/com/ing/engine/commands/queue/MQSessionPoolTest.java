@@ -0,0 +1,97 @@
+package com.ing.engine.commands.queue;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.Queue;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class MQSessionPoolTest {
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger closedConsumers = new AtomicInteger();
+
+    private <T> T proxy(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private JMSContext context() {
+        return proxy(JMSContext.class, (ctx, method, args) -> {
+            switch (method.getName()) {
+                case "createContext":
+                    return context();
+                case "createQueue":
+                    return proxy(Queue.class, (queue, m, a) -> null);
+                case "createConsumer":
+                    return proxy(JMSConsumer.class, (consumer, m, a) -> {
+                        if (m.getName().equals("close")) {
+                            closedConsumers.incrementAndGet();
+                        }
+                        return null;
+                    });
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private JMSContext connect() throws JMSException {
+        connections.incrementAndGet();
+        return context();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        MQSessionPool.closeAll();
+        connections.set(0);
+        closedConsumers.set(0);
+    }
+
+    /**
+     * Test of borrow and release methods, of class MQSessionPool.
+     */
+    @Test
+    public void testReuse() throws JMSException {
+        String config = MQSessionPool.configKey("host", 1414, "CHANNEL", "QM1", null, null);
+        MQSession first = MQSessionPool.borrow(config, this::connect, 4);
+        MQSession second = MQSessionPool.borrow(config, this::connect, 4);
+        assertNotSame(second, first);
+        first.release();
+        assertSame(MQSessionPool.borrow(config, this::connect, 4), first);
+        assertEquals(connections.get(), 1);
+    }
+
+    /**
+     * Test of borrow method with another queue manager, of class
+     * MQSessionPool.
+     */
+    @Test
+    public void testConnectionPerConfig() throws JMSException {
+        MQSessionPool.borrow(MQSessionPool.configKey("host", 1414, "CHANNEL", "QM1", null, null), this::connect, 4);
+        MQSessionPool.borrow(MQSessionPool.configKey("host", 1414, "CHANNEL", "QM2", null, null), this::connect, 4);
+        assertEquals(connections.get(), 2);
+    }
+
+    /**
+     * Test of consumer method, of class MQSession.
+     */
+    @Test
+    public void testConsumerCache() throws JMSException {
+        MQSession session = MQSessionPool.borrow(MQSessionPool.configKey("host", 1414, "CHANNEL", "QM1", null, null),
+                this::connect, 2);
+        JMSConsumer consumer = session.consumer("queue:///RESP", "JMSCorrelationID='1'");
+        assertSame(session.consumer("queue:///RESP", "JMSCorrelationID='1'"), consumer);
+        session.consumer("queue:///RESP", "JMSCorrelationID='2'");
+        session.consumer("queue:///RESP", "JMSCorrelationID='3'");
+        assertEquals(session.consumerCount(), 2);
+        assertEquals(closedConsumers.get(), 1);
+        assertNotSame(session.consumer("queue:///RESP", "JMSCorrelationID='1'"), consumer);
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.ing.engine.commands.webservice;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class ResponseBodyTest {
+
+    private HttpServer server;
+    private HttpClient client;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", exchange -> {
+            int size = Integer.parseInt(exchange.getRequestURI().getQuery());
+            byte[] body = "x".repeat(size).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private ResponseBody get(int size, Path file) throws Exception {
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/?" + size);
+        return client.send(HttpRequest.newBuilder(uri).build(), ResponseBody.handler(() -> file, 1024)).body();
+    }
+
+    /**
+     * Test of handler method for small bodies, of class ResponseBody.
+     */
+    @Test
+    public void testSmallBodyInMemory() throws Exception {
+        Path file = Files.createTempDirectory("response").resolve("small.txt");
+        ResponseBody body = get(100, file);
+        assertFalse(body.isStreamed());
+        assertFalse(Files.exists(file));
+        assertEquals(body.text().length(), 100);
+    }
+
+    /**
+     * Test of handler method for large bodies, of class ResponseBody.
+     */
+    @Test
+    public void testLargeBodyStreamed() throws Exception {
+        Path file = Files.createTempDirectory("response").resolve("webservice").resolve("large.txt");
+        ResponseBody body = get(100_000, file);
+        assertTrue(body.isStreamed());
+        assertEquals(Files.size(file), 100_000);
+        assertEquals(body.size(), 100_000);
+        assertEquals(body.getPrefix().length(), 8 * 1024);
+        assertEquals(body.text().length(), 100_000);
+        assertEquals(body.openStream().readAllBytes().length, 100_000);
+    }
+
+    /**
+     * Test of handler method for a payload file still mapped by an earlier
+     * body, of class ResponseBody.
+     */
+    @Test
+    public void testLargeBodyOverMappedFile() throws Exception {
+        Path file = Files.createTempDirectory("response").resolve("large.txt");
+        ResponseBody first = get(100_000, file);
+        try (InputStream mapped = first.openStream()) {
+            ResponseBody second = get(50_000, file);
+            assertEquals(second.text().length(), 50_000);
+            assertEquals(mapped.readAllBytes().length, 100_000);
+        }
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertEquals(files.count(), 1);
+        }
+    }
+
+    /**
+     * Test of charsetOf method, of class ResponseBody.
+     */
+    @Test
+    public void testCharsetOf() {
+        assertEquals(ResponseBody.charsetOf("text/xml; charset=\"ISO-8859-1\""), StandardCharsets.ISO_8859_1);
+        assertEquals(ResponseBody.charsetOf("application/json"), StandardCharsets.UTF_8);
+    }
+
+}
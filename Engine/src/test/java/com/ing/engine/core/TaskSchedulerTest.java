@@ -0,0 +1,183 @@
+package com.ing.engine.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+public class TaskSchedulerTest {
+
+    private static RunContext context(String testCase, String browser) {
+        RunContext context = new RunContext();
+        context.Scenario = "S";
+        context.TestCase = testCase;
+        context.BrowserName = browser;
+        return context;
+    }
+
+    private static TaskScheduler.Entry entry(String testCase, String browser, long expected) {
+        return new TaskScheduler.Entry(context(testCase, browser), () -> {
+        }, expected);
+    }
+
+    /**
+     * Test of predictMakespan method, of class TaskScheduler.
+     */
+    @Test
+    public void testPredictMakespan() {
+        List<TaskScheduler.Entry> order = Arrays.asList(entry("a", "B", 1), entry("b", "B", 1),
+                entry("c", "B", 1), entry("d", "B", 3));
+        assertEquals(TaskScheduler.predictMakespan(order, 2, browser -> 2), 4);
+        List<TaskScheduler.Entry> longestFirst = new ArrayList<>(order);
+        Collections.reverse(longestFirst);
+        assertEquals(TaskScheduler.predictMakespan(longestFirst, 2, browser -> 2), 3);
+        assertEquals(TaskScheduler.predictMakespan(longestFirst, 2, browser -> 1), 6);
+    }
+
+    private static List<String> runOrder(int threads) throws InterruptedException {
+        Map<String, Long> expected = new HashMap<>();
+        expected.put(TestDurationHistory.key("S", "short", "Serial"), 10L);
+        expected.put(TestDurationHistory.key("S", "long", "Serial"), 30L);
+        expected.put(TestDurationHistory.key("S", "medium", "Serial"), 20L);
+        System.setProperty("scheduler.maxThreads.Serial", "1");
+        TaskScheduler scheduler = new TaskScheduler(threads, new TestDurationHistory(new File("unused"), expected));
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        for (String tc : Arrays.asList("short", "new", "long", "medium")) {
+            scheduler.submit(context(tc, "Serial"), () -> order.add(tc));
+        }
+        System.clearProperty("scheduler.maxThreads.Serial");
+        scheduler.start();
+        assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(scheduler.getPredictedMakespan(), 80);
+        return order;
+    }
+
+    /**
+     * Test of start method, of class TaskScheduler.
+     */
+    @Test
+    public void testLongestFirst() throws InterruptedException {
+        assertEquals(runOrder(2), Arrays.asList("long", "new", "medium", "short"));
+    }
+
+    /**
+     * Test of start method with a single worker or the order kept, of class
+     * TaskScheduler.
+     */
+    @Test
+    public void testSubmittedOrder() throws InterruptedException {
+        assertEquals(runOrder(1), Arrays.asList("short", "new", "long", "medium"));
+        System.setProperty("scheduler.keepOrder", "true");
+        try {
+            assertEquals(runOrder(2), Arrays.asList("short", "new", "long", "medium"));
+        } finally {
+            System.clearProperty("scheduler.keepOrder");
+        }
+    }
+
+    /**
+     * Test of the browser cap and of the stealing, of class TaskScheduler.
+     */
+    @Test
+    public void testCap() throws InterruptedException {
+        System.setProperty("scheduler.maxThreads.Capped", "1");
+        TaskScheduler scheduler = new TaskScheduler(3, new TestDurationHistory(new File("unused"), new HashMap<>()));
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        AtomicInteger others = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            scheduler.submit(context("c" + i, "Capped"), () -> {
+                max.accumulateAndGet(current.incrementAndGet(), Math::max);
+                sleep(20);
+                current.decrementAndGet();
+            });
+            scheduler.submit(context("o" + i, "Other"), () -> others.incrementAndGet());
+        }
+        scheduler.start();
+        assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(max.get(), 1);
+        assertEquals(others.get(), 4);
+        System.clearProperty("scheduler.maxThreads.Capped");
+    }
+
+    /**
+     * Test of a test case failing with an error, of class TaskScheduler.
+     */
+    @Test
+    public void testError() throws InterruptedException {
+        TaskScheduler scheduler = new TaskScheduler(1, new TestDurationHistory(new File("unused"), new HashMap<>()));
+        AtomicInteger done = new AtomicInteger();
+        scheduler.submit(context("error", "B"), () -> {
+            throw new AssertionError("error");
+        });
+        scheduler.submit(context("next", "B"), () -> done.incrementAndGet());
+        scheduler.start();
+        assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(done.get(), 1);
+    }
+
+    /**
+     * Test of the browserless lane, of class TaskScheduler.
+     */
+    @Test
+    public void testBrowserless() throws InterruptedException {
+        System.setProperty("scheduler.browserlessThreads", "4");
+        TaskScheduler scheduler = new TaskScheduler(1, new TestDurationHistory(new File("unused"), new HashMap<>()));
+        System.clearProperty("scheduler.browserlessThreads");
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        for (int i = 0; i < 12; i++) {
+            scheduler.submit(context("api" + i, "Chromium"), () -> {
+                max.accumulateAndGet(current.incrementAndGet(), Math::max);
+                sleep(20);
+                current.decrementAndGet();
+                done.incrementAndGet();
+            }, true);
+        }
+        scheduler.submit(context("ui", "Chromium"), () -> done.incrementAndGet());
+        scheduler.start();
+        assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(done.get(), 13);
+        assertEquals(max.get(), 4);
+    }
+
+    /**
+     * Test of load and save methods, of class TestDurationHistory.
+     */
+    @Test
+    public void testHistory() throws IOException {
+        Path location = Files.createTempDirectory("durations");
+        Path latest = Files.createDirectories(location.resolve("Latest"));
+        Files.write(latest.resolve("data.js"), ("var DATA={\"EXECUTIONS\":[{\"scenarioName\":\"S\","
+                + "\"testcaseName\":\"a\",\"browser\":\"B\",\"exeTime\":\"00:01:05\"}]};")
+                .getBytes(StandardCharsets.UTF_8));
+        TestDurationHistory history = TestDurationHistory.load(location.toFile());
+        assertEquals(history.expected(context("a", "B")), 65_000);
+        assertEquals(history.expected(context("b", "B")), 65_000);
+        history.record(context("a", "B"), 35_000);
+        history.save();
+        assertEquals(TestDurationHistory.load(location.toFile()).expected(context("a", "B")), 50_000);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
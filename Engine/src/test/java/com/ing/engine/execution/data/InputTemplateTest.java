@@ -0,0 +1,88 @@
+package com.ing.engine.execution.data;
+
+import com.ing.engine.execution.data.InputTemplate.Kind;
+import java.util.Arrays;
+import java.util.Collections;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class InputTemplateTest {
+
+    @BeforeMethod
+    public void setUp() {
+        InputTemplate.clearCache();
+    }
+
+    /**
+     * Test of compile method for datasheet references, of class InputTemplate.
+     */
+    @Test
+    public void testCompileDataSheet() {
+        InputTemplate t = InputTemplate.compile("Login:UserName");
+        assertEquals(t.getKind(), Kind.DATASHEET);
+        assertEquals(t.getSheet(), "Login");
+        assertEquals(t.getField(), "UserName");
+
+        t = InputTemplate.compile("{Login:Password}");
+        assertEquals(t.getKind(), Kind.DATASHEET);
+        assertEquals(t.getSheet(), "Login");
+        assertEquals(t.getField(), "Password");
+    }
+
+    /**
+     * Test of compile method for dynamic inputs, of class InputTemplate.
+     */
+    @Test
+    public void testCompileDynamic() {
+        InputTemplate t = InputTemplate.compile("@Hello %name%, %name% and %other%");
+        assertEquals(t.getKind(), Kind.DYNAMIC);
+        assertEquals(t.getText(), "Hello %name%, %name% and %other%");
+        assertEquals(t.getRunTimeVars(), Arrays.asList("%name%", "%other%"));
+
+        t = InputTemplate.compile("%var%");
+        assertEquals(t.getKind(), Kind.DYNAMIC);
+        assertEquals(t.getRunTimeVars(), Collections.singletonList("%var%"));
+
+        t = InputTemplate.compile("{scenario}");
+        assertEquals(t.getKind(), Kind.DYNAMIC);
+        assertTrue(t.hasKeys());
+    }
+
+    /**
+     * Test of compile method for functions and scripts, of class InputTemplate.
+     */
+    @Test
+    public void testCompileFunctionAndScript() {
+        InputTemplate t = InputTemplate.compile("=Concat(a,b)");
+        assertEquals(t.getKind(), Kind.FUNCTION);
+        assertEquals(t.getText(), "Concat(a,b)");
+
+        t = InputTemplate.compile(">1+1");
+        assertEquals(t.getKind(), Kind.SCRIPT);
+        assertEquals(t.getText(), "1+1");
+    }
+
+    /**
+     * Test of compile method for plain text, of class InputTemplate.
+     */
+    @Test
+    public void testCompileLiteral() {
+        InputTemplate t = InputTemplate.compile("plain text");
+        assertEquals(t.getKind(), Kind.LITERAL);
+        assertFalse(t.hasKeys());
+        assertTrue(t.getRunTimeVars().isEmpty());
+    }
+
+    /**
+     * Test of of method, of class InputTemplate.
+     */
+    @Test
+    public void testOfIsCached() {
+        assertSame(InputTemplate.of("Login:UserName"), InputTemplate.of("Login:UserName"));
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.ing.engine.reporting.impl.handlers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class ReportEventBusTest {
+
+    private static class RecordingHandler extends TestCaseHandler {
+
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        final Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+
+        RecordingHandler() {
+            super(null);
+        }
+
+        void record(String call) {
+            calls.add(call + ":" + getStepCount() + ":" + getEventTime());
+            threads.add(Thread.currentThread().getName());
+        }
+    }
+
+    private static ReportEvent event(String call, int stepCount) {
+        return new ReportEvent(handler -> ((RecordingHandler) handler).record(call), null, stepCount, "img" + stepCount,
+                "t" + stepCount, false, null);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        ReportEventBus.closeAll();
+    }
+
+    /**
+     * Test of offer and poll methods, of class EventRing.
+     */
+    @Test
+    public void testRing() {
+        EventRing<Integer> ring = new EventRing<>(3);
+        assertEquals(ring.capacity(), 4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(ring.poll(), Integer.valueOf(0));
+        assertTrue(ring.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(ring.poll(), Integer.valueOf(i));
+        }
+        assertNull(ring.poll());
+        assertTrue(ring.isEmpty());
+    }
+
+    /**
+     * Test of offer method with concurrent producers, of class EventRing.
+     */
+    @Test
+    public void testRingProducers() throws InterruptedException {
+        EventRing<Integer> ring = new EventRing<>(64);
+        int producers = 4;
+        int count = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * count;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < count; i++) {
+                    while (!ring.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        int[] last = new int[producers];
+        java.util.Arrays.fill(last, -1);
+        int received = 0;
+        while (received < producers * count) {
+            Integer value = ring.poll();
+            if (value == null) {
+                Thread.yield();
+                continue;
+            }
+            int producer = value / count;
+            assertTrue(value % count > last[producer]);
+            last[producer] = value % count;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(ring.poll());
+    }
+
+    /**
+     * Test of publish and await methods, of class ReportEventBus.
+     */
+    @Test
+    public void testPublish() {
+        RecordingHandler handler = new RecordingHandler();
+        for (int i = 1; i <= 1000; i++) {
+            ReportEventBus.publish(handler, event("step", i), true);
+        }
+        ReportEventBus.await(handler);
+        assertEquals(handler.calls.size(), 1000);
+        assertEquals(handler.calls.get(0), "step:1:t1");
+        assertEquals(handler.calls.get(999), "step:1000:t1000");
+        assertEquals(handler.threads.size(), 1);
+        assertTrue(handler.threads.iterator().next().startsWith("report-"));
+        assertNull(handler.current);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.ing.engine.reporting.impl.html;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import org.json.simple.JSONObject;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+public class HtmlTemplateTest {
+
+    private static String write(String template, JSONObject data) throws IOException {
+        StringWriter out = new StringWriter();
+        new HtmlTemplate(template, "[<DATA>]").write(data, out);
+        return out.toString();
+    }
+
+    /**
+     * Test of write method, of class HtmlTemplate.
+     */
+    @Test
+    public void testWrite() throws IOException {
+        JSONObject data = new JSONObject();
+        data.put("status", "PASS");
+        String template = "<script>var DATA=[<DATA>];</script><p>[<DATA>]</p>";
+        assertEquals(write(template, data), template.replace("[<DATA>]", data.toJSONString()));
+    }
+
+    /**
+     * Test of write method without placeholder, of class HtmlTemplate.
+     */
+    @Test
+    public void testWriteWithoutPlaceholder() throws IOException {
+        assertEquals(write("<html></html>", new JSONObject()), "<html></html>");
+    }
+}
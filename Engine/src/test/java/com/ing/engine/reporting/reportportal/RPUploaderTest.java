@@ -0,0 +1,92 @@
+package com.ing.engine.reporting.reportportal;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.simple.JSONObject;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+public class RPUploaderTest {
+
+    private static JSONObject log(String message, String file) {
+        JSONObject json = new JSONObject();
+        json.put("message", message);
+        if (file != null) {
+            JSONObject name = new JSONObject();
+            name.put("name", file);
+            json.put("file", name);
+        }
+        return json;
+    }
+
+    /**
+     * Test of body method, of class RPUploader.
+     */
+    @Test
+    public void testBody() throws IOException {
+        File screenshot = File.createTempFile("step", ".png");
+        Files.write(screenshot.toPath(), "PNG".getBytes(StandardCharsets.UTF_8));
+        File missing = new File(screenshot.getParentFile(), "missing-" + screenshot.getName());
+        RPUploader.LogEntry text = new RPUploader.LogEntry("url", "uuid", log("first", null), null, "");
+        RPUploader.LogEntry image = new RPUploader.LogEntry("url", "uuid", log("second", screenshot.getName()),
+                screenshot, "image/png");
+        RPUploader.LogEntry lost = new RPUploader.LogEntry("url", "uuid", log("third", missing.getName()),
+                missing, "image/png");
+
+        String body = new String(RPUploader.body("b", Arrays.asList(text, image, lost)), StandardCharsets.UTF_8);
+
+        assertTrue(body.startsWith("--b\r\nContent-Disposition: form-data; name=\"json_request_part\"\r\n"));
+        assertTrue(body.contains("filename=\"" + screenshot.getName() + "\"\r\nContent-Type: image/png\r\n\r\nPNG\r\n"));
+        assertFalse(body.contains(missing.getName()));
+        assertTrue(body.contains("third"));
+        assertTrue(body.endsWith("\r\n--b--\r\n"));
+        assertEquals(body.split("--b\r\n", -1).length, 3);
+    }
+
+    /**
+     * Test of flush method for one test item, of class RPUploader.
+     */
+    @Test
+    public void testFlushItem() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger received = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            received.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            JSONObject entry = log("first", null);
+            entry.put("item_id", "A");
+            RPUploader.log("http://localhost:" + server.getAddress().getPort() + "/log", "uuid", entry, null, "");
+            long start = System.nanoTime();
+            RPUploader.flush("B");
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            assertEquals(received.get(), 0);
+            release.countDown();
+            RPUploader.flush("A");
+            assertEquals(received.get(), 1);
+        } finally {
+            release.countDown();
+            RPUploader.closeAll();
+            server.stop(0);
+        }
+    }
+}
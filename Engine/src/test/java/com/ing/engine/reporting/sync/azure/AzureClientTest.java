@@ -0,0 +1,177 @@
+package com.ing.engine.reporting.sync.azure;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class AzureClientTest {
+
+    /**
+     * answers as Azure DevOps for plan 5 with suite S1 holding test cases A
+     * and B, run 7 has two results for A and one for B
+     */
+    private static class StubClient extends AzureHttpClient {
+
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger attachments = new AtomicInteger();
+        int attachmentStatus = 200;
+        int patchStatus = 200;
+        int suiteLookupsToFail;
+
+        StubClient() throws Exception {
+            super(new URL("http://localhost/org/"), "pat", null);
+        }
+
+        private static JSONObject json(String json) throws Exception {
+            return (JSONObject) new JSONParser().parse(json);
+        }
+
+        /**
+         * @return the result ids of the bulk update
+         */
+        private static List<String> ids(String payload) {
+            List<String> ids = new ArrayList<>();
+            Matcher matcher = Pattern.compile("\"id\": (\\d+)").matcher(payload);
+            while (matcher.find()) {
+                ids.add(matcher.group(1));
+            }
+            return ids;
+        }
+
+        @Override
+        public JSONObject Get(URL targetUrl) throws Exception {
+            String url = targetUrl.toString();
+            if (url.contains("/suites?")) {
+                if (suiteLookupsToFail-- > 0) {
+                    throw new StatusException(404, "Not Found", -1);
+                }
+                return json("{\"value\":[{\"name\":\"S1\",\"id\":11}]}");
+            }
+            if (url.contains("/suites/11/points")) {
+                return json("{\"value\":["
+                        + "{\"id\":101,\"workItemProperties\":[{\"workItem\":{\"key\":\"System.Title\",\"value\":\"A\"}}]},"
+                        + "{\"id\":102,\"workItemProperties\":[{\"workItem\":{\"key\":\"System.Title\",\"value\":\"B\"}}]}]}");
+            }
+            if (url.contains("/runs/7/results")) {
+                return json("{\"value\":[{\"id\":1,\"testCase\":{\"name\":\"A\"}},"
+                        + "{\"id\":2,\"testCase\":{\"name\":\"B\"}},{\"id\":3,\"testCase\":{\"name\":\"A\"}}]}");
+            }
+            return json("{}");
+        }
+
+        @Override
+        public JSONObject post(URL targetUrl, String payload) throws Exception {
+            if (targetUrl.toString().contains("/attachments")) {
+                attachments.incrementAndGet();
+                if (attachmentStatus != 200) {
+                    throw new StatusException(attachmentStatus, "Error", 0);
+                }
+            } else {
+                calls.add("POST " + payload);
+            }
+            return json("{\"id\":7}");
+        }
+
+        @Override
+        public JSONObject patch(URL targetUrl, String payload) throws Exception {
+            if (targetUrl.toString().contains("/results")) {
+                calls.add("PATCH " + ids(payload));
+                if (patchStatus != 200) {
+                    throw new StatusException(patchStatus, "Error", -1);
+                }
+            }
+            return json("{}");
+        }
+    }
+
+    private StubClient stub;
+    private AzureClient client;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        System.setProperty("azure.batch.size", "2");
+        System.setProperty("azure.retries", "2");
+        System.setProperty("azure.retry.backoff", "1");
+        stub = new StubClient();
+        client = new AzureClient("http://localhost/org", stub);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        client.close();
+        System.clearProperty("azure.batch.size");
+        System.clearProperty("azure.retries");
+        System.clearProperty("azure.retry.backoff");
+    }
+
+    private static ArrayList<AzureTestData> tests(List<File> attach, String... testCases) {
+        return Arrays.stream(testCases)
+                .map(tc -> new AzureTestData("P", 5, "S1", tc, "Passed", attach))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private List<String> patches() {
+        return stub.calls.stream().filter(c -> c.startsWith("PATCH")).collect(Collectors.toList());
+    }
+
+    /**
+     * Test of createNewTestRun method, of class AzureClient.
+     */
+    @Test
+    public void testCreateNewTestRun() {
+        client.createNewTestRun(tests(Collections.emptyList(), "A", "B", "A"));
+        assertTrue(stub.calls.get(0).contains("\"pointIds\": [ 101,102,101 ]"), stub.calls.get(0));
+        assertEquals(patches(), Arrays.asList("PATCH [1, 2]", "PATCH [3]"));
+        assertTrue(client.getFailures().isEmpty());
+    }
+
+    /**
+     * Test of createNewTestRun method with failing updates, of class
+     * AzureClient.
+     */
+    @Test
+    public void testCreateNewTestRunFailures() throws Exception {
+        File attach = Files.createTempFile("attach", ".png").toFile();
+        attach.deleteOnExit();
+        stub.attachmentStatus = 503;
+        stub.patchStatus = 400;
+        client.createNewTestRun(tests(Arrays.asList(attach), "A", "B", "A", "C"));
+        assertEquals(stub.attachments.get(), 3 * 3);
+        assertEquals(patches(), Arrays.asList("PATCH [1, 2]", "PATCH [3]"));
+        List<String> failures = client.getFailures();
+        assertTrue(failures.contains("test point of //S1/C not found"), failures.toString());
+        assertTrue(failures.contains("update of 2 results"), failures.toString());
+        assertTrue(failures.contains("update of 1 results"), failures.toString());
+        assertEquals(failures.stream().filter(f -> f.startsWith("attachment")).count(), 3);
+    }
+
+    /**
+     * Test of createNewTestRun method after a failed read of the test
+     * points, of class AzureClient.
+     */
+    @Test
+    public void testCreateNewTestRunLookupFailed() {
+        stub.suiteLookupsToFail = 1;
+        client.prefetch("P", 5, "S1");
+        client.createNewTestRun(tests(Collections.emptyList(), "A", "B"));
+        assertTrue(stub.calls.get(0).contains("\"pointIds\": [ 102 ]"), stub.calls.get(0));
+        assertEquals(patches(), Arrays.asList("PATCH [2]"));
+        assertEquals(client.getFailures(), Arrays.asList("test point of //S1/A not found"));
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.ing.engine.reporting.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+public class RDSTest {
+
+    private static JSONObject record(String name) {
+        JSONObject record = new JSONObject();
+        record.put("testcaseName", name);
+        return record;
+    }
+
+    /**
+     * Test of appendToLog and writeToDataJS methods, of class RDS.
+     */
+    @Test
+    public void testWriteToDataJSFromLog() throws IOException, ParseException {
+        File dir = Files.createTempDirectory("rds").toFile();
+        String log = new File(dir, "executions.jsonl").getPath();
+        String dataJS = new File(dir, "data.js").getPath();
+        RDS.appendToLog(log, record("first"));
+        RDS.appendToLog(log, record("second \"quoted\""));
+        assertEquals(RDS.readLog(log).size(), 2);
+
+        JSONObject data = new JSONObject();
+        data.put("testsetName", "set");
+        RDS.writeToDataJS(dataJS, data, "EXECUTIONS", log);
+
+        JSONObject written = (JSONObject) new JSONParser().parse(RDS.readFromDataJS(dataJS));
+        assertEquals(written.get("testsetName"), "set");
+        JSONArray executions = (JSONArray) written.get("EXECUTIONS");
+        assertEquals(executions.size(), 2);
+        assertEquals(((JSONObject) executions.get(1)).get("testcaseName"), "second \"quoted\"");
+    }
+
+    /**
+     * Test of writeToDataJS method without log, of class RDS.
+     */
+    @Test
+    public void testWriteToDataJSWithoutLog() throws IOException, ParseException {
+        File dir = Files.createTempDirectory("rds").toFile();
+        String dataJS = new File(dir, "data.js").getPath();
+        RDS.writeToDataJS(dataJS, new JSONObject(), "EXECUTIONS", new File(dir, "none.jsonl").getPath());
+
+        JSONObject written = (JSONObject) new JSONParser().parse(RDS.readFromDataJS(dataJS));
+        assertEquals(((JSONArray) written.get("EXECUTIONS")).size(), 0);
+    }
+}
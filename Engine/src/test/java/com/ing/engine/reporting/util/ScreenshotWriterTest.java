@@ -0,0 +1,43 @@
+package com.ing.engine.reporting.util;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import org.testng.annotations.Test;
+
+public class ScreenshotWriterTest {
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", bytes);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Test of encode method without scale and quality, of class
+     * ScreenshotWriter.
+     */
+    @Test
+    public void testEncodeAsCaptured() throws IOException {
+        byte[] image = png(40, 20);
+        assertSame(ScreenshotWriter.encode(image, 1.0, 0), image);
+    }
+
+    /**
+     * Test of encode method with scale and quality, of class ScreenshotWriter.
+     */
+    @Test
+    public void testEncodeScaledJpeg() throws IOException {
+        byte[] image = ScreenshotWriter.encode(png(40, 20), 0.5, 80);
+        BufferedImage img = ImageIO.read(new ByteArrayInputStream(image));
+        assertEquals(img.getWidth(), 20);
+        assertEquals(img.getHeight(), 10);
+        assertEquals(image[0] & 0xFF, 0xFF);
+        assertEquals(image[1] & 0xFF, 0xD8);
+    }
+
+}
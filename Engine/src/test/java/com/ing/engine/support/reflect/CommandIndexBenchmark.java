@@ -0,0 +1,56 @@
+package com.ing.engine.support.reflect;
+
+import com.ing.engine.support.methodInf.MethodInfoManager;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the cold start of the command discovery (MethodInfoManager.load)
+ * when scanning the classpath and when reading the {@link CommandIndex}.
+ * <br>
+ * Every measure runs in a new JVM with the test classpath, run the main
+ * method after a build so that the index is in target/classes. Pass
+ * <code>-Dengine.jar=true</code> to measure the jar scan used by the IDE.
+ *
+ */
+public class CommandIndexBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("child")) {
+            if (Boolean.getBoolean("engine.jar")) {
+                com.ing.engine.constants.SystemDefaults.getClassesFromJar.set(true);
+            }
+            long start = System.nanoTime();
+            MethodInfoManager.load();
+            System.out.println((System.nanoTime() - start) / 1_000_000 + " " + MethodInfoManager.methodInfoMap.size());
+            return;
+        }
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("round %d: scan %s, index %s%n", round, child(false), child(true));
+        }
+    }
+
+    private static String child(boolean index) throws IOException, InterruptedException {
+        List<String> command = Arrays.asList(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", System.getProperty("java.class.path"),
+                "-Dengine.commandIndex=" + index, "-Dengine.jar=" + Boolean.getBoolean("engine.jar"),
+                CommandIndexBenchmark.class.getName(), "child");
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String last = "";
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                last = line;
+            }
+        }
+        process.waitFor();
+        String[] result = last.split(" ");
+        return result.length == 2 ? result[0] + "ms (" + result[1] + " actions)" : "failed: " + last;
+    }
+}
@@ -0,0 +1,137 @@
+package com.ing.engine.support.reflect;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import com.ing.engine.support.reflect.scanned.ScannedCommand;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+public class CommandIndexTest {
+
+    private static JavaFileObject source(String className, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    /**
+     * Test of read and format methods, of class CommandIndex.
+     */
+    @Test
+    public void testRead() throws IOException {
+        String index = CommandIndex.format("a.b.First", Arrays.asList("click", "fill")) + "\n"
+                + CommandIndex.format("a.b.Base", Collections.emptyList()) + "\n"
+                + CommandIndex.formatOther("a.b.Helper") + "\n";
+        CommandIndex result = CommandIndex.read(new ByteArrayInputStream(index.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(result.getActions().get("a.b.First"), Arrays.asList("click", "fill"));
+        assertEquals(result.getActions().get("a.b.Base"), Collections.emptyList());
+        assertEquals(result.getActions().size(), 2);
+        assertTrue(result.isCurrent(Arrays.asList("a.b.First", "a.b.Helper")));
+        assertFalse(result.isCurrent(Arrays.asList("a.b.First", "a.b.New")));
+    }
+
+    /**
+     * Test of loadClasses method, of class CommandIndex.
+     */
+    @Test
+    public void testLoadClasses() throws IOException {
+        String index = CommandIndex.format(CommandIndexTest.class.getName(), Collections.emptyList()) + "\n"
+                + CommandIndex.format("com.ing.missing.Command", Collections.emptyList()) + "\n";
+        CommandIndex result = CommandIndex.read(new ByteArrayInputStream(index.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(result.loadClasses(""), Arrays.asList(CommandIndexTest.class));
+        assertEquals(result.loadClasses("com.ing.engine.support"), Arrays.asList(CommandIndexTest.class));
+        assertTrue(result.loadClasses("com.ing.engine.commands").isEmpty());
+    }
+
+    private static CommandIndex index(String className) throws IOException {
+        String index = CommandIndex.format(className, Collections.emptyList()) + "\n";
+        return CommandIndex.read(new ByteArrayInputStream(index.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Test of getClasses method with a package not in the index, of class
+     * ClassFinder.
+     */
+    @Test
+    public void testGetClassesNotIndexed() throws IOException {
+        String scanned = ScannedCommand.class.getPackage().getName();
+        CommandIndex result = index(CommandIndexTest.class.getName());
+        assertFalse(result.covers(scanned));
+        assertEquals(ClassFinder.getClasses(result, scanned), Arrays.asList(ScannedCommand.class));
+    }
+
+    /**
+     * Test of getClasses method with an index out of date for a package, of
+     * class ClassFinder.
+     */
+    @Test
+    public void testGetClassesOutOfDate() throws IOException {
+        String scanned = ScannedCommand.class.getPackage().getName();
+        assertEquals(ClassFinder.getClassNames(scanned), Collections.singleton(ScannedCommand.class.getName()));
+        CommandIndex current = index(ScannedCommand.class.getName());
+        assertEquals(ClassFinder.getClasses(current, scanned), Arrays.asList(ScannedCommand.class));
+        CommandIndex partial = index(scanned + ".Removed");
+        assertTrue(partial.covers(scanned));
+        assertEquals(ClassFinder.getClasses(partial, scanned), Arrays.asList(ScannedCommand.class));
+    }
+
+    private static boolean compile(Path out, List<JavaFileObject> sources) {
+        JavaCompiler.CompilationTask task = ToolProvider.getSystemJavaCompiler().getTask(null, null, null,
+                Arrays.asList("-d", out.toString(), "-classpath",
+                        System.getProperty("java.class.path") + File.pathSeparator + out),
+                null, sources);
+        task.setProcessors(Arrays.asList(new CommandIndexProcessor()));
+        return task.call();
+    }
+
+    /**
+     * Test of process method, of class CommandIndexProcessor.
+     */
+    @Test
+    public void testProcessor() throws IOException {
+        Path out = Files.createTempDirectory("command-index");
+        List<JavaFileObject> sources = Arrays.asList(
+                source("sample.Sample", "package sample;\n"
+                        + "import com.ing.engine.support.methodInf.Action;\n"
+                        + "public class Sample extends com.ing.engine.commands.browser.Command {\n"
+                        + "    public Sample(com.ing.engine.core.CommandControl cc) { super(cc); }\n"
+                        + "    @Action public void second() { }\n"
+                        + "    @Action public void first() { }\n"
+                        + "    public void helper() { }\n"
+                        + "}\n"),
+                source("sample.Other", "package sample;\n"
+                        + "public class Other {\n"
+                        + "    @com.ing.engine.support.methodInf.Action public void other() { }\n"
+                        + "}\n"));
+        assertTrue(compile(out, sources));
+        assertEquals(Files.readAllLines(out.resolve(CommandIndex.RESOURCE)),
+                Arrays.asList("sample.Sample:first,second", "-sample.Other"));
+
+        assertTrue(compile(out, Arrays.asList(source("sample.Third", "package sample;\n"
+                + "public class Third extends com.ing.engine.commands.browser.Command {\n"
+                + "    public Third(com.ing.engine.core.CommandControl cc) { super(cc); }\n"
+                + "    @com.ing.engine.support.methodInf.Action public void third() { }\n"
+                + "}\n"))));
+        assertEquals(Files.readAllLines(out.resolve(CommandIndex.RESOURCE)),
+                Arrays.asList("sample.Sample:first,second", "sample.Third:third", "-sample.Other"));
+    }
+
+}
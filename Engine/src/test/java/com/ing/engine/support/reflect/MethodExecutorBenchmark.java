@@ -0,0 +1,61 @@
+package com.ing.engine.support.reflect;
+
+import com.ing.engine.core.CommandControl;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Compares the reflective dispatch MethodExecutor used before (constructor
+ * lookup and newInstance per step, then a method handle) with the generated
+ * invokers.
+ * <br>
+ * Run the main method, e.g. from the IDE, the figures are ns per step.
+ *
+ */
+public class MethodExecutorBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final int STEPS = 2_000_000;
+
+    public static class BenchCommand {
+
+        static long count;
+
+        public BenchCommand(CommandControl cc) {
+        }
+
+        public void action() {
+            count++;
+        }
+    }
+
+    public static void main(String[] args) throws Throwable {
+        MethodHandle handle = MethodHandles.lookup().findVirtual(BenchCommand.class, "action",
+                MethodType.methodType(void.class));
+        MethodExecutor.Invoker invoker = MethodExecutor.build(Arrays.asList(BenchCommand.class)).get("action");
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < STEPS; i++) {
+                handle.invoke(BenchCommand.class.getConstructor(CommandControl.class).newInstance((CommandControl) null));
+            }
+            long reflective = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < STEPS; i++) {
+                invoker.invoke(null);
+            }
+            long generated = System.nanoTime() - start;
+            System.out.printf("round %d: reflective %.1f ns/step, generated %.1f ns/step%n", round + 1,
+                    (double) reflective / STEPS, (double) generated / STEPS);
+        }
+        Map<String, MethodExecutor.Invoker> table = MethodExecutor.build(Arrays.asList(BenchCommand.class));
+        long start = System.nanoTime();
+        for (int i = 0; i < STEPS; i++) {
+            table.get("action").invoke(null);
+        }
+        System.out.printf("lookup and generated %.1f ns/step, %d steps run%n",
+                (double) (System.nanoTime() - start) / STEPS, BenchCommand.count);
+    }
+}
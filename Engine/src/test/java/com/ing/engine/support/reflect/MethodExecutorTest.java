@@ -0,0 +1,95 @@
+package com.ing.engine.support.reflect;
+
+import com.ing.engine.core.CommandControl;
+import java.util.Arrays;
+import java.util.Map;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import org.testng.annotations.Test;
+
+public class MethodExecutorTest {
+
+    static String called;
+
+    public static class FirstCommand {
+
+        public FirstCommand(CommandControl cc) {
+        }
+
+        public void first() {
+            called = "first";
+        }
+
+        public void shared() {
+            called = "FirstCommand.shared";
+        }
+
+        public void fail() {
+            throw new IllegalStateException("fail");
+        }
+    }
+
+    public static class SecondCommand {
+
+        public SecondCommand(CommandControl cc) {
+        }
+
+        public void shared() {
+            called = "SecondCommand.shared";
+        }
+
+        public void second() {
+            called = "second";
+        }
+    }
+
+    public static class NotACommand {
+
+        public void other() {
+            called = "other";
+        }
+    }
+
+    private Map<String, MethodExecutor.Invoker> build() {
+        return MethodExecutor.build(Arrays.asList(NotACommand.class, FirstCommand.class, SecondCommand.class));
+    }
+
+    /**
+     * Test of build method, of class MethodExecutor.
+     */
+    @Test
+    public void testBuild() throws Throwable {
+        Map<String, MethodExecutor.Invoker> table = build();
+        table.get("first").invoke(null);
+        assertEquals(called, "first");
+        table.get("second").invoke(null);
+        assertEquals(called, "second");
+        assertFalse(table.containsKey("other"));
+        assertFalse(table.containsKey("wait"));
+    }
+
+    /**
+     * Test of build method with an action in several classes, of class
+     * MethodExecutor.
+     */
+    @Test
+    public void testFirstClassWins() throws Throwable {
+        build().get("shared").invoke(null);
+        assertEquals(called, "FirstCommand.shared");
+    }
+
+    /**
+     * Test of build method with a failing action, of class MethodExecutor.
+     */
+    @Test
+    public void testExceptionNotWrapped() throws Throwable {
+        try {
+            build().get("fail").invoke(null);
+        } catch (IllegalStateException ex) {
+            assertEquals(ex.getMessage(), "fail");
+            return;
+        }
+        throw new AssertionError("exception expected");
+    }
+
+}
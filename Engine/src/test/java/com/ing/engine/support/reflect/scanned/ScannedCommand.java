@@ -0,0 +1,15 @@
+package com.ing.engine.support.reflect.scanned;
+
+import com.ing.engine.commands.browser.Command;
+import com.ing.engine.core.CommandControl;
+
+/**
+ * A command of a package that is not in the command index.
+ *
+ */
+public class ScannedCommand extends Command {
+
+    public ScannedCommand(CommandControl cc) {
+        super(cc);
+    }
+}
@@ -25,6 +25,7 @@ public class KeyMapTest {
         System.setProperty("val.1", "1");
         System.setProperty("val.2", "b");
         System.setProperty("val.3", "c");
+        KeyMap.invalidateEnvSnapshot();
 
         vMap.put("scenario", "myscn");
         vMap.put("testcase", "tc");
@@ -98,4 +99,16 @@ public class KeyMapTest {
 
     }
 
+    /**
+     * Test of replaceKeys method with values holding ',' and '=', of class
+     * KeyMap.
+     */
+    @Test
+    public void testReplaceKeysWithSeparatorsInValue() {
+        System.setProperty("var.csv", "a,b=c");
+        KeyMap.invalidateEnvSnapshot();
+        String result = KeyMap.replaceKeys("${var.csv}", KeyMap.ENV_VARS);
+        assertEquals("a,b=c", result);
+    }
+
 }
@@ -0,0 +1,60 @@
+package com.ing.engine.util.data.fx;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class FParserTest {
+
+    @BeforeMethod
+    public void setUp() {
+        FParser.clearCache();
+    }
+
+    /**
+     * Test of eval method, of class FParser.
+     */
+    @Test
+    public void testEval() {
+        assertEquals(FParser.eval("Concat(a,\"b,c\",d)"), "ab,cd");
+        assertEquals(FParser.eval("ToUpper(abc)"), "ABC");
+        assertEquals(FParser.eval("Concat(a, b)"), "a b");
+        assertEquals(FParser.eval("Unknown(a)"), "null");
+    }
+
+    /**
+     * Test of eval method with nested functions, of class FParser.
+     */
+    @Test
+    public void testEvalNested() {
+        assertEquals(FParser.eval("Concat(x,=ToUpper(a),=Max(1,2))"), "xA2.0");
+        assertEquals(FParser.eval("Concat(=Concat(a,=ToLower(B)),c)"), "abc");
+        assertEquals(FParser.eval("Concat(=NotAFunction(a),b)"), "=NotAFunction(a)b");
+        assertEquals(FParser.eval("Date(0,dd-MM-yyyy)"), new SimpleDateFormat("dd-MM-yyyy").format(new Date()));
+    }
+
+    /**
+     * Test of eval method for the same expression, of class FParser.
+     */
+    @Test
+    public void testCompiledOnce() {
+        FExpression expression = FExpression.of("Concat(a,b)");
+        FParser.eval("Concat(a,b)");
+        assertSame(FExpression.of("Concat(a,b)"), expression);
+    }
+
+    /**
+     * Test of split method, of class FExpression.
+     */
+    @Test
+    public void testSplit() {
+        assertEquals(FExpression.split(""), Arrays.asList(""));
+        assertEquals(FExpression.split("a,\"b,c\""), Arrays.asList("a", "\"b,c\""));
+        assertEquals(FExpression.split("=Pow(2,3),a(,b"), Arrays.asList("=Pow(2,3)", "a(", "b"));
+    }
+
+}
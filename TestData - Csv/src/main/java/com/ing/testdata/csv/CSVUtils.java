@@ -5,10 +5,13 @@ import com.ing.datalib.component.utils.CSVHParser;
 import com.ing.datalib.component.utils.FileUtils;
 import com.ing.datalib.testdata.model.AbstractDataModel;
 import com.ing.datalib.testdata.model.GlobalDataModel;
-import com.ing.datalib.testdata.model.Record;
 import com.ing.datalib.testdata.model.TestDataModel;
 import java.io.File;
 import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -47,35 +50,30 @@ public class CSVUtils {
     }
 
     public static void saveChanges(GlobalDataModel globalData) {
-        createIfNotExists(globalData.getLocation());
-        try (FileWriter out = new FileWriter(new File(globalData.getLocation()));
-                CSVPrinter printer = new CSVPrinter(out, CSVFormat.EXCEL.withIgnoreEmptyLines());) {
-            for (String header : globalData.getColumns()) {
-                printer.print(header);
-            }
-            printer.println();
-            globalData.removeEmptyRecords();
-            for (List<String> record : globalData.getRecords()) {
-                for (String value : record) {
-                    printer.print(value);
-                }
-                printer.println();
-            }
-        } catch (Exception ex) {
-            Logger.getLogger(CSVUtils.class.getName()).log(Level.SEVERE, "Error while saving", ex);
-        }
+        globalData.removeEmptyRecords();
+        save(globalData.getLocation(), globalData.getColumns(), globalData.getRecords());
     }
 
     public static void saveChanges(TestDataModel testData) {
-        createIfNotExists(testData.getLocation());
-        try (FileWriter out = new FileWriter(new File(testData.getLocation()));
+        testData.removeEmptyRecords();
+        save(testData.getLocation(), testData.getColumns(), testData.getRecords());
+    }
+
+    /**
+     * writes the sheet to a temp file next to it and moves it in place, so an
+     * interrupted write never leaves a partial sheet behind
+     */
+    private static void save(String location, List<String> columns, List<? extends List<String>> records) {
+        createIfNotExists(location);
+        File target = new File(location);
+        File temp = new File(target.getParentFile(), target.getName() + ".tmp");
+        try (FileWriter out = new FileWriter(temp);
                 CSVPrinter printer = new CSVPrinter(out, CSVFormat.EXCEL.withIgnoreEmptyLines());) {
-            for (String header : testData.getColumns()) {
+            for (String header : columns) {
                 printer.print(header);
             }
             printer.println();
-            testData.removeEmptyRecords();
-            for (Record record : testData.getRecords()) {
+            for (List<String> record : records) {
                 for (String value : record) {
                     printer.print(value);
                 }
@@ -83,6 +81,18 @@ public class CSVUtils {
             }
         } catch (Exception ex) {
             Logger.getLogger(CSVUtils.class.getName()).log(Level.SEVERE, "Error while saving", ex);
+            temp.delete();
+            return;
+        }
+        try {
+            try {
+                Files.move(temp.toPath(), target.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            Logger.getLogger(CSVUtils.class.getName()).log(Level.SEVERE, "Error while saving", ex);
         }
     }
 }
@@ -30,6 +30,16 @@ public class CsvGlobalData extends GlobalDataModel {
         CSVUtils.saveChanges(this);
     }
 
+    @Override
+    public void saveChangesDeferred() {
+        CsvWriteBehind.markDirty(this);
+    }
+
+    @Override
+    public void flushChanges() {
+        CsvWriteBehind.flush(this);
+    }
+
     @Override
     public String getName() {
         String name = new File(getLocation()).getName();
@@ -43,6 +43,16 @@ public class CsvTestData extends TestDataModel {
         CSVUtils.saveChanges(this);
     }
 
+    @Override
+    public void saveChangesDeferred() {
+        CsvWriteBehind.markDirty(this);
+    }
+
+    @Override
+    public void flushChanges() {
+        CsvWriteBehind.flush(this);
+    }
+
     @Override
     public String getName() {
         String name = new File(getLocation()).getName();
@@ -0,0 +1,91 @@
+package com.ing.testdata.csv;
+
+import com.ing.datalib.testdata.model.AbstractDataModel;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind buffer for data sheets updated during execution.
+ * <br>
+ * Updates only mark the sheet dirty, the sheet is written once per flush
+ * instead of once per updated field. Dirty sheets are flushed
+ * <br> - periodically (<code>testdata.csv.flushInterval</code> in ms, default
+ * 2000)
+ * <br> - at the end of each iteration and at the end of the run
+ * <br> - on JVM shutdown
+ * <br>
+ * A flush holds the model's monitor, the same one the engine holds while it
+ * updates the model.
+ *
+ */
+public final class CsvWriteBehind {
+
+    private static final Logger LOG = Logger.getLogger(CsvWriteBehind.class.getName());
+
+    private static final long FLUSH_INTERVAL = Long.getLong("testdata.csv.flushInterval", 2000L);
+
+    private static final Set<AbstractDataModel> DIRTY = ConcurrentHashMap.newKeySet();
+
+    private static ScheduledExecutorService scheduler;
+
+    private CsvWriteBehind() {
+    }
+
+    /**
+     * marks the model for the next flush
+     *
+     * @param model the updated model
+     */
+    public static void markDirty(AbstractDataModel model) {
+        DIRTY.add(model);
+        start();
+    }
+
+    /**
+     * writes the model now if it has buffered changes
+     *
+     * @param model the model to flush
+     */
+    public static void flush(AbstractDataModel model) {
+        if (DIRTY.remove(model)) {
+            write(model);
+        }
+    }
+
+    /**
+     * writes all the models with buffered changes
+     */
+    public static void flushAll() {
+        for (AbstractDataModel model : DIRTY) {
+            flush(model);
+        }
+    }
+
+    private static void write(AbstractDataModel model) {
+        try {
+            synchronized (model) {
+                model.saveChanges();
+            }
+        } catch (Exception ex) {
+            LOG.log(Level.SEVERE, "Error while saving " + model.getLocation(), ex);
+        }
+    }
+
+    private static synchronized void start() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "csv-write-behind");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(CsvWriteBehind::flushAll,
+                    FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+            Runtime.getRuntime().addShutdownHook(new Thread(CsvWriteBehind::flushAll, "csv-write-behind-exit"));
+        }
+    }
+}